@@ -0,0 +1,59 @@
+package com.tafu.bazi.benchmark;
+
+import com.tafu.bazi.BaziTestFixtures;
+import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BaziCalculateBenchmark
+ *
+ * <p>描述: BaziServiceImpl.calculate 基准 (公历/农历输入，缓存关闭)，轮换使用一组不同日期与地点的请求。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaziCalculateBenchmark {
+
+  @Param({"solar", "lunar"})
+  public String calendarType;
+
+  private BaziServiceImpl baziService;
+  private BaziCalculateRequest[] requests;
+  private int next;
+
+  @Setup
+  public void setup() {
+    baziService = BaziTestFixtures.newBaziService();
+    requests = BenchmarkFixtures.requests(calendarType, 64);
+    // 预热地理索引与交节表，避免首次加载计入测量
+    baziService.calculate(requests[0]);
+  }
+
+  @Benchmark
+  public BaziResponse calculate() {
+    BaziCalculateRequest request = requests[next];
+    next = (next + 1) % requests.length;
+    return baziService.calculate(request);
+  }
+}
@@ -0,0 +1,65 @@
+package com.tafu.bazi.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.tafu.bazi.BaziTestFixtures;
+import com.tafu.bazi.dto.ai.MinimalBaziData;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.mapper.BaziMapper;
+import com.tafu.bazi.mapper.MapToDtoMapper;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import com.tafu.bazi.utils.BaziResultOptimizer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BaziResultBenchmark
+ *
+ * <p>描述: 从数据库 JSONB 读出的排盘 Map 的两条处理路径基准: BaziResultOptimizer.optimize (AI 提示词极简结构) 与
+ * BaziMapper.mapToBaziResponse (Map -> DTO)。输入由一次真实排盘经 Jackson 转换得到，与 Subject.baziData 结构一致。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaziResultBenchmark {
+
+  private BaziMapper baziMapper;
+  private Map<String, Object> baziData;
+
+  @Setup
+  public void setup() {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    BaziResponse response = baziService.calculate(BenchmarkFixtures.requests("solar", 1)[0]);
+    baziData =
+        BaziTestFixtures.OBJECT_MAPPER.convertValue(
+            response, new TypeReference<Map<String, Object>>() {});
+    baziMapper = new BaziMapper(new MapToDtoMapper());
+  }
+
+  @Benchmark
+  public MinimalBaziData optimize() {
+    return BaziResultOptimizer.optimize(baziData);
+  }
+
+  @Benchmark
+  public BaziResponse mapToBaziResponse() {
+    return baziMapper.mapToBaziResponse(baziData);
+  }
+}
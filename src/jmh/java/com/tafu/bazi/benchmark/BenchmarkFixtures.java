@@ -0,0 +1,37 @@
+package com.tafu.bazi.benchmark;
+
+import com.tafu.bazi.dto.request.BaziCalculateRequest;
+
+/**
+ * BenchmarkFixtures
+ *
+ * <p>描述: 基准测试共用的排盘请求样本。排盘服务与单元测试共用 BaziTestFixtures 装配 (不启动 Spring 容器，排盘缓存关闭)，测得的是每次完整排盘的耗时与分配。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {}
+
+  /** 一组分布在不同年份、月份与时辰的排盘请求 */
+  static BaziCalculateRequest[] requests(String calendarType, int count) {
+    String[] locations = {"北京市", "广东省/深圳市/南山区", "上海", "四川省/成都市", "乌鲁木齐"};
+    BaziCalculateRequest[] requests = new BaziCalculateRequest[count];
+    for (int i = 0; i < count; i++) {
+      BaziCalculateRequest request = new BaziCalculateRequest();
+      request.setYear(1950 + i * 7 % 70);
+      request.setMonth(1 + i % 12);
+      request.setDay(1 + i * 5 % 28);
+      request.setHour(i * 3 % 24);
+      request.setMinute(i * 11 % 60);
+      request.setCalendarType(calendarType);
+      request.setGender(i % 2 == 0 ? "male" : "female");
+      request.setLocation(locations[i % locations.length]);
+      requests[i] = request;
+    }
+    return requests;
+  }
+}
@@ -0,0 +1,58 @@
+package com.tafu.bazi.benchmark;
+
+import com.tafu.bazi.utils.LunarUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GeoLookupBenchmark
+ *
+ * <p>描述: LunarUtils.getLongitude 基准，分别覆盖精确命中、后缀变换与模糊匹配三条路径。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoLookupBenchmark {
+
+  @Param({"hit", "suffix", "fuzzy"})
+  public String path;
+
+  private String[] locations;
+  private int next;
+
+  @Setup
+  public void setup() {
+    locations =
+        switch (path) {
+          case "hit" -> new String[] {"广东省/深圳市/南山区", "四川省/成都市", "杭州市", "浙江省"};
+          case "suffix" -> new String[] {"深圳", "朝阳", "延边", "锡林郭勒"};
+          default -> new String[] {"广东深圳南山区某某街道", "出生在成都", "纽约", "香港九龙"};
+        };
+    LunarUtils.getLongitude(locations[0]);
+  }
+
+  @Benchmark
+  public double getLongitude() {
+    String location = locations[next];
+    next = (next + 1) % locations.length;
+    return LunarUtils.getLongitude(location);
+  }
+}
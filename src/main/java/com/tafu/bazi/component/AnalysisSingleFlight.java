@@ -0,0 +1,89 @@
+package com.tafu.bazi.component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * AnalysisSingleFlight
+ *
+ * <p>描述: AI 生成的进程内合并 (single-flight)。同一 (测算对象, 分析类型, 主题) 的并发请求只发起一次上游调用: 第一个请求开始生成，
+ * 生成期间到达的请求 (重复点击、多个标签页、同步接口与 SSE 流混用、同一主题的任务) 共享这次生成的结果。
+ *
+ * <p>规则: 共享流按 replay 重放，晚到的订阅者先收到已生成的全部片段再继续接收；所有订阅者都取消时取消上游。生成结束 (完成、出错或取消)
+ * 后移除记录，之后的请求读取已保存的结果或重新生成。只在本节点内合并，跨节点的重复由数据库唯一约束与条件更新兜底。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class AnalysisSingleFlight {
+
+  /** 合并键 */
+  public record Key(String subjectId, String kind, String theme) {
+
+    /** 初步分析 */
+    public static Key initial(String subjectId) {
+      return new Key(subjectId, "initial", null);
+    }
+
+    /** 主题解锁分析 */
+    public static Key theme(String subjectId, String theme) {
+      return new Key(subjectId, "theme", theme);
+    }
+  }
+
+  private final ConcurrentHashMap<Key, Flux<String>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * 以流的形式加入生成
+   *
+   * @param key 合并键
+   * @param generation 无进行中的生成时用于发起生成 (订阅时才调用)，只会被其中一个请求调用
+   * @return 共享的生成结果片段
+   */
+  public Flux<String> stream(Key key, Supplier<Flux<String>> generation) {
+    return Flux.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, generation)));
+  }
+
+  /**
+   * 以阻塞调用的形式加入生成，返回完整内容
+   *
+   * <p>发起生成的请求在调用线程上直接执行 generation，其余请求等待其结果；若已有进行中的流式生成，则等待流结束并拼接全部片段。
+   *
+   * @param key 合并键
+   * @param generation 生成完整内容的阻塞调用
+   * @return 完整内容
+   */
+  public String call(Key key, Callable<String> generation) {
+    return stream(key, () -> Mono.fromCallable(generation).flux())
+        .collect(Collectors.joining())
+        .block();
+  }
+
+  /** 进行中的生成数 */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private Flux<String> share(Key key, Supplier<Flux<String>> generation) {
+    log.debug("Starting generation for {}", key);
+    AtomicReference<Flux<String>> self = new AtomicReference<>();
+    Flux<String> shared =
+        Flux.defer(generation)
+            .doFinally(signal -> inFlight.remove(key, self.get()))
+            .replay()
+            .refCount();
+    self.set(shared);
+    return shared;
+  }
+}
@@ -0,0 +1,136 @@
+package com.tafu.bazi.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.model.BaziField;
+import com.tafu.bazi.service.BaziService;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * BaziChartCache
+ *
+ * <p>描述: 排盘结果进程内缓存 (Caffeine)。键为真太阳时 (精确到分钟)、性别、计算的部分 (fields)
+ * 与排盘引擎版本，因此不同地点字符串只要换算出相同的真太阳时即共享同一条缓存。按容量和写入后 TTL 淘汰，并记录命中/未命中/淘汰统计。
+ *
+ * <p>规则: 缓存中保存的是排盘结果序列化后的 JSON 字节 (不可变)，每次命中反序列化出独立的 BaziResponse，调用方修改返回值不会影响缓存
+ * 或其他请求；未命中时计算出的实例直接返回给本次调用方，不与缓存共享。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BaziChartCache {
+
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.bazi.cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.bazi.cache.max-size:10000}")
+  private long maxSize;
+
+  @Value("${app.bazi.cache.ttl:PT6H}")
+  private Duration ttl;
+
+  private Cache<ChartKey, byte[]> cache;
+
+  /** 缓存键: 真太阳时 (纪元分钟，仅作为规范化的本地时间编码)、性别、计算的部分、引擎版本 */
+  private record ChartKey(
+      long trueSolarMinute, String gender, Set<BaziField> fields, String engineVersion) {}
+
+  @PostConstruct
+  public void init() {
+    cache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    log.info("Bazi chart cache initialized: enabled={}, maxSize={}, ttl={}", enabled, maxSize, ttl);
+  }
+
+  /**
+   * 按真太阳时获取排盘结果，未命中时调用 loader 计算并写入缓存
+   *
+   * @param trueSolarMinute 真太阳时的纪元分钟 (见 SolarTimeUtils)
+   * @param gender 性别
+   * @param fields 计算的部分 (不同部分组合的结果分别缓存)，调用方不得再修改
+   * @param loader 排盘计算
+   * @return 排盘结果 (调用方独占的实例)
+   */
+  public BaziResponse get(
+      long trueSolarMinute, String gender, Set<BaziField> fields, Supplier<BaziResponse> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+    ChartKey key = new ChartKey(trueSolarMinute, gender, fields, BaziService.ENGINE_VERSION);
+    BaziResponse[] loaded = new BaziResponse[1];
+    byte[] json =
+        cache.get(
+            key,
+            k -> {
+              loaded[0] = loader.get();
+              return serialize(loaded[0]);
+            });
+    return loaded[0] != null ? loaded[0] : deserialize(json);
+  }
+
+  private byte[] serialize(BaziResponse response) {
+    try {
+      return objectMapper.writeValueAsBytes(response);
+    } catch (IOException e) {
+      throw new UncheckedIOException("排盘结果序列化失败", e);
+    }
+  }
+
+  private BaziResponse deserialize(byte[] json) {
+    try {
+      return objectMapper.readValue(json, BaziResponse.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException("排盘结果反序列化失败", e);
+    }
+  }
+
+  /** 缓存统计 (供监控使用) */
+  public Map<String, Object> getStats() {
+    CacheStats stats = cache.stats();
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", enabled);
+    result.put("engineVersion", BaziService.ENGINE_VERSION);
+    result.put("size", cache.estimatedSize());
+    result.put("maxSize", maxSize);
+    result.put("ttlSeconds", ttl.toSeconds());
+    result.put("hitCount", stats.hitCount());
+    result.put("missCount", stats.missCount());
+    result.put("hitRate", stats.hitRate());
+    result.put("evictionCount", stats.evictionCount());
+    result.put("loadFailureCount", stats.loadFailureCount());
+    result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+    return result;
+  }
+
+  /**
+   * 清空缓存 (排盘引擎版本变更后由管理员调用)
+   *
+   * @return 清空前的缓存条目数 (估计值)
+   */
+  public long invalidateAll() {
+    long size = cache.estimatedSize();
+    cache.invalidateAll();
+    log.info("Bazi chart cache invalidated, {} entries removed", size);
+    return size;
+  }
+}
@@ -0,0 +1,107 @@
+package com.tafu.bazi.component;
+
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.exception.StandardErrorCode;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * OutboundCallLimiter
+ *
+ * <p>描述: 外部阻塞调用 (AI 接口、码支付接口) 的并发上限。启用虚拟线程后线程数不再限制并发，由这里的信号量显式限制同时在途的调用数，
+ * 与线程数解耦，避免突发流量压垮上游或耗尽连接。
+ *
+ * <p>规则: 达到上限时最多等待 acquire-timeout，仍无空闲名额则抛出 SERVICE_BUSY；名额在调用结束 (含异常) 后归还。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class OutboundCallLimiter {
+
+  @Value("${app.outbound.ai.max-concurrency:200}")
+  private int aiMaxConcurrency;
+
+  @Value("${app.outbound.payment.max-concurrency:50}")
+  private int paymentMaxConcurrency;
+
+  @Value("${app.outbound.acquire-timeout:PT30S}")
+  private Duration acquireTimeout;
+
+  private Semaphore ai;
+  private Semaphore payment;
+
+  /** 可抛出受检异常的调用 */
+  @FunctionalInterface
+  public interface Call<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  @PostConstruct
+  public void init() {
+    ai = new Semaphore(aiMaxConcurrency, true);
+    payment = new Semaphore(paymentMaxConcurrency, true);
+    log.info(
+        "Outbound call limits: ai={}, payment={}, acquireTimeout={}",
+        aiMaxConcurrency,
+        paymentMaxConcurrency,
+        acquireTimeout);
+  }
+
+  /** 在 AI 接口并发上限内执行调用 */
+  public <T, E extends Exception> T ai(Call<T, E> call) throws E {
+    return limit(ai, "AI", call);
+  }
+
+  /**
+   * 在 AI 接口并发上限内订阅流式调用
+   *
+   * <p>不等待: 无空闲名额时立即以 SERVICE_BUSY 结束；名额在流完成、出错或被取消时归还。
+   */
+  public <T> Flux<T> aiStream(Supplier<? extends Publisher<T>> source) {
+    return Flux.using(
+        () -> {
+          if (!ai.tryAcquire()) {
+            log.warn("AI call limit reached, stream rejected");
+            throw new BusinessException(StandardErrorCode.SERVICE_BUSY);
+          }
+          return ai;
+        },
+        permits -> Flux.from(source.get()),
+        Semaphore::release);
+  }
+
+  /** 在支付接口并发上限内执行调用 */
+  public <T, E extends Exception> T payment(Call<T, E> call) throws E {
+    return limit(payment, "payment", call);
+  }
+
+  private <T, E extends Exception> T limit(Semaphore permits, String name, Call<T, E> call)
+      throws E {
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("{} call limit reached, rejected after waiting {}", name, acquireTimeout);
+        throw new BusinessException(StandardErrorCode.SERVICE_BUSY);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BusinessException(StandardErrorCode.SERVICE_BUSY);
+    }
+    try {
+      return call.call();
+    } finally {
+      permits.release();
+    }
+  }
+}
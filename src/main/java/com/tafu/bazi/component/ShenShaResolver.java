@@ -0,0 +1,131 @@
+package com.tafu.bazi.component;
+
+import com.nlf.calendar.Lunar;
+import com.tafu.bazi.model.BaziResult.ShenShaInfo;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * ShenShaResolver
+ *
+ * <p>描述: 四柱神煞解析。启动时一次性解析 lunar-java 的年/月/日/时神煞访问器为 MethodHandle，神煞元素的 getName
+ * 访问器按元素类型缓存，排盘时不再逐次反射查找方法。
+ *
+ * <p>规则: 输出与原反射实现一致。访问器不存在时对应柱返回空列表；元素 getName 不可用或返回非字符串时使用 toString；名称为空时跳过。
+ * 当前依赖的 lunar-java 1.7.7 不提供这四个访问器，神煞恒为空 (isAvailable 为 false，启动时告警)。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class ShenShaResolver {
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  /** 神煞元素 getName 访问器，按元素类型缓存；不可用时为 null */
+  private static final ClassValue<MethodHandle> NAME_ACCESSORS =
+      new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+          return resolve(type, "getName");
+        }
+      };
+
+  private final MethodHandle yearAccessor = resolve(Lunar.class, "getYearShenSha");
+  private final MethodHandle monthAccessor = resolve(Lunar.class, "getMonthShenSha");
+  private final MethodHandle dayAccessor = resolve(Lunar.class, "getDayShenSha");
+  private final MethodHandle hourAccessor = resolve(Lunar.class, "getTimeShenSha");
+
+  public ShenShaResolver() {
+    log.info(
+        "ShenSha accessors resolved: year={}, month={}, day={}, hour={}",
+        yearAccessor != null,
+        monthAccessor != null,
+        dayAccessor != null,
+        hourAccessor != null);
+    if (!isAvailable()) {
+      log.warn("lunar-java provides no ShenSha accessors, ShenSha will always be empty");
+    }
+  }
+
+  /** 是否解析到任一神煞访问器 (否则 resolve 恒返回空列表) */
+  public boolean isAvailable() {
+    return yearAccessor != null
+        || monthAccessor != null
+        || dayAccessor != null
+        || hourAccessor != null;
+  }
+
+  /**
+   * 计算四柱神煞
+   *
+   * @param lunar 农历对象
+   * @return 年月日时神煞名称
+   */
+  public ShenShaInfo resolve(Lunar lunar) {
+    return ShenShaInfo.builder()
+        .year(names(lunar, yearAccessor))
+        .month(names(lunar, monthAccessor))
+        .day(names(lunar, dayAccessor))
+        .hour(names(lunar, hourAccessor))
+        .build();
+  }
+
+  private static List<String> names(Lunar lunar, MethodHandle accessor) {
+    List<String> result = new ArrayList<>();
+    if (accessor == null) {
+      return result;
+    }
+    try {
+      if (accessor.invokeExact((Object) lunar) instanceof List<?> list) {
+        for (Object item : list) {
+          // 空元素时原实现在 toString 处中断，保留已解析的部分
+          if (item == null) {
+            return result;
+          }
+          String name = nameOf(item);
+          if (name != null && !name.isEmpty()) {
+            result.add(name);
+          }
+        }
+      }
+    } catch (Throwable e) {
+      log.debug("获取神煞失败: {}", e.getMessage());
+    }
+    return result;
+  }
+
+  private static String nameOf(Object item) {
+    MethodHandle getName = NAME_ACCESSORS.get(item.getClass());
+    if (getName != null) {
+      try {
+        Object name = getName.invokeExact(item);
+        if (name == null || name instanceof String) {
+          return (String) name;
+        }
+      } catch (Throwable e) {
+        // 与原实现一致，回退到 toString
+      }
+    }
+    return item.toString();
+  }
+
+  /** 解析无参实例方法为 (Object)Object 形式的 MethodHandle，不存在或不可访问时返回 null */
+  private static MethodHandle resolve(Class<?> type, String methodName) {
+    try {
+      return MethodHandles.publicLookup()
+          .unreflect(type.getMethod(methodName))
+          .asType(ACCESSOR_TYPE);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.tafu.bazi.component;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * TaskDispatcher
+ *
+ * <p>描述: 异步任务派发。创建或重置任务的事务内调用 dispatch: 在同一事务内 pg_notify 到 tasks 频道，并在事务提交后立即唤醒本节点的
+ * TaskProcessor；其他节点的监听线程 LISTEN 该频道，收到通知后各自唤醒认领。认领由 TaskProcessor 的 SKIP LOCKED 批量认领保证只有一个节点执行。
+ *
+ * <p>规则: 通知随事务提交才投递，回滚的任务不会被唤醒；通知内容为 "节点ID:任务ID"，本节点发出的通知已在提交后直接唤醒，监听时忽略；
+ * 监听连接断开后按 1s-30s 退避重连，期间遗漏的任务由 TaskProcessor 的兜底扫描补上。监听占用连接池中的一个长连接。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskDispatcher {
+
+  /** 任务通知频道 */
+  public static final String CHANNEL = "tasks";
+
+  /** 单次等待通知的最长时间 (毫秒)，超时后检查是否需要停止 */
+  private static final int POLL_TIMEOUT_MS = 10_000;
+
+  /** 重连退避上限 (毫秒) */
+  private static final long MAX_BACKOFF_MS = 30_000;
+
+  private final TaskProcessor taskProcessor;
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSource dataSource;
+
+  @Value("${app.task.listen-enabled:true}")
+  private boolean listenEnabled;
+
+  private volatile boolean running;
+  private Thread listener;
+
+  /**
+   * 派发任务
+   *
+   * <p>在事务内调用时，通知与本地派发都推迟到事务提交之后；无事务时立即执行。
+   *
+   * @param taskId 已保存为 pending 的任务 ID
+   */
+  public void dispatch(String taskId) {
+    jdbcTemplate.queryForList(
+        "SELECT pg_notify(?, ?)", CHANNEL, TaskProcessor.WORKER_ID + ":" + taskId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              taskProcessor.wakeUp();
+            }
+          });
+    } else {
+      taskProcessor.wakeUp();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!listenEnabled) {
+      log.info("Task notification listener disabled, relying on the periodic sweep");
+      return;
+    }
+    running = true;
+    listener = Thread.ofPlatform().name("task-listener").daemon().start(this::listen);
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  private void listen() {
+    long backoff = 1000;
+    while (running) {
+      try (Connection connection = dataSource.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CHANNEL);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        log.info("Listening for task notifications on channel '{}'", CHANNEL);
+        backoff = 1000;
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            onNotification(notification.getParameter());
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          break;
+        }
+        log.warn("Task notification listener disconnected, retrying in {} ms", backoff, e);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+      }
+    }
+    log.info("Task notification listener stopped");
+  }
+
+  private void onNotification(String payload) {
+    int separator = payload.indexOf(':');
+    if (separator < 0 || payload.substring(0, separator).equals(TaskProcessor.WORKER_ID)) {
+      return;
+    }
+    String taskId = payload.substring(separator + 1);
+    log.debug("Task {} notified by another node", taskId);
+    taskProcessor.wakeUp();
+  }
+}
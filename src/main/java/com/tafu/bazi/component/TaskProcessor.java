@@ -16,21 +16,32 @@ import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
 import com.theokanning.openai.service.OpenAiService;
 import jakarta.annotation.PostConstruct;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * TaskProcessor
  *
- * <p>描述: 异步任务处理器，处理主题解锁等耗时任务。
+ * <p>描述: 异步任务处理器，处理主题解锁等耗时任务。tasks 表即队列: 各节点按空闲工作槽位数以 FOR UPDATE SKIP LOCKED 批量认领并写入租约，
+ * 每条任务独立执行，吞吐随节点数与槽位数线性增长，无全局锁。TaskDispatcher 在任务提交后唤醒本节点 (其他节点经 NOTIFY 唤醒)，
+ * 任务结束后继续认领，低频兜底扫描补上遗漏的任务。
+ *
+ * <p>规则: 认领时写入 locked_by 与 lease_until，处理期间定期续租；节点宕机后租约过期，任务可被其他节点重新认领。结束任务
+ * (completed / failed) 以 locked_by 为条件，租约已被接手的旧持有者不会覆盖结果或重复退款。
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -42,6 +53,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class TaskProcessor {
 
+  /** 本节点的工作者标识，写入 tasks.locked_by */
+  public static final String WORKER_ID =
+      Objects.requireNonNullElse(System.getenv("HOSTNAME"), "node")
+          + "-"
+          + UUID.randomUUID().toString().substring(0, 8);
+
+  /** 本处理器认领的任务类型 */
+  private static final String THEME_UNLOCK = "THEME_UNLOCK";
+
   private final TaskRepository taskRepository;
   private final ThemeAnalysisRepository themeAnalysisRepository;
   private final SubjectService subjectService;
@@ -50,70 +70,113 @@ public class TaskProcessor {
   private final ObjectMapper objectMapper;
   private final com.tafu.bazi.service.PointsService pointsService;
   private final com.tafu.bazi.repository.ThemePricingRepository themePricingRepository;
+  private final OutboundCallLimiter outboundCallLimiter;
+  private final AnalysisSingleFlight analysisSingleFlight;
+
+  private final org.springframework.core.task.AsyncTaskExecutor taskExecutor;
+
+  @Value("${app.task.worker-slots:${app.task.pool-size:5}}")
+  private int workerSlots;
 
-  private final org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor taskExecutor;
+  @Value("${app.task.lease-seconds:300}")
+  private int leaseSeconds;
+
+  @Value("${app.task.sweep-interval-ms:60000}")
+  private long sweepIntervalMs;
+
+  /** 空闲的工作槽位，认领条数不超过空闲槽位数 */
+  private Semaphore slots;
+
+  /** 本节点正在处理的任务，定期续租 */
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
 
   @PostConstruct
   public void init() {
+    slots = new Semaphore(workerSlots);
     log.info("===== TaskProcessor initialized =====");
-    log.info("Task executor pool size: {}", taskExecutor.getCorePoolSize());
-    log.info("Scheduler will check for pending tasks every 2 seconds");
-
-    // 检查是否有待处理的任务
-    List<Task> pendingTasks =
-        taskRepository.findByStatusAndType(
-            "pending", "THEME_UNLOCK", org.springframework.data.domain.PageRequest.of(0, 10));
-    log.info("Found {} pending THEME_UNLOCK tasks at startup", pendingTasks.size());
-    if (!pendingTasks.isEmpty()) {
-      pendingTasks.forEach(t -> log.info("  - Task ID: {}, User: {}", t.getId(), t.getUserId()));
+    log.info(
+        "Worker {}: {} slots, lease {} s, safety-net sweep every {} ms",
+        WORKER_ID,
+        workerSlots,
+        leaseSeconds,
+        sweepIntervalMs);
+  }
+
+  /**
+   * 唤醒本节点认领任务
+   *
+   * <p>由 TaskDispatcher 在事务提交后、收到其他节点通知时调用。认领在任务线程池中进行 (不在调用方的事务同步回调里访问数据库)。
+   */
+  public void wakeUp() {
+    if (slots.availablePermits() == 0) {
+      return;
+    }
+    try {
+      taskExecutor.execute(this::poll);
+    } catch (TaskRejectedException e) {
+      log.warn("Task executor saturated, pending tasks left for the next sweep");
     }
   }
 
-  @Scheduled(fixedDelay = 2000) // 每2秒轮询一次
-  @net.javacrumbs.shedlock.spring.annotation.SchedulerLock(
-      name = "processPendingTasks",
-      lockAtLeastFor = "PT2S",
-      lockAtMostFor = "PT10S")
+  /** 兜底扫描: 补上启动前遗留、通知丢失的 pending 任务，以及租约过期 (节点宕机) 的 processing 任务。各节点各自扫描，无全局锁 */
+  @Scheduled(fixedDelayString = "${app.task.sweep-interval-ms:60000}", initialDelay = 5000)
   public void processPendingTasks() {
-    List<Task> pendingTasks =
-        taskRepository.findByStatusAndType(
-            "pending", "THEME_UNLOCK", org.springframework.data.domain.PageRequest.of(0, 50));
+    poll();
+  }
 
-    if (!pendingTasks.isEmpty()) {
-      log.info("Found {} pending THEME_UNLOCK tasks", pendingTasks.size());
+  /** 续租: 每隔租约的三分之一延长本节点在处理任务的租约，处理时间超过租约的任务不会被其他节点重复认领 */
+  @Scheduled(fixedDelayString = "#{${app.task.lease-seconds:300} * 1000 / 3}")
+  public void renewLeases() {
+    if (!inFlight.isEmpty()) {
+      taskRepository.renewLeases(List.copyOf(inFlight), WORKER_ID, leaseSeconds);
     }
+  }
 
-    List<java.util.concurrent.CompletableFuture<Void>> futures = new java.util.ArrayList<>();
-    for (Task task : pendingTasks) {
-      log.info(
-          "Submitting task {} for processing (user: {}, type: {})",
-          task.getId(),
-          task.getUserId(),
-          task.getType());
-      futures.add(
-          java.util.concurrent.CompletableFuture.runAsync(() -> processTask(task), taskExecutor));
+  /** 按空闲槽位数批量认领 (SKIP LOCKED)，每条任务占用一个槽位独立执行 */
+  private void poll() {
+    int free = slots.drainPermits();
+    if (free == 0) {
+      return;
     }
-
-    if (!futures.isEmpty()) {
+    List<String> claimed;
+    try {
+      claimed = taskRepository.claim(THEME_UNLOCK, WORKER_ID, leaseSeconds, free);
+    } catch (RuntimeException e) {
+      slots.release(free);
+      log.error("Failed to claim tasks", e);
+      return;
+    }
+    slots.release(free - claimed.size());
+    if (!claimed.isEmpty()) {
+      log.info("Worker {} claimed {} tasks", WORKER_ID, claimed.size());
+    }
+    for (String taskId : claimed) {
+      inFlight.add(taskId);
       try {
-        java.util.concurrent.CompletableFuture.allOf(
-                futures.toArray(new java.util.concurrent.CompletableFuture[0]))
-            .join();
-      } catch (Exception e) {
-        log.error("Error waiting for tasks to complete", e);
+        taskExecutor.execute(() -> run(taskId));
+      } catch (TaskRejectedException e) {
+        inFlight.remove(taskId);
+        slots.release();
+        taskRepository.release(taskId, WORKER_ID);
+        log.warn("Task executor saturated, task {} released", taskId);
       }
     }
   }
 
-  @Transactional
-  public void processTask(Task task) {
-    log.info("Processing task: {}", task.getId());
+  /** 执行一条已认领的任务，结束后归还槽位并继续认领，积压的任务无需等待扫描 */
+  private void run(String taskId) {
     try {
-      // Update to processing
-      task.setStatus("processing");
-      task.setStartedAt(LocalDateTime.now());
-      taskRepository.saveAndFlush(task);
+      taskRepository.findById(taskId).ifPresent(this::processTask);
+    } finally {
+      inFlight.remove(taskId);
+      slots.release();
+    }
+    poll();
+  }
 
+  public void processTask(Task task) {
+    log.info("Processing task: {} (user: {})", task.getId(), task.getUserId());
+    try {
       Map<String, Object> payload = task.getPayload();
       String subjectId = (String) payload.get("subjectId");
       String theme = (String) payload.get("theme");
@@ -121,15 +184,17 @@ public class TaskProcessor {
       processThemeUnlock(task.getUserId(), subjectId, theme);
 
       // Success
-      task.setStatus("completed");
-      task.setCompletedAt(LocalDateTime.now());
-      taskRepository.save(task);
+      if (taskRepository.finish(task.getId(), WORKER_ID, "completed", null) == 0) {
+        log.warn("Lease lost for task {}, result kept by the new owner", task.getId());
+      }
 
     } catch (Exception e) {
       log.error("Task processing failed: {}", task.getId(), e);
-      task.setStatus("failed");
-      task.setError(e.getMessage());
-      taskRepository.save(task);
+      // 租约已被其他节点接手时不标记失败、不退款，由新的持有者决定结果
+      if (taskRepository.finish(task.getId(), WORKER_ID, "failed", e.getMessage()) == 0) {
+        log.warn("Lease lost for task {}, skip marking failed", task.getId());
+        return;
+      }
 
       // 退还积分
       try {
@@ -155,10 +220,18 @@ public class TaskProcessor {
   }
 
   private void processThemeUnlock(String userId, String subjectId, String theme) {
+    // 同一主题同时只生成一次: 跨节点由活动任务的唯一索引保证，本节点内的并发生成在此合并
+    analysisSingleFlight.call(
+        AnalysisSingleFlight.Key.theme(subjectId, theme),
+        () -> generateThemeAnalysis(userId, subjectId, theme));
+  }
+
+  /** 生成并保存主题分析，返回生成的文本；已存在时不调用 AI，返回 null */
+  private String generateThemeAnalysis(String userId, String subjectId, String theme) {
     // 1. Double check if already exists
     if (themeAnalysisRepository.findBySubjectIdAndTheme(subjectId, theme).isPresent()) {
       log.info("Theme analysis already exists for subject: {}, theme: {}", subjectId, theme);
-      return;
+      return null;
     }
 
     // 2. Prepare Data
@@ -203,7 +276,12 @@ public class TaskProcessor {
               .build();
 
       aiResponse =
-          openAiService.createChatCompletion(request).getChoices().get(0).getMessage().getContent();
+          outboundCallLimiter
+              .ai(() -> openAiService.createChatCompletion(request))
+              .getChoices()
+              .get(0)
+              .getMessage()
+              .getContent();
       log.info("AI response received, length: {}", aiResponse != null ? aiResponse.length() : 0);
     } catch (Exception e) {
       log.error("Failed to call AI API for theme: {}, subject: {}", theme, subjectId, e);
@@ -225,7 +303,13 @@ public class TaskProcessor {
     contentMap.put("text", aiResponse); // 直接存储文本内容
     analysis.setContent(contentMap);
 
-    themeAnalysisRepository.save(analysis);
+    try {
+      themeAnalysisRepository.saveAndFlush(analysis);
+    } catch (DataIntegrityViolationException e) {
+      // uq_theme_subject: 同一主题的结果已由其他任务保存，视为完成
+      log.warn("Theme analysis already saved for subject: {}, theme: {}", subjectId, theme);
+    }
+    return aiResponse;
   }
 
   private String replacePlaceholders(String template, Subject subject) {
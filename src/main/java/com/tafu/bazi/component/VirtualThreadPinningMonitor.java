@@ -0,0 +1,107 @@
+package com.tafu.bazi.component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * VirtualThreadPinningMonitor
+ *
+ * <p>描述: 虚拟线程钉住 (pinning) 诊断。以进程内 JFR 事件流订阅 jdk.VirtualThreadPinned，虚拟线程在 synchronized
+ * 块或本地方法中阻塞超过阈值时记录告警日志与调用栈顶部若干帧，用于定位占住载体线程的代码 (如第三方 HTTP 客户端的同步锁)。
+ *
+ * <p>规则: 仅在 spring.threads.virtual.enabled 且 app.diagnostics.pinned-monitor.enabled 时启动；阈值默认 20ms。
+ * 前 10 次逐条输出调用栈，之后每累计 100 次输出一次，避免刷屏。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  /** 日志中输出的调用栈帧数 */
+  private static final int LOGGED_FRAMES = 8;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  @Value("${app.diagnostics.pinned-monitor.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.diagnostics.pinned-monitor.threshold:PT0.02S}")
+  private Duration threshold;
+
+  private final LongAdder pinnedCount = new LongAdder();
+
+  private RecordingStream stream;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!virtualThreads || !enabled) {
+      return;
+    }
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Virtual thread pinning monitor started, threshold {}", threshold);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  /** 启动以来超过阈值的钉住次数 */
+  public long getPinnedCount() {
+    return pinnedCount.sum();
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedCount.increment();
+    long count = pinnedCount.sum();
+    if (count > 10 && count % 100 != 0) {
+      return;
+    }
+    log.warn(
+        "Virtual thread pinned for {} ms (#{}) at:\n  {}",
+        event.getDuration().toMillis(),
+        count,
+        frames(event.getStackTrace()));
+  }
+
+  private static String frames(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "(no stack trace)";
+    }
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    return frames.stream()
+        .limit(LOGGED_FRAMES)
+        .map(
+            frame ->
+                frame.getMethod().getType().getName()
+                    + "."
+                    + frame.getMethod().getName()
+                    + ":"
+                    + frame.getLineNumber())
+        .collect(Collectors.joining("\n  "));
+  }
+}
@@ -0,0 +1,40 @@
+package com.tafu.bazi.config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * BaziBatchConfig
+ *
+ * <p>描述: 批量排盘并行计算配置。使用独立的 ForkJoinPool，并行度有上限，避免批量请求占满公共线程池或 Web 线程。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Configuration
+public class BaziBatchConfig {
+
+  /** 并行度，0 表示使用 CPU 核数 */
+  @Value("${app.bazi.batch.parallelism:0}")
+  private int parallelism;
+
+  @Bean(destroyMethod = "shutdown")
+  public ForkJoinPool baziBatchPool() {
+    int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    return new ForkJoinPool(
+        size,
+        pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("bazi-batch-" + thread.getPoolIndex());
+          return thread;
+        },
+        null,
+        false);
+  }
+}
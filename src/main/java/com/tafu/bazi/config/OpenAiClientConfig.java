@@ -32,6 +32,9 @@ public class OpenAiClientConfig {
   @Value("${openai.base-url:https://api.openai.com}")
   private String baseUrl;
 
+  @Value("${app.outbound.ai.max-concurrency:200}")
+  private int aiMaxConcurrency;
+
   @Bean
   public OpenAiService openAiService() {
     log.info("===== OpenAI Client Configuration =====");
@@ -45,6 +48,9 @@ public class OpenAiClientConfig {
     // 创建带自定义 base URL 的 OpenAiService
     ObjectMapper mapper = OpenAiService.defaultObjectMapper();
     OkHttpClient client = OpenAiService.defaultClient(apiKey, Duration.ofSeconds(60));
+    // 流式调用走 OkHttp 异步调度，默认每个主机最多 5 个并发请求，放开到与 AI 并发上限一致 (由 OutboundCallLimiter 限流)
+    client.dispatcher().setMaxRequests(aiMaxConcurrency);
+    client.dispatcher().setMaxRequestsPerHost(aiMaxConcurrency);
 
     Retrofit retrofit =
         new Retrofit.Builder()
@@ -52,7 +52,10 @@ public class SecurityConfig {
                         "/auth/send-code",
                         // 排盘相关 - 允许游客访问
                         "/bazi/calculate",
+                        "/bazi/calculate/hours",
+                        "/bazi/search",
                         "/bazi/leap-month/**",
+                        "/bazi/lunar-calendar/**",
                         "/bazi/coordinates",
                         // API 文档
                         "/v3/api-docs/**",
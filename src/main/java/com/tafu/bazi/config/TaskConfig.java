@@ -1,34 +1,48 @@
 package com.tafu.bazi.config;
 
-import javax.sql.DataSource;
-import net.javacrumbs.shedlock.core.LockProvider;
-import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
-import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * TaskConfig
  *
- * <p>描述: 异步任务和分布式锁配置。
+ * <p>描述: 异步任务配置。
  *
- * <p>包含内容: 1. 线程池配置 (ThreadPoolTaskExecutor) 2. 分布式锁配置 (ShedLock)
+ * <p>包含内容: 1. 任务执行器 (虚拟线程或 ThreadPoolTaskExecutor)。多节点间的任务互斥由 TaskProcessor 的 SKIP LOCKED 认领与租约保证，
+ * 不再使用 ShedLock
  *
  * @author Zhihao Li
  * @since 2026-01-25
  */
 @Configuration
-@EnableSchedulerLock(defaultLockAtMostFor = "PT30S")
 public class TaskConfig {
 
   @Value("${app.task.pool-size:5}")
   private int poolSize;
 
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreads;
+
+  /**
+   * 任务执行器
+   *
+   * <p>启用虚拟线程时每个任务一个虚拟线程，阻塞在 AI 调用上不占平台线程，并发由 TaskProcessor 的工作槽位与 OutboundCallLimiter
+   * 限制；否则为固定大小的平台线程池。
+   */
   @Bean
-  public ThreadPoolTaskExecutor taskExecutor() {
+  @Primary
+  public AsyncTaskExecutor taskExecutor() {
+    if (virtualThreads) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-");
+      executor.setVirtualThreads(true);
+      executor.setTaskTerminationTimeout(30_000);
+      return executor;
+    }
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
     executor.setCorePoolSize(poolSize);
     executor.setMaxPoolSize(poolSize * 2);
@@ -37,13 +51,4 @@ public class TaskConfig {
     executor.initialize();
     return executor;
   }
-
-  @Bean
-  public LockProvider lockProvider(DataSource dataSource) {
-    return new JdbcTemplateLockProvider(
-        JdbcTemplateLockProvider.Configuration.builder()
-            .withJdbcTemplate(new JdbcTemplate(dataSource))
-            .usingDbTime() // Works on PostgreSQL, MySQL, MariaDB, MS SQL, Oracle, DB2, HSQL and H2
-            .build());
-  }
 }
@@ -1,13 +1,26 @@
 package com.tafu.bazi.controller;
 
 import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.request.BaziHoursRequest;
 import com.tafu.bazi.dto.response.ApiResponse;
+import com.tafu.bazi.dto.response.BaziBatchItemResponse;
 import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.HourVariantsResponse;
+import com.tafu.bazi.dto.response.LunarYearDTO;
+import com.tafu.bazi.dto.response.PillarWindowDTO;
+import com.tafu.bazi.model.BaziField;
 import com.tafu.bazi.service.BaziService;
+import com.tafu.bazi.utils.LunarCalendarTable;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,13 +28,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * BaziController
  *
  * <p>描述: 八字排盘 API 接口。
  *
- * <p>包含内容: 1. 八字排盘计算 2. 获取年份闰月信息 3. 获取地点经纬度
+ * <p>包含内容: 1. 八字排盘计算 2. 时辰不详排盘 3. 批量排盘 4. 流式批量排盘 5. 四柱反查 6. 获取年份闰月信息 7. 农历月表 8.
+ * 获取地点经纬度
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -33,25 +48,133 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class BaziController {
 
+  private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+  /** 历法数据不随时间变化: 公共缓存一年，且在有效期内不重新验证 */
+  private static final CacheControl IMMUTABLE =
+      CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
   private final BaziService baziService;
 
+  /**
+   * 八字排盘
+   *
+   * <p>fields 为逗号分隔的 BaziResponse 字段名 (如 dayMaster,pattern)，只计算这些部分，其余部分为空；不传表示完整排盘。
+   *
+   * @param request 出生信息
+   * @param fields 可选，需要计算的部分 (见 BaziField)
+   * @return 八字排盘数据
+   */
   @PostMapping("/calculate")
-  public ApiResponse<BaziResponse> calculate(@RequestBody @Valid BaziCalculateRequest request) {
-    return ApiResponse.success(baziService.calculate(request));
+  public ApiResponse<BaziResponse> calculate(
+      @RequestBody @Valid BaziCalculateRequest request,
+      @RequestParam(required = false) String fields) {
+    return ApiResponse.success(baziService.calculate(request, BaziField.parse(fields)));
+  }
+
+  /**
+   * 时辰不详排盘
+   *
+   * <p>出生时辰未知时代替十二次排盘，返回共享的年月日三柱、大运骨架与十二个时辰的差异对比。
+   *
+   * @param request 出生日期与地点 (不含时、分)
+   * @return 十二时辰对比
+   */
+  @PostMapping("/calculate/hours")
+  public ApiResponse<HourVariantsResponse> calculateHourVariants(
+      @RequestBody @Valid BaziHoursRequest request) {
+    return ApiResponse.success(baziService.calculateHourVariants(request));
+  }
+
+  /**
+   * 批量排盘（需登录）
+   *
+   * @param requests 出生信息数组，条数上限见 app.bazi.batch.max-size
+   * @return 与输入顺序一致的逐条结果，包含 index/success/data/error
+   */
+  @PostMapping("/calculate/batch")
+  public ApiResponse<List<BaziBatchItemResponse>> calculateBatch(
+      @RequestBody List<BaziCalculateRequest> requests) {
+    return ApiResponse.success(baziService.calculateBatch(requests));
+  }
+
+  /**
+   * 流式批量排盘（需登录）
+   *
+   * <p>请求体与响应体均为 NDJSON，边读边算边写，适合超大批量输入。
+   *
+   * @param request 原始请求，请求体每行一个 BaziCalculateRequest
+   * @return 每行一个 index/success/data/error 结果，按完成先后写出
+   */
+  @PostMapping(
+      value = "/calculate/stream",
+      consumes = APPLICATION_NDJSON_VALUE,
+      produces = APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> calculateStream(HttpServletRequest request) {
+    StreamingResponseBody body =
+        output -> baziService.calculateStream(request.getInputStream(), output);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+        .body(body);
+  }
+
+  /**
+   * 四柱反查出生时段
+   *
+   * @param year 年柱 (如"庚午")
+   * @param month 月柱
+   * @param day 日柱
+   * @param hour 时柱
+   * @return 1901-2100 年内四柱相符的时段 (真太阳时，左闭右开)，组合不存在时为空列表
+   */
+  @GetMapping("/search")
+  public ApiResponse<List<PillarWindowDTO>> searchByPillars(
+      @RequestParam String year,
+      @RequestParam String month,
+      @RequestParam String day,
+      @RequestParam String hour) {
+    return ApiResponse.success(baziService.searchByPillars(year, month, day, hour));
   }
 
   /**
    * 获取指定年份的闰月信息
    *
+   * <p>农历月表覆盖的年份 (1900-2100) 结果不随时间变化，带强 ETag 与 Cache-Control: immutable，由 CDN 与浏览器缓存；
+   * 表外年份回退到 lunar-java 计算，出错时返回 0，不带缓存头。
+   *
    * @param year 农历年份
    * @return 包含 leapMonth 字段的响应 (0 表示无闰月, 1-12 表示闰几月)
    */
   @GetMapping("/leap-month/{year}")
-  public ApiResponse<Map<String, Integer>> getLeapMonth(@PathVariable int year) {
+  public ResponseEntity<ApiResponse<Map<String, Integer>>> getLeapMonth(@PathVariable int year) {
     int leapMonth = baziService.getLeapMonth(year);
     Map<String, Integer> result = new HashMap<>();
     result.put("leapMonth", leapMonth);
-    return ApiResponse.success(result);
+    if (!LunarCalendarTable.isSupported(year)) {
+      return ResponseEntity.ok(ApiResponse.success(result));
+    }
+    return ResponseEntity.ok()
+        .cacheControl(IMMUTABLE)
+        .eTag("leap-" + year + "-" + leapMonth)
+        .body(ApiResponse.success(result));
+  }
+
+  /**
+   * 获取农历年的月表 (公历农历批量互换)
+   *
+   * <p>返回该农历年每个月初一对应的公历日期与当月天数，客户端据此换算全年任意日期。缓存策略同闰月接口，ETag 由年份与排盘引擎版本组成
+   * (月表随引擎发布，版本不变则内容不变)。
+   *
+   * @param year 农历年份 (1900-2100)
+   * @return 农历月表
+   */
+  @GetMapping("/lunar-calendar/{year}")
+  public ResponseEntity<ApiResponse<LunarYearDTO>> getLunarCalendar(@PathVariable int year) {
+    LunarYearDTO calendar = baziService.getLunarCalendar(year);
+    return ResponseEntity.ok()
+        .cacheControl(IMMUTABLE)
+        .eTag("lunar-" + year + "-" + BaziService.ENGINE_VERSION)
+        .body(ApiResponse.success(calendar));
   }
 
   /**
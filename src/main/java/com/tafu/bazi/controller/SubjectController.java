@@ -2,14 +2,20 @@ package com.tafu.bazi.controller;
 
 import com.tafu.bazi.dto.request.SubjectRequest;
 import com.tafu.bazi.dto.response.ApiResponse;
+import com.tafu.bazi.dto.response.AuspiciousDateDTO;
+import com.tafu.bazi.dto.response.LiuNianDTO;
 import com.tafu.bazi.dto.response.SubjectResponse;
+import com.tafu.bazi.service.AuspiciousDateService;
 import com.tafu.bazi.service.SubjectService;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
 public class SubjectController {
 
   private final SubjectService subjectService;
+  private final AuspiciousDateService auspiciousDateService;
 
   @GetMapping
   public ApiResponse<Page<SubjectResponse>> list(
@@ -44,6 +51,32 @@ public class SubjectController {
     return ApiResponse.success(subjectService.getDetail(userDetails.getUsername(), id));
   }
 
+  /** 流年/流月时间线 (按年份分页，每页默认 10 年) */
+  @GetMapping("/{id}/timeline")
+  public ApiResponse<Page<LiuNianDTO>> timeline(
+      @AuthenticationPrincipal UserDetails userDetails,
+      @PathVariable String id,
+      @RequestParam(required = false) Integer fromYear,
+      @RequestParam(required = false) Integer toYear,
+      @RequestParam(defaultValue = "false") boolean liuYue,
+      @PageableDefault(size = 10) Pageable pageable) {
+    return ApiResponse.success(
+        subjectService.getTimeline(
+            userDetails.getUsername(), id, fromYear, toYear, liuYue, pageable));
+  }
+
+  /** 择日: 按命盘为日期范围内每天评分，返回得分最高的日子及依据 */
+  @GetMapping("/{id}/auspicious-dates")
+  public ApiResponse<List<AuspiciousDateDTO>> auspiciousDates(
+      @AuthenticationPrincipal UserDetails userDetails,
+      @PathVariable String id,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "20") int limit) {
+    return ApiResponse.success(
+        auspiciousDateService.search(userDetails.getUsername(), id, from, to, limit));
+  }
+
   @PostMapping
   public ApiResponse<SubjectResponse> create(
       @AuthenticationPrincipal UserDetails userDetails,
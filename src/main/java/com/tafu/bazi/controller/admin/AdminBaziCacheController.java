@@ -0,0 +1,38 @@
+package com.tafu.bazi.controller.admin;
+
+import com.tafu.bazi.component.BaziChartCache;
+import com.tafu.bazi.dto.response.ApiResponse;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * AdminBaziCacheController
+ *
+ * <p>描述: 管理后台-排盘结果缓存 API。
+ *
+ * <p>包含内容: 1. 缓存统计 (命中率、淘汰数等) 2. 清空缓存 (排盘引擎版本变更时使用)
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@RestController
+@RequestMapping("/admin/bazi-cache")
+@RequiredArgsConstructor
+public class AdminBaziCacheController {
+
+  private final BaziChartCache baziChartCache;
+
+  @GetMapping("/stats")
+  public ApiResponse<Map<String, Object>> getStats() {
+    return ApiResponse.success(baziChartCache.getStats());
+  }
+
+  @PostMapping("/invalidate")
+  public ApiResponse<Map<String, Object>> invalidate() {
+    long removed = baziChartCache.invalidateAll();
+    return ApiResponse.success(Map.of("removed", removed));
+  }
+}
@@ -22,6 +22,7 @@ public class MinimalBaziData {
   private DayMasterSimple dayMaster;
   private FiveElementsSimple fiveElements;
   private String tenGods; // 已格式化的字符串
+  private String relations; // 原局合冲刑害，已格式化的字符串
   private YunSimple yun;
   private ShenShaSimple shenSha;
 
@@ -86,8 +87,10 @@ public class MinimalBaziData {
     private boolean forward;
     private String currentDaYun;
     private String currentDaYunAge;
+    private String currentDaYunRelations; // 当前大运与原局的合冲刑害
     private List<String> adjacentDaYun;
     private String currentLiuNian;
+    private String currentLiuNianRelations; // 当年流年与原局、当前大运的合冲刑害
   }
 
   @Data
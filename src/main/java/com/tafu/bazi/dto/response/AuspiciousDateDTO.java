@@ -0,0 +1,34 @@
+package com.tafu.bazi.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 择日结果 DTO
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuspiciousDateDTO {
+  /** 公历日期（yyyy-MM-dd） */
+  private String date;
+
+  /** 日柱干支 */
+  private String dayGanZhi;
+
+  /** 月柱干支（以节为界） */
+  private String monthGanZhi;
+
+  /** 综合得分（越高越吉） */
+  private int score;
+
+  /** 得分依据（加分与减分项） */
+  private List<String> reasons;
+}
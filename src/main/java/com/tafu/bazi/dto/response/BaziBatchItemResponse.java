@@ -0,0 +1,30 @@
+package com.tafu.bazi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量排盘单条结果 DTO
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BaziBatchItemResponse {
+  /** 在请求数组中的下标 */
+  private int index;
+
+  /** 是否排盘成功 */
+  private boolean success;
+
+  /** 排盘结果（失败时为 null） */
+  private BaziResponse data;
+
+  /** 错误信息（成功时为 null） */
+  private String error;
+}
@@ -2,8 +2,10 @@ package com.tafu.bazi.dto.response;
 
 import java.util.List;
 import java.util.Map;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * 八字计算响应 DTO（顶层）
@@ -15,6 +17,8 @@ import lombok.Data;
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BaziResponse {
   // ===== 基本信息 =====
 
@@ -55,6 +59,9 @@ public class BaziResponse {
   /** 格局判断 */
   private PatternDTO pattern;
 
+  /** 原局干支关系（合冲刑害） */
+  private List<RelationDTO> relations;
+
   /** 大运信息 */
   private YunInfoDTO yun;
 
@@ -1,5 +1,6 @@
 package com.tafu.bazi.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -41,6 +42,11 @@ public class DaYunDTO {
   /** 结束年份 */
   private int endYear;
 
-  /** 该大运内的流年列表 */
+  /** 该大运内的流年列表（测算对象存储的排盘不含流年，按需通过时间线接口获取） */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
   private List<LiuNianDTO> liuNian;
+
+  /** 大运与原局的干支关系 */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<RelationDTO> relations;
 }
@@ -0,0 +1,97 @@
+package com.tafu.bazi.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 时辰不详排盘响应 DTO（十二时辰对比）
+ *
+ * <p>年、月、日柱与农历日期只算一次，各时辰只列出随出生时刻变化的部分 (时柱、强弱、格局、喜忌、大运)
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourVariantsResponse {
+  /** 性别："male" | "female" */
+  private String gender;
+
+  /** 公历日期（yyyy-MM-dd，真太阳日） */
+  private String solarDate;
+
+  /** 农历日期描述 */
+  private String lunarDate;
+
+  /** 年柱（当日正午，如"庚午"） */
+  private String yearPillar;
+
+  /** 月柱（当日正午；交节当日以各时辰的 fourPillars 为准） */
+  private String monthPillar;
+
+  /** 日柱 */
+  private String dayPillar;
+
+  /** 日主天干 */
+  private String dayMaster;
+
+  /** 年、月、日三柱之间的干支关系（与时辰无关） */
+  private List<RelationDTO> relations;
+
+  /** 各时辰之间取值不同的字段名（如 ["strength", "pattern"]），为空表示只有时柱不同 */
+  private List<String> varying;
+
+  /** 十二时辰（子 ... 亥） */
+  private List<Variant> variants;
+
+  /** 单个时辰的排盘差异 */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Variant {
+    /** 时辰地支（如"子"） */
+    private String hour;
+
+    /** 真太阳时范围（如"23:00-01:00"） */
+    private String trueSolarRange;
+
+    /** 对应的当地钟表时间范围（按出生地经度与均时差换算） */
+    private String clockRange;
+
+    /** 四柱（如"庚午 辛巳 丙戌 戊子"） */
+    private String fourPillars;
+
+    /** 时干十神 */
+    private String hourTenGod;
+
+    /** 时支藏干十神 */
+    private List<String> hourHiddenTenGods;
+
+    /** 日主强弱：strong | weak | balanced */
+    private String strength;
+
+    /** 日主强弱总分 */
+    private double strengthScore;
+
+    /** 格局名称 */
+    private String pattern;
+
+    /** 喜用五行 */
+    private List<String> favorable;
+
+    /** 忌讳五行 */
+    private List<String> unfavorable;
+
+    /** 时柱与年、月、日柱的干支关系 */
+    private List<RelationDTO> relations;
+
+    /** 大运骨架（按该时辰计算的起运岁数、方向与各步干支、起止年份，不含流年） */
+    private YunInfoDTO yun;
+  }
+}
@@ -1,5 +1,7 @@
 package com.tafu.bazi.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +32,12 @@ public class LiuNianDTO {
 
   /** 地支（如"子"）- 新增字段 */
   private String zhi;
+
+  /** 流月列表（仅时间线接口按需返回） */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<LiuYueDTO> liuYue;
+
+  /** 流年与原局、所在大运的干支关系 */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<RelationDTO> relations;
 }
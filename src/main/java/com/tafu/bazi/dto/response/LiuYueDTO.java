@@ -0,0 +1,36 @@
+package com.tafu.bazi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 流月 DTO
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiuYueDTO {
+  /** 流月序号（1-12，寅月为 1） */
+  private int month;
+
+  /** 起始节气（如"立春"） */
+  private String jieQi;
+
+  /** 交节时刻（北京时间，格式 yyyy-MM-dd HH:mm） */
+  private String startTime;
+
+  /** 完整干支（如"丙寅"） */
+  private String ganZhi;
+
+  /** 天干 */
+  private String gan;
+
+  /** 地支 */
+  private String zhi;
+}
@@ -0,0 +1,47 @@
+package com.tafu.bazi.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 农历年月表 DTO（公历农历互换）
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LunarYearDTO {
+  /** 农历年 */
+  private int year;
+
+  /** 闰月月份（0 表示无闰月） */
+  private int leapMonth;
+
+  /** 按时间顺序的农历月（12 或 13 个） */
+  private List<Month> months;
+
+  /** 农历月 */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Month {
+    /** 月份（1-12） */
+    private int month;
+
+    /** 是否闰月 */
+    private boolean leap;
+
+    /** 初一对应的公历日期（yyyy-MM-dd） */
+    private String firstDay;
+
+    /** 当月天数（29 或 30） */
+    private int dayCount;
+  }
+}
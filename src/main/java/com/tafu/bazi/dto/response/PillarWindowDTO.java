@@ -0,0 +1,24 @@
+package com.tafu.bazi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 四柱反查时段 DTO
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PillarWindowDTO {
+  /** 起始时刻（真太阳时，yyyy-MM-dd HH:mm，含） */
+  private String start;
+
+  /** 结束时刻（真太阳时，yyyy-MM-dd HH:mm，不含） */
+  private String end;
+}
@@ -0,0 +1,33 @@
+package com.tafu.bazi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 干支关系 DTO (合冲刑害)
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationDTO {
+  /** 关系类型（五合、相冲、六合、六冲、相刑、自刑、相害、三合、三会、三刑） */
+  private String type;
+
+  /** 参与的位置（如 ["年支", "日支"]，大运、流年为 "大运支"、"流年干" 等） */
+  private List<String> positions;
+
+  /** 与 positions 一一对应的干支字（如 "子丑"） */
+  private String members;
+
+  /** 合化五行（如 "土"），冲刑害为空 */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String element;
+}
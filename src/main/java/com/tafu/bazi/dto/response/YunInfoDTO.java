@@ -20,7 +20,7 @@ public class YunInfoDTO {
   /** 起运年龄 */
   private int startAge;
 
-  /** 是否顺行 */
+  /** 是否顺行 (阳年男、阴年女顺行，反之逆行) */
   private boolean forward;
 
   /** 十步大运列表 */
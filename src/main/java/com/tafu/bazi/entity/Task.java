@@ -15,6 +15,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
  * <p>描述: 异步任务实体，映射 tasks 表。
  *
  * <p>包含内容: 1. 任务类型 (type) 2. 状态 (pending, processing, completed, failed) 3. 结果/错误信息
+ * 4. 认领节点与租约 (locked_by, lease_until)
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -64,4 +65,10 @@ public class Task {
 
   @Column(name = "completed_at")
   private LocalDateTime completedAt;
+
+  @Column(name = "locked_by")
+  private String lockedBy; // 认领该任务的工作节点
+
+  @Column(name = "lease_until")
+  private LocalDateTime leaseUntil; // 租约到期后 processing 任务可被重新认领
 }
@@ -36,6 +36,8 @@ public enum StandardErrorCode implements ErrorCode {
   // 业务模块 (30xxx)
   RESOURCE_NOT_FOUND(404, "资源不存在"),
   BALANCE_NOT_ENOUGH(30001, "余额不足"),
+  SERVICE_BUSY(30002, "服务繁忙，请稍后重试"),
+  THEME_UNLOCKING(30003, "该主题正在解锁中，请稍后查看"),
   ;
 
   private final int code;
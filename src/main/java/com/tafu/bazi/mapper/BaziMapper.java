@@ -1,7 +1,11 @@
 package com.tafu.bazi.mapper;
 
 import com.tafu.bazi.dto.response.*;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.model.BaziResult;
 import com.tafu.bazi.model.BaziResult.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -14,7 +18,7 @@ import org.springframework.stereotype.Component;
  * <p>职责：
  *
  * <ul>
- *   <li>将强类型 BaziResult 模型映射为 DTO
+ *   <li>将强类型 BaziResult 模型映射为 DTO（排盘主路径，不经过中间 Map）
  *   <li>委托 MapToDtoMapper 处理 Map 数据（数据库读取场景）
  * </ul>
  *
@@ -25,6 +29,17 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class BaziMapper {
 
+  /** 十神位置 -> 前端四柱十神字段名 */
+  private static final Map<String, String> SHI_SHEN_POSITION_KEYS =
+      Map.of(
+          "年干", "yearGan",
+          "月干", "monthGan",
+          "时干", "hourGan",
+          "年支", "yearZhi",
+          "月支", "monthZhi",
+          "日支", "dayZhi",
+          "时支", "hourZhi");
+
   private final MapToDtoMapper mapToDtoMapper;
 
   /**
@@ -82,6 +97,68 @@ public class BaziMapper {
         .build();
   }
 
+  /**
+   * 映射单柱数据（从强类型 Pillar）
+   *
+   * @param pillar 强类型柱数据
+   * @return PillarDTO
+   */
+  public PillarDTO mapPillar(Pillar pillar) {
+    if (pillar == null) return null;
+
+    int stem = BaziDef.stemIndex(pillar.getGan());
+    HeavenlyStemDTO heavenlyStem =
+        HeavenlyStemDTO.builder()
+            .chinese(pillar.getGan())
+            .element(stem >= 0 ? BaziDef.STEM_ELEMENT[stem].getCode() : null)
+            .yinYang(stem >= 0 ? BaziDef.STEM_YIN_YANG[stem].getCode() : null)
+            .build();
+
+    int branch = BaziDef.branchIndex(pillar.getZhi());
+    EarthlyBranchDTO earthlyBranch =
+        EarthlyBranchDTO.builder()
+            .chinese(pillar.getZhi())
+            .element(branch >= 0 ? BaziDef.BRANCH_ELEMENT[branch].getCode() : null)
+            .build();
+
+    List<HiddenStemDTO> hiddenStems = null;
+    if (pillar.getHiddenStems() != null) {
+      List<String> stems = pillar.getHiddenStems();
+      List<String> tenGods = pillar.getHiddenStemTenGods();
+      hiddenStems = new ArrayList<>(stems.size());
+      for (int i = 0; i < stems.size(); i++) {
+        int hiddenStem = BaziDef.stemIndex(stems.get(i));
+        hiddenStems.add(
+            HiddenStemDTO.builder()
+                .chinese(stems.get(i))
+                .element(hiddenStem >= 0 ? BaziDef.STEM_ELEMENT[hiddenStem].getCode() : null)
+                .yinYang(hiddenStem >= 0 ? BaziDef.STEM_YIN_YANG[hiddenStem].getCode() : null)
+                .tenGod(tenGods != null && i < tenGods.size() ? tenGods.get(i) : null)
+                .build());
+      }
+    }
+
+    return PillarDTO.builder()
+        .heavenlyStem(heavenlyStem)
+        .earthlyBranch(earthlyBranch)
+        .naYin(pillar.getNayin())
+        .hiddenStems(hiddenStems)
+        .tenGod(pillar.getTenGod())
+        .build();
+  }
+
+  /** 映射四柱数据（从强类型 FourPillars） */
+  public FourPillarsDTO mapFourPillars(FourPillars fourPillars) {
+    if (fourPillars == null) return null;
+
+    return FourPillarsDTO.builder()
+        .year(mapPillar(fourPillars.getYear()))
+        .month(mapPillar(fourPillars.getMonth()))
+        .day(mapPillar(fourPillars.getDay()))
+        .hour(mapPillar(fourPillars.getHour()))
+        .build();
+  }
+
   /**
    * 映射四柱数据
    *
@@ -283,6 +360,7 @@ public class BaziMapper {
         .startYear(daYun.getStartYear())
         .endYear(daYun.getEndYear())
         .liuNian(liuNianList)
+        .relations(mapRelations(daYun.getRelations()))
         .build();
   }
 
@@ -301,9 +379,27 @@ public class BaziMapper {
         .ganZhi(liuNian.getGanZhi())
         .gan(liuNian.getGan())
         .zhi(liuNian.getZhi())
+        .relations(mapRelations(liuNian.getRelations()))
         .build();
   }
 
+  /** 映射干支关系列表 */
+  public List<RelationDTO> mapRelations(List<Relation> relations) {
+    if (relations == null) return null;
+
+    List<RelationDTO> result = new ArrayList<>(relations.size());
+    for (Relation relation : relations) {
+      result.add(
+          RelationDTO.builder()
+              .type(relation.getType())
+              .positions(relation.getPositions())
+              .members(relation.getMembers())
+              .element(relation.getElement())
+              .build());
+    }
+    return result;
+  }
+
   /** 映射大运信息 */
   public YunInfoDTO mapYunInfo(YunInfo yunInfo) {
     if (yunInfo == null) return null;
@@ -376,10 +472,78 @@ public class BaziMapper {
         .build();
   }
 
+  /** 映射真太阳时信息（从强类型 TrueSolarTime） */
+  public TrueSolarTimeDTO mapTrueSolarTime(BaziResult.TrueSolarTime trueSolarTime) {
+    if (trueSolarTime == null) return null;
+
+    return TrueSolarTimeDTO.builder()
+        .year(trueSolarTime.getYear())
+        .month(trueSolarTime.getMonth())
+        .day(trueSolarTime.getDay())
+        .hour(trueSolarTime.getHour())
+        .minute(trueSolarTime.getMinute())
+        .build();
+  }
+
+  /**
+   * 将十神分析数据转换为前端期望的四柱十神格式
+   *
+   * <p>如 "年干" -> "yearGan"，"月干" -> "monthGan"
+   */
+  public Map<String, String> mapFourPillarsShiShen(TenGodsAnalysis tenGods) {
+    Map<String, String> result = new HashMap<>();
+    if (tenGods == null || tenGods.getGods() == null) return result;
+
+    tenGods
+        .getGods()
+        .forEach(
+            (godName, info) -> {
+              if (info != null && info.getPositions() != null) {
+                for (String position : info.getPositions()) {
+                  result.put(SHI_SHEN_POSITION_KEYS.getOrDefault(position, position), godName);
+                }
+              }
+            });
+    return result;
+  }
+
+  /**
+   * 映射完整的八字响应数据（排盘主路径）
+   *
+   * @param result BaziServiceImpl.calculate() 计算得到的强类型结果
+   * @return BaziResponse
+   */
+  public BaziResponse toBaziResponse(BaziResult result) {
+    if (result == null) return null;
+
+    return BaziResponse.builder()
+        .gender(result.getGender())
+        .solarDate(result.getSolarDate())
+        .lunarDate(result.getLunarDate())
+        .trueSolarTime(mapTrueSolarTime(result.getTrueSolarTime()))
+        .fourPillars(mapFourPillars(result.getPillars()))
+        .fourPillarsShiShen(mapFourPillarsShiShen(result.getTenGods()))
+        .fourPillarsXunKong(Map.of("dayXunKong", result.getXunKong()))
+        .dayMaster(mapDayMaster(result.getDayMaster()))
+        .fiveElements(mapFiveElements(result.getFiveElements()))
+        .tenGods(mapTenGods(result.getTenGods()))
+        .pattern(mapPattern(result.getPattern()))
+        .relations(mapRelations(result.getRelations()))
+        .yun(mapYunInfo(result.getYun()))
+        .shenSha(mapShenSha(result.getShenSha()))
+        .shengXiao(result.getShengXiao())
+        .taiYuan(result.getTaiYuan())
+        .mingGong(result.getMingGong())
+        .shenGong(result.getShenGong())
+        .xunKong(result.getXunKong())
+        .dayMasterCharacteristics(result.getDayMasterCharacteristics())
+        .build();
+  }
+
   /**
    * 映射完整的八字响应数据
    *
-   * @param resultMap 从 BaziServiceImpl.calculate() 返回的 Map 或从数据库读取的 Map
+   * @param resultMap 从数据库读取的 Map
    * @return BaziResponse
    */
   @SuppressWarnings("unchecked")
@@ -398,6 +562,8 @@ public class BaziMapper {
         .fiveElements(mapFiveElements(resultMap.get("fiveElements")))
         .tenGods(mapTenGods(resultMap.get("tenGods")))
         .pattern(mapPattern(resultMap.get("pattern")))
+        .relations(
+            mapToDtoMapper.mapRelations((List<Map<String, Object>>) resultMap.get("relations")))
         .yun(mapYunInfo(resultMap.get("yun")))
         .shenSha(mapShenSha(resultMap.get("shenSha")))
         .shengXiao((String) resultMap.get("shengXiao"))
@@ -141,10 +141,12 @@ public class MapToDtoMapper {
         .startYear(getIntValue(map, "startYear"))
         .endYear(getIntValue(map, "endYear"))
         .liuNian(liuNianList)
+        .relations(mapRelations((List<Map<String, Object>>) map.get("relations")))
         .build();
   }
 
   /** 从 Map 构建 LiuNianDTO */
+  @SuppressWarnings("unchecked")
   public LiuNianDTO mapLiuNian(Map<String, Object> map) {
     if (map == null) return null;
 
@@ -154,9 +156,27 @@ public class MapToDtoMapper {
         .ganZhi(getStringValue(map, "ganZhi"))
         .gan(getStringValue(map, "gan"))
         .zhi(getStringValue(map, "zhi"))
+        .relations(mapRelations((List<Map<String, Object>>) map.get("relations")))
         .build();
   }
 
+  /** 从 Map 列表构建 RelationDTO 列表 */
+  @SuppressWarnings("unchecked")
+  public List<RelationDTO> mapRelations(List<Map<String, Object>> list) {
+    if (list == null) return null;
+
+    return list.stream()
+        .map(
+            map ->
+                RelationDTO.builder()
+                    .type(getStringValue(map, "type"))
+                    .positions((List<String>) map.get("positions"))
+                    .members(getStringValue(map, "members"))
+                    .element(getStringValue(map, "element"))
+                    .build())
+        .collect(Collectors.toList());
+  }
+
   /** 从 Map 构建 ShenShaDTO */
   @SuppressWarnings("unchecked")
   public ShenShaDTO mapShenSha(Map<String, Object> map) {
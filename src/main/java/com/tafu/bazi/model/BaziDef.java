@@ -48,6 +48,43 @@ public class BaziDef {
     private final String chinese;
   }
 
+  // ===================================
+  // 干支序列
+  // ===================================
+
+  /** 十天干 (按序号 0-9) */
+  public static final String[] STEMS = {"甲", "乙", "丙", "丁", "戊", "己", "庚", "辛", "壬", "癸"};
+
+  /** 十二地支 (按序号 0-11) */
+  public static final String[] BRANCHES = {
+    "子", "丑", "寅", "卯", "辰", "巳", "午", "未", "申", "酉", "戌", "亥"
+  };
+
+  /** 六十甲子 (序号 i 对应 STEMS[i % 10] + BRANCHES[i % 12]) */
+  public static final String[] JIA_ZI = new String[60];
+
+  /** 六十甲子纳音 (序号同 JIA_ZI) */
+  public static final String[] NA_YIN = new String[60];
+
+  /** 纳音五行，每两个甲子共用一个 (甲子乙丑海中金 ... 壬戌癸亥大海水) */
+  private static final String[] NA_YIN_PAIRS = {
+    "海中金", "炉中火", "大林木", "路旁土", "剑锋金", "山头火", "涧下水", "城头土", "白蜡金", "杨柳木", "泉中水", "屋上土", "霹雳火",
+    "松柏木", "长流水", "沙中金", "山下火", "平地木", "壁上土", "金箔金", "覆灯火", "天河水", "大驿土", "钗钏金", "桑柘木", "大溪水",
+    "沙中土", "天上火", "石榴木", "大海水"
+  };
+
+  /** 十二生肖 (按地支序号 0-11) */
+  public static final String[] SHENG_XIAO = {
+    "鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪"
+  };
+
+  static {
+    for (int i = 0; i < 60; i++) {
+      JIA_ZI[i] = STEMS[i % 10] + BRANCHES[i % 12];
+      NA_YIN[i] = NA_YIN_PAIRS[i / 2];
+    }
+  }
+
   // ===================================
   // 静态常量映射
   // ===================================
@@ -151,4 +188,166 @@ public class BaziDef {
   // 十神
   public static final List<String> TEN_GODS =
       List.of("比肩", "劫财", "食神", "伤官", "偏财", "正财", "七杀", "正官", "偏印", "正印");
+
+  // ===================================
+  // 序号索引表 (按天干 0-9 / 地支 0-11 / FiveElement.ordinal() 直接取数组)
+  // ===================================
+
+  private static final String STEM_CHARS = "甲乙丙丁戊己庚辛壬癸";
+  private static final String BRANCH_CHARS = "子丑寅卯辰巳午未申酉戌亥";
+
+  /** 地支藏干 (按地支序号，顺序为本气/中气/余气) */
+  private static final String[] HIDDEN_STEM_CHARS = {
+    "癸", "己癸辛", "甲丙戊", "乙", "戊乙癸", "丙庚戊", "丁己", "己丁乙", "庚壬戊", "辛", "戊辛丁", "壬甲"
+  };
+
+  /** 天干五行 (按天干序号) */
+  public static final FiveElement[] STEM_ELEMENT = new FiveElement[10];
+
+  /** 天干阴阳 (按天干序号) */
+  public static final YinYang[] STEM_YIN_YANG = new YinYang[10];
+
+  /** 地支本气五行 (按地支序号) */
+  public static final FiveElement[] BRANCH_ELEMENT = new FiveElement[12];
+
+  /** 地支藏干 (按地支序号，值为天干序号) */
+  public static final int[][] HIDDEN_STEMS = new int[12][];
+
+  /** 地支藏干权重 (与 HIDDEN_STEMS 一一对应) */
+  public static final double[][] HIDDEN_STEM_WEIGHT = new double[12][];
+
+  /** 地支藏干名称 (按地支序号，不可变列表，可直接共享) */
+  public static final List<List<String>> HIDDEN_STEM_NAMES;
+
+  /** 五行相生: GENERATES[e] 为 e 所生 */
+  public static final FiveElement[] GENERATES = new FiveElement[5];
+
+  /** 五行被生: GENERATED_BY[e] 为生 e 者 */
+  public static final FiveElement[] GENERATED_BY = new FiveElement[5];
+
+  /** 五行相克: RESTRICTS[e] 为 e 所克 */
+  public static final FiveElement[] RESTRICTS = new FiveElement[5];
+
+  /** 五行被克: RESTRICTED_BY[e] 为克 e 者 */
+  public static final FiveElement[] RESTRICTED_BY = new FiveElement[5];
+
+  /** 旺相休囚死状态: ELEMENT_STATE[月令五行][五行] */
+  public static final String[][] ELEMENT_STATE = new String[5][5];
+
+  /** 旺相休囚死权重: STATE_WEIGHT[月令五行][五行] */
+  public static final double[][] STATE_WEIGHT = new double[5][5];
+
+  /** 十神矩阵: TEN_GOD_INDEX[日主天干][其他天干] 为 TEN_GODS 下标 */
+  public static final int[][] TEN_GOD_INDEX = new int[10][10];
+
+  /** 藏干十神: HIDDEN_STEM_TEN_GODS[日主天干][地支] 与 HIDDEN_STEM_NAMES 一一对应 */
+  private static final List<List<List<String>>> HIDDEN_STEM_TEN_GODS;
+
+  static {
+    for (int i = 0; i < 10; i++) {
+      StemInfo info = STEMS_INFO.get(STEMS[i]);
+      STEM_ELEMENT[i] = info.getElement();
+      STEM_YIN_YANG[i] = info.getYinYang();
+    }
+
+    List<List<String>> hiddenStemNames = new ArrayList<>(12);
+    for (int b = 0; b < 12; b++) {
+      BRANCH_ELEMENT[b] = MONTH_BRANCH_ELEMENT.get(BRANCHES[b]);
+
+      String chars = HIDDEN_STEM_CHARS[b];
+      List<Double> weights = HIDDEN_STEM_WEIGHTS.get(BRANCHES[b]);
+      String[] names = new String[chars.length()];
+      HIDDEN_STEMS[b] = new int[chars.length()];
+      HIDDEN_STEM_WEIGHT[b] = new double[chars.length()];
+      for (int j = 0; j < chars.length(); j++) {
+        names[j] = String.valueOf(chars.charAt(j));
+        HIDDEN_STEMS[b][j] = STEM_CHARS.indexOf(chars.charAt(j));
+        HIDDEN_STEM_WEIGHT[b][j] = weights.get(j);
+      }
+      hiddenStemNames.add(List.of(names));
+    }
+    HIDDEN_STEM_NAMES = List.copyOf(hiddenStemNames);
+
+    for (FiveElement e : FiveElement.values()) {
+      GENERATES[e.ordinal()] = FIVE_ELEMENTS_GENERATION.get(e);
+      GENERATED_BY[e.ordinal()] = FIVE_ELEMENTS_GENERATED_BY.get(e);
+      RESTRICTS[e.ordinal()] = FIVE_ELEMENTS_RESTRICTION.get(e);
+    }
+    for (FiveElement e : FiveElement.values()) {
+      RESTRICTED_BY[RESTRICTS[e.ordinal()].ordinal()] = e;
+    }
+
+    // 月令为 m 时: 同我为旺，m 生为相，生 m 为休，克 m 为囚，m 克为死
+    for (FiveElement m : FiveElement.values()) {
+      String[] states = ELEMENT_STATE[m.ordinal()];
+      states[m.ordinal()] = "wang";
+      states[GENERATES[m.ordinal()].ordinal()] = "xiang";
+      states[GENERATED_BY[m.ordinal()].ordinal()] = "xiu";
+      states[RESTRICTED_BY[m.ordinal()].ordinal()] = "qiu";
+      states[RESTRICTS[m.ordinal()].ordinal()] = "si";
+      for (int e = 0; e < 5; e++) {
+        STATE_WEIGHT[m.ordinal()][e] = STATE_WEIGHTS.get(states[e]);
+      }
+    }
+
+    // 同我比劫，我生食伤，我克财，克我官杀，生我印；阴阳相同取前者，不同取后者
+    for (int day = 0; day < 10; day++) {
+      FiveElement dayEl = STEM_ELEMENT[day];
+      for (int other = 0; other < 10; other++) {
+        FiveElement otherEl = STEM_ELEMENT[other];
+        int base;
+        if (dayEl == otherEl) {
+          base = 0;
+        } else if (GENERATES[dayEl.ordinal()] == otherEl) {
+          base = 2;
+        } else if (RESTRICTS[dayEl.ordinal()] == otherEl) {
+          base = 4;
+        } else if (RESTRICTS[otherEl.ordinal()] == dayEl) {
+          base = 6;
+        } else {
+          base = 8;
+        }
+        TEN_GOD_INDEX[day][other] = base + (STEM_YIN_YANG[day] == STEM_YIN_YANG[other] ? 0 : 1);
+      }
+    }
+
+    List<List<List<String>>> hiddenStemTenGods = new ArrayList<>(10);
+    for (int day = 0; day < 10; day++) {
+      List<List<String>> byBranch = new ArrayList<>(12);
+      for (int[] stems : HIDDEN_STEMS) {
+        String[] gods = new String[stems.length];
+        for (int j = 0; j < stems.length; j++) {
+          gods[j] = TEN_GODS.get(TEN_GOD_INDEX[day][stems[j]]);
+        }
+        byBranch.add(List.of(gods));
+      }
+      hiddenStemTenGods.add(List.copyOf(byBranch));
+    }
+    HIDDEN_STEM_TEN_GODS = List.copyOf(hiddenStemTenGods);
+  }
+
+  /** 天干序号 (甲=0 ... 癸=9)，非天干返回 -1 */
+  public static int stemIndex(String gan) {
+    return gan != null && gan.length() == 1 ? STEM_CHARS.indexOf(gan.charAt(0)) : -1;
+  }
+
+  /** 地支序号 (子=0 ... 亥=11)，非地支返回 -1 */
+  public static int branchIndex(String zhi) {
+    return zhi != null && zhi.length() == 1 ? BRANCH_CHARS.indexOf(zhi.charAt(0)) : -1;
+  }
+
+  /** 六十甲子序号 (天干、地支序号须同为阴或同为阳) */
+  public static int jiaZiIndex(int stem, int branch) {
+    return Math.floorMod(6 * stem - 5 * branch, 60);
+  }
+
+  /** 十神名称 (按天干序号查十神矩阵) */
+  public static String tenGod(int dayStem, int otherStem) {
+    return TEN_GODS.get(TEN_GOD_INDEX[dayStem][otherStem]);
+  }
+
+  /** 地支各藏干相对于日主的十神 (不可变列表，与 HIDDEN_STEM_NAMES 一一对应) */
+  public static List<String> hiddenStemTenGods(int dayStem, int branch) {
+    return HIDDEN_STEM_TEN_GODS.get(dayStem).get(branch);
+  }
 }
@@ -0,0 +1,104 @@
+package com.tafu.bazi.model;
+
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.exception.StandardErrorCode;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BaziField
+ *
+ * <p>描述: 排盘响应中可按需计算的部分 (projection)。未请求的部分不计算，在 BaziResponse
+ * 中为空。性别、公历日期、真太阳时、四柱、空亡、生肖与胎元由四柱直接得出，始终返回。
+ *
+ * <p>规则: 字段名与 BaziResponse 的 JSON 字段一致，附属字段随主字段一起返回 (dayMasterCharacteristics 随
+ * dayMaster，fourPillarsShiShen 随 tenGods)。农历日期、大运、神煞、命宫、身宫需要 lunar-java 的 Lunar 对象，都不请求时整个排盘不创建
+ * Lunar。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public enum BaziField {
+  LUNAR_DATE(true, "lunarDate"),
+  DAY_MASTER(false, "dayMaster", "dayMasterCharacteristics"),
+  FIVE_ELEMENTS(false, "fiveElements"),
+  TEN_GODS(false, "tenGods", "fourPillarsShiShen"),
+  PATTERN(false, "pattern"),
+  RELATIONS(false, "relations"),
+  YUN(true, "yun"),
+  SHEN_SHA(true, "shenSha"),
+  MING_GONG(true, "mingGong"),
+  SHEN_GONG(true, "shenGong");
+
+  /** 全部字段 (完整排盘) */
+  public static final Set<BaziField> ALL =
+      Collections.unmodifiableSet(EnumSet.allOf(BaziField.class));
+
+  /** 始终返回的字段，出现在 fields 参数中时忽略 */
+  private static final List<String> BASIC_CODES =
+      List.of(
+          "gender",
+          "solarDate",
+          "trueSolarTime",
+          "fourPillars",
+          "fourPillarsXunKong",
+          "xunKong",
+          "shengXiao",
+          "taiYuan");
+
+  private static final Map<String, BaziField> BY_CODE = new HashMap<>();
+
+  static {
+    for (BaziField field : values()) {
+      for (String code : field.codes) {
+        BY_CODE.put(code, field);
+      }
+    }
+  }
+
+  private final boolean requiresLunar;
+
+  private final String[] codes;
+
+  BaziField(boolean requiresLunar, String... codes) {
+    this.requiresLunar = requiresLunar;
+    this.codes = codes;
+  }
+
+  /** 是否需要 lunar-java Lunar 对象 */
+  public boolean requiresLunar() {
+    return requiresLunar;
+  }
+
+  /**
+   * 解析 fields 参数
+   *
+   * @param fields 逗号分隔的 BaziResponse 字段名，为空或 "*" 表示完整排盘
+   * @return 需要计算的字段
+   * @throws BusinessException 包含未知字段名
+   */
+  public static Set<BaziField> parse(String fields) {
+    if (fields == null || fields.isBlank() || "*".equals(fields.trim())) {
+      return ALL;
+    }
+    EnumSet<BaziField> result = EnumSet.noneOf(BaziField.class);
+    for (String code : fields.split(",")) {
+      code = code.trim();
+      if (code.isEmpty() || BASIC_CODES.contains(code)) {
+        continue;
+      }
+      BaziField field = BY_CODE.get(code);
+      if (field == null) {
+        throw new BusinessException(StandardErrorCode.PARAM_ERROR.getCode(), "未知的排盘字段: " + code);
+      }
+      result.add(field);
+    }
+    return Collections.unmodifiableSet(result);
+  }
+}
@@ -21,16 +21,29 @@ import lombok.NoArgsConstructor;
 @Builder
 public class BaziResult {
 
+  private String gender;
+  private String solarDate; // 真太阳时 yyyy-MM-dd HH:mm:ss
+  private TrueSolarTime trueSolarTime;
   private FourPillars pillars;
   private DayMaster dayMaster;
   private FiveElementsAnalysis fiveElements;
 
-  // other fields like lunarDate, etc. can be added as needed or kept in Map for loose structure
-
   // ===========================
   // Inner Classes
   // ===========================
 
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class TrueSolarTime {
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+  }
+
   @Data
   @Builder
   @NoArgsConstructor
@@ -40,6 +53,7 @@ public class BaziResult {
     private String zhi; // Chinese char
     private String nayin;
     private List<String> hiddenStems;
+    private List<String> hiddenStemTenGods; // 与 hiddenStems 一一对应
     private String tenGod; // For Day Master relation
   }
 
@@ -137,6 +151,8 @@ public class BaziResult {
   private String taiYuan;
   private String mingGong;
   private String shenGong;
+  private String xunKong; // 日柱空亡
+  private List<Relation> relations; // 原局干支合冲刑害
 
   @Data
   @Builder
@@ -162,6 +178,7 @@ public class BaziResult {
     private int startYear;
     private int endYear;
     private List<LiuNian> liuNian;
+    private List<Relation> relations; // 大运与原局
   }
 
   @Data
@@ -174,6 +191,7 @@ public class BaziResult {
     private String ganZhi;
     private String gan;
     private String zhi;
+    private List<Relation> relations; // 流年与原局、大运
   }
 
   @Data
@@ -186,4 +204,15 @@ public class BaziResult {
     private List<String> day;
     private List<String> hour;
   }
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Relation {
+    private String type; // 五合、相冲、六合、六冲、相刑、自刑、相害、三合、三会、三刑
+    private List<String> positions; // 如 ["年支", "日支"]
+    private String members; // 与 positions 一一对应的干支字，如 "子丑"
+    private String element; // 合化五行 (中文)，无则为 null
+  }
 }
@@ -5,7 +5,11 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * SubjectRepository
@@ -25,4 +29,21 @@ public interface SubjectRepository
   Page<Subject> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
   Optional<Subject> findByIdAndUserId(String id, String userId);
+
+  /**
+   * 保存初步分析结果，仅当尚未保存过时生效 (并发生成时先写入者生效)
+   *
+   * @param analysis 分析结果 JSON
+   * @return 1 表示写入，0 表示已有结果
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE subjects SET initial_analysis = CAST(:analysis AS jsonb),"
+              + " initial_analyzed_at = LOCALTIMESTAMP"
+              + " WHERE id = :id AND user_id = :userId AND initial_analysis IS NULL",
+      nativeQuery = true)
+  int saveInitialAnalysisIfAbsent(
+      @Param("id") String id, @Param("userId") String userId, @Param("analysis") String analysis);
 }
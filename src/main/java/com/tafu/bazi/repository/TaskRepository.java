@@ -1,10 +1,15 @@
 package com.tafu.bazi.repository;
 
 import com.tafu.bazi.entity.Task;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * TaskRepository
@@ -27,4 +32,93 @@ public interface TaskRepository
       String status, String type, org.springframework.data.domain.Pageable pageable);
 
   Optional<Task> findByIdAndUserId(String id, String userId);
+
+  /**
+   * 同一测算对象同一主题的活动 (pending / processing) 解锁任务，由 uq_tasks_active_theme_unlock 保证至多一条
+   *
+   * @return 任务 ID
+   */
+  @Query(
+      value =
+          "SELECT id FROM tasks WHERE type = 'THEME_UNLOCK' AND status IN ('pending', 'processing')"
+              + " AND payload->>'subjectId' = :subjectId AND payload->>'theme' = :theme",
+      nativeQuery = true)
+  Optional<String> findActiveThemeUnlock(
+      @Param("subjectId") String subjectId, @Param("theme") String theme);
+
+  /**
+   * 批量认领任务: 以 FOR UPDATE SKIP LOCKED 锁定最早的若干条 pending 或租约已过期的 processing 任务，改为 processing 并写入租约。
+   * 多个节点同时认领时互相跳过已锁定的行，不会领到同一条任务
+   *
+   * @param type 任务类型
+   * @param worker 认领节点标识
+   * @param leaseSeconds 租约时长 (秒)
+   * @param limit 最多认领条数
+   * @return 认领到的任务 ID
+   */
+  @Transactional
+  @Query(
+      value =
+          """
+          UPDATE tasks
+          SET status = 'processing', started_at = LOCALTIMESTAMP, locked_by = :worker,
+              lease_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)
+          WHERE id IN (
+              SELECT id FROM tasks
+              WHERE type = :type
+                AND (status = 'pending' OR (status = 'processing' AND lease_until < LOCALTIMESTAMP))
+              ORDER BY created_at
+              LIMIT :limit
+              FOR UPDATE SKIP LOCKED)
+          RETURNING id
+          """,
+      nativeQuery = true)
+  List<String> claim(
+      @Param("type") String type,
+      @Param("worker") String worker,
+      @Param("leaseSeconds") int leaseSeconds,
+      @Param("limit") int limit);
+
+  /** 续租: 延长本节点仍在处理的任务的租约 */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE tasks SET lease_until = LOCALTIMESTAMP + make_interval(secs => :leaseSeconds)"
+              + " WHERE id IN (:ids) AND locked_by = :worker AND status = 'processing'",
+      nativeQuery = true)
+  int renewLeases(
+      @Param("ids") Collection<String> ids,
+      @Param("worker") String worker,
+      @Param("leaseSeconds") int leaseSeconds);
+
+  /**
+   * 结束任务 (completed / failed)，仅当任务仍由本节点持有时生效
+   *
+   * @return 1 表示成功，0 表示租约已过期并被其他节点重新认领
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE tasks SET status = :status, error = CAST(:error AS TEXT),"
+              + " completed_at = LOCALTIMESTAMP, lease_until = NULL"
+              + " WHERE id = :id AND locked_by = :worker AND status = 'processing'",
+      nativeQuery = true)
+  int finish(
+      @Param("id") String id,
+      @Param("worker") String worker,
+      @Param("status") String status,
+      @Param("error") String error);
+
+  /** 放弃认领: 本节点无法执行时退回 pending，供其他节点立即认领 */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE tasks SET status = 'pending', started_at = NULL, locked_by = NULL,"
+              + " lease_until = NULL"
+              + " WHERE id = :id AND locked_by = :worker AND status = 'processing'",
+      nativeQuery = true)
+  int release(@Param("id") String id, @Param("worker") String worker);
 }
@@ -0,0 +1,31 @@
+package com.tafu.bazi.service;
+
+import com.tafu.bazi.dto.response.AuspiciousDateDTO;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * AuspiciousDateService Interface
+ *
+ * <p>描述: 择日服务。按测算对象的命盘 (喜用忌神、日主、日支、年支) 在日期范围内为每天的日柱、月柱评分，返回得分最高的日子及依据。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public interface AuspiciousDateService {
+
+  /**
+   * 择日
+   *
+   * @param userId 用户 ID
+   * @param subjectId 测算对象 ID
+   * @param from 起始日期 (含)
+   * @param to 结束日期 (含)，范围不超过约 10 年且在 1901-2100 年内
+   * @param limit 返回条数上限
+   * @return 按得分降序 (同分按日期升序) 的吉日，只含得分为正的日子
+   */
+  List<AuspiciousDateDTO> search(
+      String userId, String subjectId, LocalDate from, LocalDate to, int limit);
+}
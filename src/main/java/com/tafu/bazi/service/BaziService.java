@@ -1,15 +1,31 @@
 package com.tafu.bazi.service;
 
 import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.request.BaziHoursRequest;
+import com.tafu.bazi.dto.response.BaziBatchItemResponse;
 import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.dto.response.HourVariantsResponse;
+import com.tafu.bazi.dto.response.LiuNianDTO;
+import com.tafu.bazi.dto.response.LunarYearDTO;
+import com.tafu.bazi.dto.response.PillarWindowDTO;
+import com.tafu.bazi.dto.response.YunInfoDTO;
+import com.tafu.bazi.model.BaziField;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * BaziService Interface
  *
  * <p>描述: 八字排盘核心计算服务接口。
  *
- * <p>包含内容: 1. 计算八字排盘数据 (calculate) 2. 获取年份闰月信息 (getLeapMonth) 3. 获取地点经纬度 (getCoordinates)
+ * <p>包含内容: 1. 计算八字排盘数据 (calculate) 2. 批量排盘 (calculateBatch) 3. 流式批量排盘 (calculateStream) 4. 获取年份闰月信息
+ * (getLeapMonth) 5. 获取地点经纬度 (getCoordinates) 6. 流年/流月时间线 (calculateLiuNian) 7. 农历月表
+ * (getLunarCalendar) 8. 四柱反查 (searchByPillars) 9. 时辰不详的十二时辰对比 (calculateHourVariants)
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -19,6 +35,9 @@ import java.util.Map;
  */
 public interface BaziService {
 
+  /** 排盘引擎版本。计算逻辑变更导致输出变化时递增，排盘结果缓存以此区分新旧结果 */
+  String ENGINE_VERSION = "2026.10.2";
+
   /**
    * 计算八字排盘
    *
@@ -27,6 +46,60 @@ public interface BaziService {
    */
   BaziResponse calculate(BaziCalculateRequest request);
 
+  /**
+   * 按需计算八字排盘（只计算请求的部分）
+   *
+   * @param request 出生信息
+   * @param fields 需要计算的部分，未包含的部分在结果中为空 (见 BaziField)
+   * @return 八字排盘数据（强类型 DTO）
+   */
+  BaziResponse calculate(BaziCalculateRequest request, Set<BaziField> fields);
+
+  /**
+   * 时辰不详排盘：一次算出十二个时辰的差异
+   *
+   * <p>经度、农历换算、年月日三柱只算一次，各时辰只重算时柱及随之变化的日主强弱、五行喜忌、格局、时柱十神、干支关系与大运骨架
+   * (起运时间随出生时刻变化)，代价远低于十二次完整排盘。
+   *
+   * @param request 出生日期与地点 (不含时、分)
+   * @return 共享部分与十二时辰对比
+   */
+  HourVariantsResponse calculateHourVariants(BaziHoursRequest request);
+
+  /**
+   * 批量排盘（多核并行计算）
+   *
+   * @param requests 出生信息列表，条数不超过配置的上限
+   * @return 与输入顺序一致的逐条结果，单条校验或计算失败不影响其他条目
+   */
+  List<BaziBatchItemResponse> calculateBatch(List<BaziCalculateRequest> requests);
+
+  /**
+   * 流式批量排盘（NDJSON 输入输出，条数不设上限）
+   *
+   * <p>逐行读取出生信息，在途条目数有上限，每条算完即写出一行结果，内存占用与输入规模无关。
+   *
+   * @param input NDJSON 输入流，每行一个出生信息，空行忽略
+   * @param output NDJSON 输出流，每行一个条目结果，按完成先后写出，index 为输入行序号 (不含空行)
+   * @throws IOException 读取输入或写出结果失败
+   */
+  void calculateStream(InputStream input, OutputStream output) throws IOException;
+
+  /**
+   * 按年份范围计算流年 (及流月) 时间线
+   *
+   * <p>由大运骨架 (各步大运的起止年份与年龄) 推出流年年龄，干支查表，不重新排盘；每年附带流年与原局、所在大运的合冲刑害。
+   *
+   * @param natal 原局四柱，为空时不计算干支关系
+   * @param yun 运程信息，只用到各步大运的起止年份与起始年龄，流年列表可为空
+   * @param fromYear 起始公历年 (含)
+   * @param toYear 结束公历年 (含)
+   * @param withLiuYue 是否同时计算每年十二个流月
+   * @return 按年份升序的流年列表，不在任何大运内或超出 1901-2100 的年份跳过
+   */
+  List<LiuNianDTO> calculateLiuNian(
+      FourPillarsDTO natal, YunInfoDTO yun, int fromYear, int toYear, boolean withLiuYue);
+
   /**
    * 获取指定年份的闰月信息
    *
@@ -35,6 +108,27 @@ public interface BaziService {
    */
   int getLeapMonth(int year);
 
+  /**
+   * 四柱反查出生时段
+   *
+   * @param year 年柱 (如"庚午")
+   * @param month 月柱
+   * @param day 日柱
+   * @param hour 时柱
+   * @return 1901-2100 年内四柱相符的时段 (真太阳时，按时间升序)，月干、时干与年干、日干不相配时为空
+   * @throws com.tafu.bazi.exception.BusinessException 柱不是六十甲子之一
+   */
+  List<PillarWindowDTO> searchByPillars(String year, String month, String day, String hour);
+
+  /**
+   * 获取农历年的月表，用于公历农历批量互换
+   *
+   * @param year 农历年份 (1900-2100)
+   * @return 闰月与各月初一对应的公历日期、当月天数
+   * @throws com.tafu.bazi.exception.BusinessException 年份超出支持范围
+   */
+  LunarYearDTO getLunarCalendar(int year);
+
   /**
    * 获取地点的经纬度信息
    *
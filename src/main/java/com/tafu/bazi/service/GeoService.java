@@ -0,0 +1,34 @@
+package com.tafu.bazi.service;
+
+import java.util.Map;
+
+/**
+ * GeoService Interface
+ *
+ * <p>描述: 地点经纬度查询服务接口，数据与索引由 GeoIndex 持有。
+ *
+ * <p>包含内容: 1. 排盘用经度查询 (getLongitude) 2. 地点经纬度查询 (getCoordinates)
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public interface GeoService {
+
+  /**
+   * 获取排盘用经度 (省市区三级匹配，含后缀变换与模糊匹配)
+   *
+   * @param location 地点字符串
+   * @return 经度，未匹配返回北京经度
+   */
+  double getLongitude(String location);
+
+  /**
+   * 获取地点的经纬度信息
+   *
+   * @param location 地点字符串 (格式: 省/市/区)
+   * @return 包含 lng 和 lat 的 Map，未匹配返回北京经纬度
+   */
+  Map<String, Double> getCoordinates(String location);
+}
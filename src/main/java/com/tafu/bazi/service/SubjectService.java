@@ -1,10 +1,12 @@
 package com.tafu.bazi.service;
 
 import com.tafu.bazi.dto.request.SubjectRequest;
+import com.tafu.bazi.dto.response.LiuNianDTO;
 import com.tafu.bazi.dto.response.SubjectResponse;
 import com.tafu.bazi.entity.FortuneReport;
 import com.tafu.bazi.entity.Subject;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -32,6 +34,32 @@ public interface SubjectService {
 
   Page<SubjectResponse> getList(String userId, Pageable pageable);
 
+  /**
+   * 测算对象的流年 (及流月) 时间线，按年份分页，每年附带与原局、所在大运的干支关系
+   *
+   * @param fromYear 起始公历年 (含)，为空时从第一步大运 (出生年) 开始
+   * @param toYear 结束公历年 (含)，为空时到最后一步大运结束
+   * @param withLiuYue 是否返回每年十二个流月
+   * @param pageable 分页参数，每页条数即年数
+   */
+  Page<LiuNianDTO> getTimeline(
+      String userId,
+      String id,
+      Integer fromYear,
+      Integer toYear,
+      boolean withLiuYue,
+      Pageable pageable);
+
   // Internal use
   Subject getEntity(String userId, String id);
+
+  /**
+   * 保存初步分析结果 (独立短事务，在 AI 生成结束后调用，不在生成期间占用数据库连接)
+   *
+   * <p>仅在尚未保存过时写入: 多个节点同时生成时先写入者生效，不覆盖已有结果。
+   *
+   * @param analysis 分析结果 ({ "content": 文本 })
+   * @return 是否写入；false 表示已有其他请求保存的结果
+   */
+  boolean saveInitialAnalysis(String userId, String id, Map<String, Object> analysis);
 }
@@ -1,5 +1,6 @@
 package com.tafu.bazi.service.impl;
 
+import com.tafu.bazi.component.TaskDispatcher;
 import com.tafu.bazi.entity.Task;
 import com.tafu.bazi.exception.BusinessException;
 import com.tafu.bazi.exception.StandardErrorCode;
@@ -7,8 +8,10 @@ import com.tafu.bazi.repository.TaskRepository;
 import com.tafu.bazi.service.AdminTaskService;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class AdminTaskServiceImpl implements AdminTaskService {
 
   private final TaskRepository taskRepository;
+  private final TaskDispatcher taskDispatcher;
 
   @Override
   public Map<String, Object> getStats() {
@@ -52,6 +56,21 @@ public class AdminTaskServiceImpl implements AdminTaskService {
     return Map.of("queue", queue, "timestamp", LocalDateTime.now());
   }
 
+  /**
+   * 主题解锁任务同一主题只能有一个活动任务 (uq_tasks_active_theme_unlock)，已有活动任务或本批已重试过同一主题时跳过
+   *
+   * @param retriedThemes 本批已重试的主题 (subjectId:theme)
+   */
+  private boolean retryable(Task task, Set<String> retriedThemes) {
+    if (!"THEME_UNLOCK".equals(task.getType())) {
+      return true;
+    }
+    String subjectId = (String) task.getPayload().get("subjectId");
+    String theme = (String) task.getPayload().get("theme");
+    return retriedThemes.add(subjectId + ":" + theme)
+        && taskRepository.findActiveThemeUnlock(subjectId, theme).isEmpty();
+  }
+
   private long countByStatus(String status) {
     return taskRepository.count((root, query, cb) -> cb.equal(root.get("status"), status));
   }
@@ -67,12 +86,19 @@ public class AdminTaskServiceImpl implements AdminTaskService {
     if (!"failed".equals(task.getStatus())) {
       throw new IllegalArgumentException("Only failed tasks can be retried");
     }
+    if (!retryable(task, new HashSet<>())) {
+      throw new IllegalArgumentException("An active task for the same theme already exists");
+    }
 
     task.setStatus("pending");
     task.setError(null);
     task.setStartedAt(null);
     task.setCompletedAt(null);
-    return taskRepository.save(task);
+    task.setLockedBy(null);
+    task.setLeaseUntil(null);
+    Task saved = taskRepository.save(task);
+    taskDispatcher.dispatch(saved.getId());
+    return saved;
   }
 
   @Override
@@ -99,13 +125,18 @@ public class AdminTaskServiceImpl implements AdminTaskService {
     // Bulk update is better
     List<Task> failedTasks =
         taskRepository.findAll((root, query, cb) -> cb.equal(root.get("status"), "failed"));
+    Set<String> retriedThemes = new HashSet<>();
+    failedTasks.removeIf(task -> !retryable(task, retriedThemes));
     for (Task task : failedTasks) {
       task.setStatus("pending");
       task.setError(null);
       task.setStartedAt(null);
       task.setCompletedAt(null);
+      task.setLockedBy(null);
+      task.setLeaseUntil(null);
     }
     taskRepository.saveAll(failedTasks);
+    failedTasks.forEach(task -> taskDispatcher.dispatch(task.getId()));
     return failedTasks.size();
   }
 
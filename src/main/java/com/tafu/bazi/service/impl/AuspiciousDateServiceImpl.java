@@ -0,0 +1,235 @@
+package com.tafu.bazi.service.impl;
+
+import com.tafu.bazi.dto.response.AuspiciousDateDTO;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.FiveElementsDTO;
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.exception.StandardErrorCode;
+import com.tafu.bazi.mapper.BaziMapper;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.model.BaziDef.FiveElement;
+import com.tafu.bazi.service.AuspiciousDateService;
+import com.tafu.bazi.service.SubjectService;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import com.tafu.bazi.utils.RelationMasks;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * AuspiciousDateServiceImpl
+ *
+ * <p>描述: 择日实现。先按命盘为六十甲子日柱与十二月支各预计算一次得分与依据，再在并行线程池中逐日求日柱 (纪元日取模) 与月柱
+ * (交节时刻表) 并查表累加，多年范围也只是数组运算。
+ *
+ * <p>规则: 日干五行为喜用 +2、为忌 -2；日支五行为喜用 +1、为忌 -1；日支与命主日支六合 +2、六冲 -3；日支冲命主年支 (冲生肖) -2；
+ * 日干与日主五合 +1；日支为日主天乙贵人 +2、文昌 +1；月令五行为喜用 +1、为忌 -1。干支关系按 RelationMasks 位掩码判断。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Service
+@RequiredArgsConstructor
+public class AuspiciousDateServiceImpl implements AuspiciousDateService {
+
+  /** 单次查询最长天数 (约 10 年) */
+  private static final int MAX_RANGE_DAYS = 3660;
+
+  /** 返回条数上限 */
+  private static final int MAX_LIMIT = 100;
+
+  private final SubjectService subjectService;
+  private final BaziMapper baziMapper;
+  private final ForkJoinPool baziBatchPool;
+
+  @Override
+  public List<AuspiciousDateDTO> search(
+      String userId, String subjectId, LocalDate from, LocalDate to, int limit) {
+    if (from == null || to == null || from.isAfter(to)) {
+      throw new BusinessException(StandardErrorCode.PARAM_ERROR.getCode(), "日期范围无效");
+    }
+    if (from.getYear() < FourPillarsEngine.MIN_YEAR || to.getYear() > FourPillarsEngine.MAX_YEAR) {
+      throw new BusinessException(
+          StandardErrorCode.PARAM_ERROR.getCode(),
+          String.format("日期须在 %d-%d 年内", FourPillarsEngine.MIN_YEAR, FourPillarsEngine.MAX_YEAR));
+    }
+    long firstDay = from.toEpochDay();
+    int days = (int) (to.toEpochDay() - firstDay + 1);
+    if (days > MAX_RANGE_DAYS) {
+      throw new BusinessException(
+          StandardErrorCode.PARAM_ERROR.getCode(), "日期范围最多 " + MAX_RANGE_DAYS + " 天");
+    }
+
+    BaziResponse chart =
+        baziMapper.mapToBaziResponse(subjectService.getEntity(userId, subjectId).getBaziData());
+    if (chart == null || chart.getFourPillars() == null) {
+      throw new BusinessException(StandardErrorCode.RESOURCE_NOT_FOUND.getCode(), "测算对象缺少排盘数据");
+    }
+
+    // 逐日求日柱、月柱并查表得分，按日并行
+    DayScan scan = new DayScan(new ScoreTable(chart), firstDay, days);
+    baziBatchPool.submit(() -> IntStream.range(0, days).parallel().forEach(scan::evaluate)).join();
+
+    return IntStream.range(0, days)
+        .filter(i -> scan.scores[i] > 0)
+        .boxed()
+        .sorted(Comparator.<Integer>comparingInt(i -> -scan.scores[i]).thenComparingInt(i -> i))
+        .limit(Math.max(1, Math.min(limit, MAX_LIMIT)))
+        .map(scan::toDto)
+        .toList();
+  }
+
+  /** 日期范围内逐日的日柱、月柱与得分 */
+  private static final class DayScan {
+    private final ScoreTable table;
+    private final long firstDay;
+    private final int[] dayPillars;
+    private final int[] monthPillars;
+    private final int[] scores;
+
+    private DayScan(ScoreTable table, long firstDay, int days) {
+      this.table = table;
+      this.firstDay = firstDay;
+      this.dayPillars = new int[days];
+      this.monthPillars = new int[days];
+      this.scores = new int[days];
+    }
+
+    /** 第 i 天: 日柱按纪元日取模，月柱取正午 (避开晚子时换日) 查交节时刻表 */
+    private void evaluate(int i) {
+      long epochDay = firstDay + i;
+      int day = FourPillarsEngine.dayJiaZi(epochDay);
+      int month = FourPillarsEngine.compute(epochDay * 24 * 60 + 12 * 60).month();
+      dayPillars[i] = day;
+      monthPillars[i] = month;
+      scores[i] = table.dayScores[day] + table.monthScores[month % 12];
+    }
+
+    private AuspiciousDateDTO toDto(int i) {
+      List<String> reasons = new ArrayList<>(table.dayReasons.get(dayPillars[i]));
+      reasons.addAll(table.monthReasons.get(monthPillars[i] % 12));
+      return AuspiciousDateDTO.builder()
+          .date(LocalDate.ofEpochDay(firstDay + i).toString())
+          .dayGanZhi(BaziDef.JIA_ZI[dayPillars[i]])
+          .monthGanZhi(BaziDef.JIA_ZI[monthPillars[i]])
+          .score(scores[i])
+          .reasons(reasons)
+          .build();
+    }
+  }
+
+  /** 按命盘预计算的六十甲子日柱、十二月支得分与依据 */
+  private static final class ScoreTable {
+    private final int[] dayScores = new int[60];
+    private final List<List<String>> dayReasons = new ArrayList<>(60);
+    private final int[] monthScores = new int[12];
+    private final List<List<String>> monthReasons = new ArrayList<>(12);
+
+    private ScoreTable(BaziResponse chart) {
+      FourPillarsDTO pillars = chart.getFourPillars();
+      int dayStem = BaziDef.stemIndex(pillars.getDay().getHeavenlyStem().getChinese());
+      int dayBranch = BaziDef.branchIndex(pillars.getDay().getEarthlyBranch().getChinese());
+      int yearBranch = BaziDef.branchIndex(pillars.getYear().getEarthlyBranch().getChinese());
+      FiveElementsDTO fiveElements = chart.getFiveElements();
+      Set<FiveElement> favorable =
+          elements(fiveElements != null ? fiveElements.getFavorable() : null);
+      Set<FiveElement> unfavorable =
+          elements(fiveElements != null ? fiveElements.getUnfavorable() : null);
+
+      for (int jiaZi = 0; jiaZi < 60; jiaZi++) {
+        int stem = jiaZi % 10;
+        int branch = jiaZi % 12;
+        String gan = BaziDef.STEMS[stem];
+        String zhi = BaziDef.BRANCHES[branch];
+        List<String> reasons = new ArrayList<>();
+        int score = 0;
+
+        FiveElement stemElement = BaziDef.STEM_ELEMENT[stem];
+        if (favorable.contains(stemElement)) {
+          score += 2;
+          reasons.add("日干" + gan + stemElement.getChinese() + "为喜用 +2");
+        } else if (unfavorable.contains(stemElement)) {
+          score -= 2;
+          reasons.add("日干" + gan + stemElement.getChinese() + "为忌 -2");
+        }
+        FiveElement branchElement = BaziDef.BRANCH_ELEMENT[branch];
+        if (favorable.contains(branchElement)) {
+          score += 1;
+          reasons.add("日支" + zhi + branchElement.getChinese() + "为喜用 +1");
+        } else if (unfavorable.contains(branchElement)) {
+          score -= 1;
+          reasons.add("日支" + zhi + branchElement.getChinese() + "为忌 -1");
+        }
+
+        if (dayBranch >= 0 && RelationMasks.branchCombine(branch, dayBranch)) {
+          score += 2;
+          reasons.add("日支" + zhi + "与命主日支" + BaziDef.BRANCHES[dayBranch] + "六合 +2");
+        }
+        if (dayBranch >= 0 && RelationMasks.branchClash(branch, dayBranch)) {
+          score -= 3;
+          reasons.add("日支" + zhi + "冲命主日支" + BaziDef.BRANCHES[dayBranch] + " -3");
+        }
+        if (yearBranch >= 0 && RelationMasks.branchClash(branch, yearBranch)) {
+          score -= 2;
+          reasons.add("日支" + zhi + "冲命主年支" + BaziDef.BRANCHES[yearBranch] + " (冲生肖) -2");
+        }
+        if (dayStem >= 0) {
+          String dayGan = BaziDef.STEMS[dayStem];
+          if (RelationMasks.stemCombine(stem, dayStem)) {
+            score += 1;
+            reasons.add("日干" + gan + "与日主" + dayGan + "五合 +1");
+          }
+          if (RelationMasks.tianYi(dayStem, branch)) {
+            score += 2;
+            reasons.add(zhi + "为日主" + dayGan + "的天乙贵人 +2");
+          }
+          if (RelationMasks.wenChang(dayStem, branch)) {
+            score += 1;
+            reasons.add(zhi + "为日主" + dayGan + "的文昌 +1");
+          }
+        }
+        dayScores[jiaZi] = score;
+        dayReasons.add(List.copyOf(reasons));
+      }
+
+      for (int branch = 0; branch < 12; branch++) {
+        FiveElement element = BaziDef.BRANCH_ELEMENT[branch];
+        String reason = "月令" + BaziDef.BRANCHES[branch] + element.getChinese();
+        if (favorable.contains(element)) {
+          monthScores[branch] = 1;
+          monthReasons.add(List.of(reason + "为喜用 +1"));
+        } else if (unfavorable.contains(element)) {
+          monthScores[branch] = -1;
+          monthReasons.add(List.of(reason + "为忌 -1"));
+        } else {
+          monthReasons.add(List.of());
+        }
+      }
+    }
+
+    /** 五行代码 (wood/fire ...) 或中文 (木/火 ...) 列表 -> 五行集合 */
+    private static Set<FiveElement> elements(List<String> names) {
+      Set<FiveElement> elements = EnumSet.noneOf(FiveElement.class);
+      if (names != null) {
+        for (String name : names) {
+          for (FiveElement element : FiveElement.values()) {
+            if (element.getCode().equals(name) || element.getChinese().equals(name)) {
+              elements.add(element);
+            }
+          }
+        }
+      }
+      return elements;
+    }
+  }
+}
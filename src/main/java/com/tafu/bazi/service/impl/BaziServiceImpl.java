@@ -1,24 +1,66 @@
 package com.tafu.bazi.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nlf.calendar.EightChar;
 import com.nlf.calendar.Lunar;
 import com.nlf.calendar.Solar;
 import com.nlf.calendar.eightchar.DaYun;
 import com.nlf.calendar.eightchar.Yun;
+import com.tafu.bazi.component.BaziChartCache;
+import com.tafu.bazi.component.ShenShaResolver;
 import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.request.BaziHoursRequest;
+import com.tafu.bazi.dto.response.BaziBatchItemResponse;
 import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.DaYunDTO;
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.dto.response.HourVariantsResponse;
+import com.tafu.bazi.dto.response.LiuNianDTO;
+import com.tafu.bazi.dto.response.LiuYueDTO;
+import com.tafu.bazi.dto.response.LunarYearDTO;
+import com.tafu.bazi.dto.response.PillarWindowDTO;
+import com.tafu.bazi.dto.response.RelationDTO;
+import com.tafu.bazi.dto.response.YunInfoDTO;
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.exception.StandardErrorCode;
 import com.tafu.bazi.mapper.BaziMapper;
 import com.tafu.bazi.model.BaziDef;
 import com.tafu.bazi.model.BaziDef.FiveElement;
-import com.tafu.bazi.model.BaziDef.StemInfo;
+import com.tafu.bazi.model.BaziField;
 import com.tafu.bazi.model.BaziResult;
 import com.tafu.bazi.model.BaziResult.*;
 import com.tafu.bazi.service.BaziService;
+import com.tafu.bazi.service.GeoService;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import com.tafu.bazi.utils.GanZhiTable;
+import com.tafu.bazi.utils.LunarCalendarTable;
 import com.tafu.bazi.utils.LunarUtils;
+import com.tafu.bazi.utils.PillarSearch;
+import com.tafu.bazi.utils.RelationEngine;
+import com.tafu.bazi.utils.SolarTimeUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -27,7 +69,8 @@ import org.springframework.stereotype.Service;
  * <p>描述: 八字排盘核心计算实现类。 核心逻辑: 移植自 calculator.ts
  *
  * <p>包含内容: 1. 真太阳时转换 2. 四柱计算 3. 日主强弱分析 (calculateDayMaster) 4. 五行旺衰统计 (calculateFiveElements) 5.
- * 十神计算 (calculateTenGods) 6. 格局判断 (calculatePattern)
+ * 十神计算 (calculateTenGods) 6. 格局判断 (calculatePattern) 7. 流年/流月时间线 (calculateLiuNian) 8.
+ * 干支合冲刑害 (RelationEngine，原局、大运、流年) 9. 时辰不详的十二时辰对比 (calculateHourVariants)
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -40,234 +83,577 @@ import org.springframework.stereotype.Service;
 @SuppressWarnings({"unchecked", "null"})
 public class BaziServiceImpl implements BaziService {
 
+  // ==========================================
+  // 静态查表数据（按天干/地支/五行序号下标取值，每次排盘共用）
+  // ==========================================
+
+  /** 日主性格特征 (按天干序号) */
+  private static final List<List<String>> DAY_MASTER_CHARACTERISTICS =
+      List.of(
+          List.of("积极进取", "有领导力", "刚直不阿", "富有创造力"),
+          List.of("温和柔顺", "适应力强", "善于协调", "注重细节"),
+          List.of("热情开朗", "光明磊落", "富有激情", "善于表达"),
+          List.of("细腻敏感", "文雅有礼", "富有艺术气质", "善解人意"),
+          List.of("稳重踏实", "诚实守信", "包容大度", "责任心强"),
+          List.of("温和谦逊", "细心周到", "善于理财", "注重实际"),
+          List.of("刚毅果断", "正直坦率", "意志坚定", "富有正义感"),
+          List.of("细腻敏锐", "追求完美", "善于分析", "注重品质"),
+          List.of("聪明灵活", "善于变通", "富有智慧", "适应力强"),
+          List.of("温柔体贴", "富有想象力", "善于思考", "内敛含蓄"));
+
+  private static final List<String> DEFAULT_CHARACTERISTICS = List.of("性格特征待分析");
+
+  /** 流式排盘结果队列的结束标记 (读取端已读完请求体) */
+  private static final BaziBatchItemResponse STREAM_END = new BaziBatchItemResponse();
+
+  /** 日主之禄 (按天干序号，值为地支序号) */
+  private static final int[] LU_BRANCH = {2, 3, 5, 6, 5, 6, 8, 9, 11, 0};
+
+  /** 日主之刃 (按天干序号，值为地支序号) */
+  private static final int[] REN_BRANCH = {3, 2, 6, 5, 6, 5, 9, 8, 0, 11};
+
+  /** 专旺格名称 (按 FiveElement.ordinal()) */
+  private static final String[] ZHUAN_WANG_NAMES = {"从革格", "曲直格", "润下格", "炎上格", "稼穑格"};
+
+  /** 专旺格描述 (按 FiveElement.ordinal()) */
+  private static final String[] ZHUAN_WANG_DESCS = {
+    "金气从革成局，主刚毅果决，宜土金运",
+    "木气专旺成局，主仁慈正直，宜水木运",
+    "水气润下成局，主聪慧灵活，宜金水运",
+    "火气炎上成局，主热情礼仪，宜木火运",
+    "土气稼穑成局，主忠厚信实，宜火土运"
+  };
+
+  /** 正格: 月令藏干十神 (按 BaziDef.TEN_GODS 下标) -> {格局名, 描述}，比劫不成格 */
+  private static final String[][] NORMAL_PATTERNS = {
+    null,
+    null,
+    {"食神格", "月令透食神，主温和福厚，宜见财星泄秀"},
+    {"伤官格", "月令透伤官，主聪明傲气，宜见财星或印星"},
+    {"偏财格", "月令透偏财，主豪爽大方，宜见官杀护财"},
+    {"正财格", "月令透正财，主务实勤俭，宜见官杀护财"},
+    {"七杀格", "月令透七杀，主威严果决，宜见食伤制杀或印化杀"},
+    {"正官格", "月令透正官，主贵气端正，宜见财印相生"},
+    {"偏印格", "月令透偏印，主机敏多思，宜见财星制印"},
+    {"正印格", "月令透正印，主聪慧仁厚，宜见官杀生印"}
+  };
+
+  /** 五行遍历顺序 (与原 HashMap 键顺序一致，保证最旺/最弱、平衡喜忌在并列时结果不变) */
+  private static final FiveElement[] ELEMENT_ORDER = {
+    FiveElement.EARTH, FiveElement.METAL, FiveElement.FIRE, FiveElement.WOOD, FiveElement.WATER
+  };
+
+  /** 旺相休囚死状态表 (按月令五行 ordinal) */
+  private static final List<Map<String, String>> ELEMENT_STATES;
+
+  static {
+    List<Map<String, String>> elementStates = new ArrayList<>(5);
+    for (FiveElement month : FiveElement.values()) {
+      Map<String, String> states = new HashMap<>();
+      for (FiveElement e : FiveElement.values()) {
+        states.put(e.getCode(), BaziDef.ELEMENT_STATE[month.ordinal()][e.ordinal()]);
+      }
+      elementStates.add(Collections.unmodifiableMap(states));
+    }
+    ELEMENT_STATES = List.copyOf(elementStates);
+  }
+
   private final BaziMapper baziMapper;
+  private final BaziChartCache baziChartCache;
+  private final ShenShaResolver shenShaResolver;
+  private final GeoService geoService;
+  private final ForkJoinPool baziBatchPool;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.bazi.batch.max-size:1000}")
+  private int batchMaxSize;
+
+  @Value("${app.bazi.stream.max-in-flight:64}")
+  private int streamMaxInFlight;
+
+  @Value("${app.bazi.stream.flush-every:64}")
+  private int streamFlushEvery;
 
   @Override
   public BaziResponse calculate(BaziCalculateRequest request) {
+    return calculate(request, BaziField.ALL);
+  }
+
+  @Override
+  public BaziResponse calculate(BaziCalculateRequest request, Set<BaziField> fields) {
     // 0. 获取经度
-    double longitude = LunarUtils.getLongitude(request.getLocation());
-
-    Solar solar;
-    // 1. 处理输入日期 & 真太阳时
-    if ("lunar".equals(request.getCalendarType())) {
-      int lunarMonth = request.getMonth();
-      if (request.isLeapMonth()) {
-        lunarMonth = -Math.abs(lunarMonth);
-      }
-      Lunar lunar = Lunar.fromYmd(request.getYear(), lunarMonth, request.getDay());
-      Solar tempSolar = lunar.getSolar();
-      solar =
-          getTrueSolarTime(
-              tempSolar.getYear(),
-              tempSolar.getMonth(),
-              tempSolar.getDay(),
-              request.getHour(),
-              request.getMinute(),
-              longitude);
-    } else {
-      solar =
-          getTrueSolarTime(
-              request.getYear(),
-              request.getMonth(),
-              request.getDay(),
-              request.getHour(),
-              request.getMinute(),
-              longitude);
+    double longitude = geoService.getLongitude(request.getLocation());
+
+    // 1. 处理输入日期 (农历先换算为公历日期)
+    long epochDay =
+        solarEpochDay(
+            request.getCalendarType(),
+            request.getYear(),
+            request.getMonth(),
+            request.getDay(),
+            request.isLeapMonth());
+    long epochMinute = epochDay * 24 * 60;
+
+    // 2. 真太阳时 (纯整数运算，不创建 Calendar)
+    long trueSolarMinute =
+        SolarTimeUtils.trueSolarMinute(
+            SolarTimeUtils.year(epochMinute),
+            SolarTimeUtils.month(epochMinute),
+            SolarTimeUtils.day(epochMinute),
+            request.getHour(),
+            request.getMinute(),
+            longitude);
+
+    // 以真太阳时 + 性别 + 计算的部分为键查缓存，不同地点只要真太阳时相同即共享结果
+    return baziChartCache.get(
+        trueSolarMinute,
+        request.getGender(),
+        fields,
+        () -> calculateChart(trueSolarMinute, request.getGender(), fields));
+  }
+
+  @Override
+  public HourVariantsResponse calculateHourVariants(BaziHoursRequest request) {
+    double longitude = geoService.getLongitude(request.getLocation());
+    long epochDay =
+        solarEpochDay(
+            request.getCalendarType(),
+            request.getYear(),
+            request.getMonth(),
+            request.getDay(),
+            request.isLeapMonth());
+    long clockNoon = epochDay * 24 * 60 + 12 * 60;
+
+    // 以当日正午的真太阳时确定真太阳日与时差，十二时辰取真太阳日 0、2 ... 22 点 (子时为早子时)
+    long trueNoon =
+        SolarTimeUtils.trueSolarMinute(
+            SolarTimeUtils.year(clockNoon),
+            SolarTimeUtils.month(clockNoon),
+            SolarTimeUtils.day(clockNoon),
+            12,
+            0,
+            longitude);
+    int offset = (int) (trueNoon - clockNoon);
+    long dayStart = Math.floorDiv(trueNoon, 24 * 60) * 24 * 60;
+
+    // 共享部分: 正午四柱与农历日期只算一次
+    FourPillarsEngine.Pillars noon = FourPillarsEngine.compute(dayStart + 12 * 60);
+    int dayStem = noon.day() % 10;
+    Lunar lunar = toSolar(dayStart + 12 * 60).getLunar();
+    String gender = request.getGender();
+    int[] natal = {noon.year(), noon.month(), noon.day(), -1};
+
+    // 各时辰只重算随时柱变化的部分，年、月、日柱按六十甲子序号复用
+    Pillar[] pillarCache = new Pillar[60];
+    List<HourVariantsResponse.Variant> variants = new ArrayList<>(12);
+    for (int branch = 0; branch < 12; branch++) {
+      FourPillarsEngine.Pillars pillars = FourPillarsEngine.compute(dayStart + branch * 120L);
+      int[] positions = {pillars.year(), pillars.month(), pillars.day(), pillars.hour()};
+      FourPillars fourPillars =
+          FourPillars.builder()
+              .year(cachedPillar(pillarCache, positions[0], dayStem))
+              .month(cachedPillar(pillarCache, positions[1], dayStem))
+              .day(cachedPillar(pillarCache, positions[2], dayStem))
+              .hour(cachedPillar(pillarCache, positions[3], dayStem))
+              .build();
+      DayMaster dayMaster = calculateDayMaster(fourPillars);
+      double[] distribution = new double[5];
+      FiveElementsAnalysis fiveElements =
+          calculateFiveElements(fourPillars, dayMaster, distribution);
+      Pillar hour = fourPillars.getHour();
+      int start = branch * 120 - 60;
+      // 起运时间按出生时刻到节的距离计算，交节、立春当日大运干支与方向也可能不同，各时辰各取一次
+      EightChar eightChar = toSolar(dayStart + branch * 120L).getLunar().getEightChar();
+      eightChar.setSect(1); // 晚子时日柱算明天
+      Yun yun = eightChar.getYun("male".equals(gender) ? 1 : 0);
+      variants.add(
+          HourVariantsResponse.Variant.builder()
+              .hour(BaziDef.BRANCHES[branch])
+              .trueSolarRange(timeRange(start))
+              .clockRange(timeRange(start - offset))
+              .fourPillars(
+                  Arrays.stream(positions)
+                      .mapToObj(jiaZi -> BaziDef.JIA_ZI[jiaZi])
+                      .collect(Collectors.joining(" ")))
+              .hourTenGod(hour.getTenGod())
+              .hourHiddenTenGods(hour.getHiddenStemTenGods())
+              .strength(dayMaster.getStrength())
+              .strengthScore(dayMaster.getAnalysis().getTotalScore())
+              .pattern(calculatePattern(fourPillars, dayMaster, distribution).getName())
+              .favorable(fiveElements.getFavorable())
+              .unfavorable(fiveElements.getUnfavorable())
+              .relations(
+                  baziMapper.mapRelations(
+                      RelationEngine.analyze(RelationEngine.NATAL, positions, 3)))
+              .yun(
+                  baziMapper.mapYunInfo(calculateYun(yun, isForward(pillars.year(), gender), null)))
+              .build());
     }
 
-    Lunar lunar = solar.getLunar();
-    EightChar eightChar = lunar.getEightChar();
-    eightChar.setSect(1); // 晚子时日柱算明天
+    // 时柱之外还随时辰变化的字段 (交节、立春当日的月柱、年柱，以及强弱、格局、喜忌、大运)
+    List<String> varying = new ArrayList<>();
+    addIfVarying(varying, "yearPillar", variants, v -> v.getFourPillars().substring(0, 2));
+    addIfVarying(varying, "monthPillar", variants, v -> v.getFourPillars().substring(3, 5));
+    addIfVarying(varying, "strength", variants, HourVariantsResponse.Variant::getStrength);
+    addIfVarying(varying, "pattern", variants, HourVariantsResponse.Variant::getPattern);
+    addIfVarying(varying, "favorable", variants, HourVariantsResponse.Variant::getFavorable);
+    addIfVarying(varying, "unfavorable", variants, HourVariantsResponse.Variant::getUnfavorable);
+    addIfVarying(varying, "yun", variants, HourVariantsResponse.Variant::getYun);
+
+    return HourVariantsResponse.builder()
+        .gender(gender)
+        .solarDate(solarDate(dayStart).substring(0, 10))
+        .lunarDate(lunar.toString())
+        .yearPillar(BaziDef.JIA_ZI[noon.year()])
+        .monthPillar(BaziDef.JIA_ZI[noon.month()])
+        .dayPillar(BaziDef.JIA_ZI[noon.day()])
+        .dayMaster(BaziDef.STEMS[dayStem])
+        .relations(
+            baziMapper.mapRelations(RelationEngine.analyze(RelationEngine.NATAL, natal, 0)))
+        .varying(varying)
+        .variants(variants)
+        .build();
+  }
 
-    String dayMasterGan = eightChar.getDayGan();
+  /** 出生日期 -> 公历纪元日 (农历经农历月表换算，表外年份回退到 lunar-java) */
+  private static long solarEpochDay(
+      String calendarType, int year, int month, int day, boolean leapMonth) {
+    if (!"lunar".equals(calendarType)) {
+      return SolarTimeUtils.epochDay(year, month, day);
+    }
+    int lunarMonth = leapMonth ? -Math.abs(month) : month;
+    return LunarCalendarTable.isSupported(year)
+        ? LunarCalendarTable.toEpochDay(year, lunarMonth, day)
+        : LunarCalendarTable.toEpochDayFromLunar(year, lunarMonth, day);
+  }
 
-    // 2. 构造四柱 (Four Pillars)
-    Map<String, Object> fourPillars = new LinkedHashMap<>();
-    fourPillars.put(
-        "year",
-        buildPillar(
-            eightChar.getYearGan(),
-            eightChar.getYearZhi(),
-            eightChar.getYearNaYin(),
-            dayMasterGan));
-    fourPillars.put(
-        "month",
-        buildPillar(
-            eightChar.getMonthGan(),
-            eightChar.getMonthZhi(),
-            eightChar.getMonthNaYin(),
-            dayMasterGan));
-    fourPillars.put(
-        "day",
-        buildPillar(
-            eightChar.getDayGan(), eightChar.getDayZhi(), eightChar.getDayNaYin(), dayMasterGan));
-    fourPillars.put(
-        "hour",
-        buildPillar(
-            eightChar.getTimeGan(),
-            eightChar.getTimeZhi(),
-            eightChar.getTimeNaYin(),
-            dayMasterGan));
-
-    // 3. 核心分析（使用简单的Map结构进行计算）
-    DayMaster dayMaster = calculateDayMasterFromMap(fourPillars, dayMasterGan);
-    FiveElementsAnalysis fiveElements = calculateFiveElementsFromMap(fourPillars, dayMaster);
-    TenGodsAnalysis tenGods = calculateTenGodsFromMap(fourPillars, dayMaster.getGan());
-    PatternInfo pattern = calculatePatternFromMap(fourPillars, dayMaster, fiveElements);
-    List<String> dayMasterCharacteristics = getDayMasterCharacteristics(dayMaster.getGan());
-
-    // New Logic: Yun (DaYun)
-    Yun yunObj = eightChar.getYun("male".equals(request.getGender()) ? 1 : 0);
-    YunInfo yunInfo = calculateYun(yunObj);
-
-    // New Logic: ShenSha - 使用 lunar-java 的神煞计算 API
-    ShenShaInfo shenShaInfo = calculateShenSha(lunar);
-
-    // 4. 构建返回结果
-    Map<String, Object> result = new LinkedHashMap<>();
-    result.put("gender", request.getGender());
-    result.put("solarDate", solar.toYmdHms());
-    result.put("lunarDate", lunar.toString());
-    result.put(
-        "trueSolarTime",
-        Map.of(
-            "year",
-            solar.getYear(),
-            "month",
-            solar.getMonth(),
-            "day",
-            solar.getDay(),
-            "hour",
-            solar.getHour(),
-            "minute",
-            solar.getMinute()));
-
-    result.put("fourPillars", fourPillars);
-    result.put("fourPillarsShiShen", convertTenGodsToShiShen(tenGods));
-    result.put("fourPillarsXunKong", Map.of("dayXunKong", eightChar.getDayXunKong()));
-    result.put("dayMaster", dayMaster);
-    result.put("fiveElements", fiveElements);
-    result.put("tenGods", tenGods);
-    result.put("pattern", pattern);
-    result.put("dayMasterCharacteristics", dayMasterCharacteristics);
-
-    // New fields
-    result.put("yun", yunInfo);
-    result.put("shenSha", shenShaInfo);
-    result.put("shengXiao", lunar.getYearShengXiaoExact());
-    result.put("taiYuan", eightChar.getTaiYuan());
-    result.put("mingGong", eightChar.getMingGong());
-    result.put("shenGong", eightChar.getShenGong());
-    result.put("xunKong", eightChar.getDayXunKong());
-    // ... add others if needed
-
-    // 使用 Mapper 转换为强类型 DTO
-    return baziMapper.mapToBaziResponse(result);
+  /** 大运方向: 阳年男、阴年女顺排，反之逆排 */
+  private static boolean isForward(int yearJiaZi, String gender) {
+    return (yearJiaZi % 2 == 0) == "male".equals(gender);
   }
 
-  private Map<String, Object> buildPillar(
-      String gan, String zhi, String nayin, String dayMasterGan) {
-    StemInfo ganInfo = BaziDef.STEMS_INFO.get(gan);
-    StemInfo dayMasterInfo = BaziDef.STEMS_INFO.get(dayMasterGan);
-    String tenGod =
-        (ganInfo != null && dayMasterInfo != null) ? getTenGod(dayMasterInfo, ganInfo) : null;
-
-    // Get branch element
-    FiveElement branchElement = BaziDef.MONTH_BRANCH_ELEMENT.get(zhi);
-
-    // Build heavenlyStem object
-    Map<String, Object> heavenlyStem = new HashMap<>();
-    heavenlyStem.put("chinese", gan);
-    if (ganInfo != null) {
-      heavenlyStem.put("element", ganInfo.getElement().getCode());
-      heavenlyStem.put("yinYang", ganInfo.getYinYang().name().toLowerCase());
+  /** 同一六十甲子的柱只构建一次 (日干相同时藏干十神等都相同) */
+  private Pillar cachedPillar(Pillar[] cache, int jiaZi, int dayStem) {
+    if (cache[jiaZi] == null) {
+      cache[jiaZi] = buildPillar(jiaZi, dayStem);
     }
+    return cache[jiaZi];
+  }
 
-    // Build earthlyBranch object
-    Map<String, Object> earthlyBranch = new HashMap<>();
-    earthlyBranch.put("chinese", zhi);
-    if (branchElement != null) {
-      earthlyBranch.put("element", branchElement.getCode());
+  /** 当日分钟 (可为负或跨日) 起两小时 -> "HH:mm-HH:mm" */
+  private static String timeRange(int startMinute) {
+    int start = Math.floorMod(startMinute, 24 * 60);
+    int end = Math.floorMod(startMinute + 120, 24 * 60);
+    return String.format("%02d:%02d-%02d:%02d", start / 60, start % 60, end / 60, end % 60);
+  }
+
+  /** 字段在各时辰间取值不同时记入 varying */
+  private static void addIfVarying(
+      List<String> varying,
+      String name,
+      List<HourVariantsResponse.Variant> variants,
+      Function<HourVariantsResponse.Variant, Object> field) {
+    Object first = field.apply(variants.get(0));
+    if (variants.stream().anyMatch(variant -> !Objects.equals(first, field.apply(variant)))) {
+      varying.add(name);
     }
+  }
 
-    // Build hiddenStems as object array (前端期望的结构)
-    List<String> hiddenStemsStr = LunarUtils.getHiddenStems(zhi);
-    List<Map<String, String>> hiddenStemsObj = new ArrayList<>();
-    for (String stem : hiddenStemsStr) {
-      StemInfo stemInfo = BaziDef.STEMS_INFO.get(stem);
-      Map<String, String> stemObj = new HashMap<>();
-      stemObj.put("chinese", stem);
-      if (stemInfo != null) {
-        stemObj.put("element", stemInfo.getElement().getCode());
-        stemObj.put("yinYang", stemInfo.getYinYang().name().toLowerCase());
-        // 计算藏干相对于日主的十神关系
-        if (dayMasterInfo != null) {
-          String hiddenStemTenGod = getTenGod(dayMasterInfo, stemInfo);
-          if (hiddenStemTenGod != null) {
-            stemObj.put("tenGod", hiddenStemTenGod);
-          }
+  /** 纪元分钟 -> "yyyy-MM-dd HH:mm:ss" (与 Solar.toYmdHms 格式一致) */
+  private static String solarDate(long epochMinute) {
+    return String.format(
+        "%04d-%02d-%02d %02d:%02d:00",
+        SolarTimeUtils.year(epochMinute),
+        SolarTimeUtils.month(epochMinute),
+        SolarTimeUtils.day(epochMinute),
+        SolarTimeUtils.hour(epochMinute),
+        SolarTimeUtils.minute(epochMinute));
+  }
+
+  /** 纪元分钟 -> Solar (秒为 0)，仅在需要 Lunar 时构造 */
+  private static Solar toSolar(long epochMinute) {
+    return Solar.fromYmdHms(
+        SolarTimeUtils.year(epochMinute),
+        SolarTimeUtils.month(epochMinute),
+        SolarTimeUtils.day(epochMinute),
+        SolarTimeUtils.hour(epochMinute),
+        SolarTimeUtils.minute(epochMinute),
+        0);
+  }
+
+  @Override
+  public List<BaziBatchItemResponse> calculateBatch(List<BaziCalculateRequest> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new BusinessException(StandardErrorCode.PARAM_ERROR.getCode(), "批量排盘请求不能为空");
+    }
+    if (requests.size() > batchMaxSize) {
+      throw new BusinessException(
+          StandardErrorCode.PARAM_ERROR.getCode(), "批量排盘最多支持 " + batchMaxSize + " 条");
+    }
+
+    // 逐条提交到独立的并行线程池，按输入顺序收集结果
+    List<CompletableFuture<BaziBatchItemResponse>> futures = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      int index = i;
+      BaziCalculateRequest request = requests.get(i);
+      futures.add(
+          CompletableFuture.supplyAsync(() -> calculateBatchItem(index, request), baziBatchPool));
+    }
+
+    List<BaziBatchItemResponse> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<BaziBatchItemResponse> future : futures) {
+      results.add(future.join());
+    }
+    return results;
+  }
+
+  @Override
+  public void calculateStream(InputStream input, OutputStream output) throws IOException {
+    // 读取在独立的虚拟线程，计算在排盘线程池，写出只在当前 (请求) 线程: 线程池中不做任何阻塞 I/O，
+    // 慢客户端只会阻塞自己的请求线程。信号量限制同时在算/待写出的条目数，许可耗尽时暂停读取请求体
+    Semaphore inFlight = new Semaphore(streamMaxInFlight);
+    BlockingQueue<BaziBatchItemResponse> results = new LinkedBlockingQueue<>();
+    AtomicInteger submitted = new AtomicInteger();
+    AtomicReference<IOException> readError = new AtomicReference<>();
+    Thread reader =
+        Thread.ofVirtual()
+            .name("bazi-stream-reader")
+            .start(() -> readStream(input, inFlight, results, submitted, readError));
+
+    try {
+      int written = 0;
+      boolean readDone = false;
+      while (!readDone || written < submitted.get()) {
+        BaziBatchItemResponse item = results.take();
+        if (item == STREAM_END) {
+          readDone = true;
+          continue;
+        }
+        output.write(objectMapper.writeValueAsBytes(item));
+        output.write('\n');
+        inFlight.release();
+        if (++written % streamFlushEvery == 0) {
+          output.flush();
         }
       }
-      hiddenStemsObj.add(stemObj);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("流式排盘被中断");
+    } finally {
+      // 写出失败 (客户端断开) 或被中断时停止读取；正常结束时读取线程已退出
+      reader.interrupt();
     }
 
-    // Build complete pillar
-    Map<String, Object> pillar = new HashMap<>();
-    pillar.put("heavenlyStem", heavenlyStem);
-    pillar.put("earthlyBranch", earthlyBranch);
-    pillar.put("naYin", nayin);
-    pillar.put("hiddenStems", hiddenStemsObj);
-    pillar.put("tenGod", tenGod);
-
-    return pillar;
+    if (readError.get() != null) {
+      throw readError.get();
+    }
+    output.flush();
   }
 
-  // ==========================================
-  // Core Logic Implementation (Ported from TS)
-  // ==========================================
+  /** 流式排盘读取端: 逐行提交计算，结果 (含异常转成的条目错误) 放入队列，读完后放入结束标记 */
+  private void readStream(
+      InputStream input,
+      Semaphore inFlight,
+      BlockingQueue<BaziBatchItemResponse> results,
+      AtomicInteger submitted,
+      AtomicReference<IOException> readError) {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    try {
+      int index = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        int current = index++;
+        String json = line;
+        inFlight.acquire();
+        submitted.incrementAndGet();
+        CompletableFuture.supplyAsync(() -> calculateStreamItem(current, json), baziBatchPool)
+            .handle(
+                (item, e) ->
+                    item != null
+                        ? item
+                        : BaziBatchItemResponse.builder()
+                            .index(current)
+                            .success(false)
+                            .error("排盘失败")
+                            .build())
+            .thenAccept(results::add);
+      }
+    } catch (IOException e) {
+      readError.set(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      results.add(STREAM_END);
+    }
+  }
 
-  /** 从 Map 结构提取天干 */
-  private String extractGanFromPillar(Map<String, Object> pillar) {
-    @SuppressWarnings("unchecked")
-    Map<String, Object> heavenlyStem = (Map<String, Object>) pillar.get("heavenlyStem");
-    return (String) heavenlyStem.get("chinese");
+  /** 流式排盘单行: 解析 JSON 后复用批量排盘的单条计算 */
+  private BaziBatchItemResponse calculateStreamItem(int index, String json) {
+    BaziCalculateRequest request;
+    try {
+      request = objectMapper.readValue(json, BaziCalculateRequest.class);
+    } catch (JsonProcessingException e) {
+      return BaziBatchItemResponse.builder()
+          .index(index)
+          .success(false)
+          .error("JSON 解析失败: " + e.getOriginalMessage())
+          .build();
+    }
+    return calculateBatchItem(index, request);
   }
 
-  /** 从 Map 结构提取地支 */
-  private String extractZhiFromPillar(Map<String, Object> pillar) {
-    @SuppressWarnings("unchecked")
-    Map<String, Object> earthlyBranch = (Map<String, Object>) pillar.get("earthlyBranch");
-    return (String) earthlyBranch.get("chinese");
+  /** 批量排盘单条计算: 手动校验参数，异常转为条目错误信息 */
+  private BaziBatchItemResponse calculateBatchItem(int index, BaziCalculateRequest request) {
+    if (request == null) {
+      return BaziBatchItemResponse.builder().index(index).success(false).error("请求为空").build();
+    }
+
+    Set<ConstraintViolation<BaziCalculateRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      String message =
+          violations.stream()
+              .map(v -> v.getPropertyPath() + " " + v.getMessage())
+              .sorted()
+              .collect(Collectors.joining("; "));
+      return BaziBatchItemResponse.builder().index(index).success(false).error(message).build();
+    }
+
+    try {
+      return BaziBatchItemResponse.builder()
+          .index(index)
+          .success(true)
+          .data(calculate(request))
+          .build();
+    } catch (Exception e) {
+      log.warn("Batch bazi calculation failed at index {}: {}", index, e.getMessage());
+      String message = e.getMessage() != null ? e.getMessage() : "排盘失败";
+      return BaziBatchItemResponse.builder().index(index).success(false).error(message).build();
+    }
   }
 
-  /** 从 Map 结构提取藏干（现在藏干是对象数组，需要提取chinese字段） */
-  @SuppressWarnings("unchecked")
-  private List<String> extractHiddenStemsFromPillar(Map<String, Object> pillar) {
-    Object hiddenStemsObj = pillar.get("hiddenStems");
-    if (hiddenStemsObj == null) {
-      return Collections.emptyList();
+  /** 基于真太阳时排盘，未请求的部分不计算 (结果中为空) */
+  private BaziResponse calculateChart(long trueSolarMinute, String gender, Set<BaziField> fields) {
+    // 四柱由交节表直接计算，表外日期回退到 EightChar
+    FourPillarsEngine.Pillars pillars = FourPillarsEngine.compute(trueSolarMinute);
+
+    // 2. 构造四柱 (Four Pillars)
+    int dayStem = pillars.day() % 10;
+    FourPillars fourPillars =
+        FourPillars.builder()
+            .year(buildPillar(pillars.year(), dayStem))
+            .month(buildPillar(pillars.month(), dayStem))
+            .day(buildPillar(pillars.day(), dayStem))
+            .hour(buildPillar(pillars.hour(), dayStem))
+            .build();
+
+    BaziResult.BaziResultBuilder result =
+        BaziResult.builder()
+            .gender(gender)
+            .solarDate(solarDate(trueSolarMinute))
+            .trueSolarTime(
+                TrueSolarTime.builder()
+                    .year(SolarTimeUtils.year(trueSolarMinute))
+                    .month(SolarTimeUtils.month(trueSolarMinute))
+                    .day(SolarTimeUtils.day(trueSolarMinute))
+                    .hour(SolarTimeUtils.hour(trueSolarMinute))
+                    .minute(SolarTimeUtils.minute(trueSolarMinute))
+                    .build())
+            .pillars(fourPillars)
+            .shengXiao(pillars.shengXiao())
+            .taiYuan(pillars.taiYuan())
+            .xunKong(pillars.dayXunKong());
+
+    // 3. 核心分析（直接基于强类型四柱计算）
+    if (fields.contains(BaziField.DAY_MASTER)
+        || fields.contains(BaziField.FIVE_ELEMENTS)
+        || fields.contains(BaziField.PATTERN)) {
+      DayMaster dayMaster = calculateDayMaster(fourPillars);
+      if (fields.contains(BaziField.DAY_MASTER)) {
+        result
+            .dayMaster(dayMaster)
+            .dayMasterCharacteristics(getDayMasterCharacteristics(dayMaster.getGan()));
+      }
+      if (fields.contains(BaziField.FIVE_ELEMENTS) || fields.contains(BaziField.PATTERN)) {
+        double[] distribution = new double[5];
+        FiveElementsAnalysis fiveElements =
+            calculateFiveElements(fourPillars, dayMaster, distribution);
+        if (fields.contains(BaziField.FIVE_ELEMENTS)) {
+          result.fiveElements(fiveElements);
+        }
+        if (fields.contains(BaziField.PATTERN)) {
+          result.pattern(calculatePattern(fourPillars, dayMaster, distribution));
+        }
+      }
+    }
+    if (fields.contains(BaziField.TEN_GODS)) {
+      result.tenGods(calculateTenGods(fourPillars, fourPillars.getDay().getGan()));
+    }
+    int[] natal = {pillars.year(), pillars.month(), pillars.day(), pillars.hour()};
+    if (fields.contains(BaziField.RELATIONS)) {
+      result.relations(RelationEngine.analyze(RelationEngine.NATAL, natal, 0));
     }
 
-    // 现在hiddenStems是List<Map<String, String>>，需要提取chinese字段
-    List<Map<String, String>> hiddenStemsList = (List<Map<String, String>>) hiddenStemsObj;
-    return hiddenStemsList.stream()
-        .map(stemMap -> stemMap.get("chinese"))
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+    // 农历日期、大运、命宫身宫、神煞仍由 lunar-java 计算，都未请求时不创建 Lunar
+    if (fields.stream().anyMatch(BaziField::requiresLunar)) {
+      Lunar lunar = toSolar(trueSolarMinute).getLunar();
+      EightChar eightChar = lunar.getEightChar();
+      eightChar.setSect(1); // 晚子时日柱算明天
+
+      if (fields.contains(BaziField.LUNAR_DATE)) {
+        result.lunarDate(lunar.toString());
+      }
+      if (fields.contains(BaziField.YUN)) {
+        Yun yunObj = eightChar.getYun("male".equals(gender) ? 1 : 0);
+        result.yun(calculateYun(yunObj, isForward(pillars.year(), gender), natal));
+      }
+      if (fields.contains(BaziField.SHEN_SHA)) {
+        // 神煞 (访问器在启动时解析)
+        result.shenSha(shenShaResolver.resolve(lunar));
+      }
+      if (fields.contains(BaziField.MING_GONG)) {
+        result.mingGong(eightChar.getMingGong());
+      }
+      if (fields.contains(BaziField.SHEN_GONG)) {
+        result.shenGong(eightChar.getShenGong());
+      }
+    }
+
+    // 强类型结果直接映射为 DTO，不经过中间 Map
+    return baziMapper.toBaziResponse(result.build());
   }
 
-  private DayMaster calculateDayMasterFromMap(
-      Map<String, Object> fourPillars, String dayMasterGan) {
-    @SuppressWarnings("unchecked")
-    Map<String, Object> dayPillar = (Map<String, Object>) fourPillars.get("day");
-    @SuppressWarnings("unchecked")
-    Map<String, Object> monthPillar = (Map<String, Object>) fourPillars.get("month");
+  /** 由六十甲子序号构建一柱 */
+  private Pillar buildPillar(int jiaZi, int dayStem) {
+    int stem = jiaZi % 10;
+    int branch = jiaZi % 12;
+    String zhi = BaziDef.BRANCHES[branch];
+
+    // 藏干及其十神均为 BaziDef 预构建的共享不可变列表
+    return Pillar.builder()
+        .gan(BaziDef.STEMS[stem])
+        .zhi(zhi)
+        .nayin(BaziDef.NA_YIN[jiaZi])
+        .hiddenStems(LunarUtils.getHiddenStems(zhi))
+        .hiddenStemTenGods(BaziDef.hiddenStemTenGods(dayStem, branch))
+        .tenGod(BaziDef.tenGod(dayStem, stem))
+        .build();
+  }
 
-    String dayGan = extractGanFromPillar(dayPillar);
-    String monthZhi = extractZhiFromPillar(monthPillar);
+  // ==========================================
+  // Core Logic Implementation (Ported from TS)
+  // ==========================================
 
-    FiveElement dayElement = BaziDef.STEMS_INFO.get(dayGan).getElement();
-    FiveElement monthElement = BaziDef.MONTH_BRANCH_ELEMENT.get(monthZhi);
+  private DayMaster calculateDayMaster(FourPillars fourPillars) {
+    String dayGan = fourPillars.getDay().getGan();
+    FiveElement dayElement = BaziDef.STEM_ELEMENT[BaziDef.stemIndex(dayGan)];
+    FiveElement monthElement =
+        BaziDef.BRANCH_ELEMENT[BaziDef.branchIndex(fourPillars.getMonth().getZhi())];
+    int day = dayElement.ordinal();
 
     // 1. 得令 (Month Season Support)
     double deLing = 0;
@@ -276,13 +662,13 @@ public class BaziServiceImpl implements BaziService {
     if (dayElement == monthElement) {
       deLing = 40;
       deLingDesc = "日主当令";
-    } else if (BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(dayElement) == monthElement) {
+    } else if (BaziDef.GENERATED_BY[day] == monthElement) {
       deLing = 30;
       deLingDesc = "月令生扶";
-    } else if (BaziDef.FIVE_ELEMENTS_GENERATION.get(dayElement) == monthElement) {
+    } else if (BaziDef.GENERATES[day] == monthElement) {
       deLing = -10;
       deLingDesc = "月令泄气";
-    } else if (BaziDef.FIVE_ELEMENTS_RESTRICTION.get(monthElement) == dayElement) {
+    } else if (BaziDef.RESTRICTS[monthElement.ordinal()] == dayElement) {
       deLing = -20;
       deLingDesc = "月令克制";
     } else {
@@ -293,33 +679,26 @@ public class BaziServiceImpl implements BaziService {
     // 2. 得地 (Root in Hidden Stems)
     double deDi = 0;
     List<String> roots = new ArrayList<>();
-    @SuppressWarnings("unchecked")
-    List<Map<String, Object>> allPillars =
-        List.of(
-            (Map<String, Object>) fourPillars.get("year"),
-            (Map<String, Object>) fourPillars.get("month"),
-            (Map<String, Object>) fourPillars.get("day"),
-            (Map<String, Object>) fourPillars.get("hour"));
+    Pillar[] allPillars = {
+      fourPillars.getYear(), fourPillars.getMonth(), fourPillars.getDay(), fourPillars.getHour()
+    };
     String[] pillarNames = {"年支", "月支", "日支", "时支"};
 
-    for (int i = 0; i < allPillars.size(); i++) {
-      Map<String, Object> p = allPillars.get(i);
-      String zhi = extractZhiFromPillar(p);
-      List<String> hiddenStems = extractHiddenStemsFromPillar(p);
-      List<Double> weights = BaziDef.HIDDEN_STEM_WEIGHTS.getOrDefault(zhi, Collections.emptyList());
+    for (int i = 0; i < allPillars.length; i++) {
+      int branch = BaziDef.branchIndex(allPillars[i].getZhi());
+      if (branch < 0) continue;
+      int[] hiddenStems = BaziDef.HIDDEN_STEMS[branch];
+      double[] weights = BaziDef.HIDDEN_STEM_WEIGHT[branch];
 
-      for (int j = 0; j < hiddenStems.size(); j++) {
-        String stemChar = hiddenStems.get(j);
-        StemInfo stemInfo = BaziDef.STEMS_INFO.get(stemChar);
-        if (stemInfo == null) continue;
+      for (int j = 0; j < hiddenStems.length; j++) {
+        FiveElement stemElement = BaziDef.STEM_ELEMENT[hiddenStems[j]];
+        String stemChar = BaziDef.STEMS[hiddenStems[j]];
 
-        double weight = (j < weights.size()) ? weights.get(j) : 0.2;
-
-        if (stemInfo.getElement() == dayElement) {
-          deDi += weight * 15;
+        if (stemElement == dayElement) {
+          deDi += weights[j] * 15;
           roots.add(pillarNames[i] + "藏" + stemChar);
-        } else if (BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(dayElement) == stemInfo.getElement()) {
-          deDi += weight * 10;
+        } else if (BaziDef.GENERATED_BY[day] == stemElement) {
+          deDi += weights[j] * 10;
           roots.add(pillarNames[i] + "藏" + stemChar + "(印)");
         }
       }
@@ -329,29 +708,25 @@ public class BaziServiceImpl implements BaziService {
     // 3. 天干帮扶 (Heavenly Stems Help)
     double tianGanHelp = 0;
     List<String> helpers = new ArrayList<>();
-    @SuppressWarnings("unchecked")
-    List<Map<String, Object>> stemPillars =
-        List.of(
-            (Map<String, Object>) fourPillars.get("year"),
-            (Map<String, Object>) fourPillars.get("month"),
-            (Map<String, Object>) fourPillars.get("hour"));
+    Pillar[] stemPillars = {fourPillars.getYear(), fourPillars.getMonth(), fourPillars.getHour()};
     String[] stemNames = {"年干", "月干", "时干"};
 
-    for (int i = 0; i < stemPillars.size(); i++) {
-      String stemChar = extractGanFromPillar(stemPillars.get(i));
-      StemInfo stemInfo = BaziDef.STEMS_INFO.get(stemChar);
-      if (stemInfo == null) continue;
+    for (int i = 0; i < stemPillars.length; i++) {
+      String stemChar = stemPillars[i].getGan();
+      int stem = BaziDef.stemIndex(stemChar);
+      if (stem < 0) continue;
+      FiveElement stemElement = BaziDef.STEM_ELEMENT[stem];
 
-      if (stemInfo.getElement() == dayElement) {
+      if (stemElement == dayElement) {
         tianGanHelp += 8;
         helpers.add(stemNames[i] + stemChar + "比劫");
-      } else if (BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(dayElement) == stemInfo.getElement()) {
+      } else if (BaziDef.GENERATED_BY[day] == stemElement) {
         tianGanHelp += 6;
         helpers.add(stemNames[i] + stemChar + "印星");
-      } else if (BaziDef.FIVE_ELEMENTS_RESTRICTION.get(stemInfo.getElement()) == dayElement) {
+      } else if (BaziDef.RESTRICTS[stemElement.ordinal()] == dayElement) {
         tianGanHelp -= 5;
         helpers.add(stemNames[i] + stemChar + "官杀");
-      } else if (BaziDef.FIVE_ELEMENTS_GENERATION.get(dayElement) == stemInfo.getElement()) {
+      } else if (BaziDef.GENERATES[day] == stemElement) {
         tianGanHelp -= 3;
         helpers.add(stemNames[i] + stemChar + "食伤");
       }
@@ -377,150 +752,46 @@ public class BaziServiceImpl implements BaziService {
         .build();
   }
 
-  private FiveElementsAnalysis calculateFiveElementsFromMap(
-      Map<String, Object> fourPillars, DayMaster dayMaster) {
-    Map<String, Double> distribution = new HashMap<>();
-    Map<String, Integer> counts = new HashMap<>();
-
-    // Initialize
-    for (FiveElement e : FiveElement.values()) {
-      distribution.put(e.getCode(), 0.0);
-      counts.put(e.getCode(), 0);
-    }
-
-    @SuppressWarnings("unchecked")
-    Map<String, Object> monthPillar = (Map<String, Object>) fourPillars.get("month");
-    String monthZhi = extractZhiFromPillar(monthPillar);
-    FiveElement monthElement = BaziDef.MONTH_BRANCH_ELEMENT.get(monthZhi);
-    Map<String, String> elementStates = getElementStates(monthElement);
-
-    @SuppressWarnings("unchecked")
-    List<Map<String, Object>> allPillars =
-        List.of(
-            (Map<String, Object>) fourPillars.get("year"),
-            (Map<String, Object>) fourPillars.get("month"),
-            (Map<String, Object>) fourPillars.get("day"),
-            (Map<String, Object>) fourPillars.get("hour"));
-
-    // Stems
-    for (Map<String, Object> p : allPillars) {
-      String gan = extractGanFromPillar(p);
-      StemInfo info = BaziDef.STEMS_INFO.get(gan);
-      if (info != null) {
-        FiveElement e = info.getElement();
-        String state = elementStates.getOrDefault(e.getCode(), "si");
-        double stateWeight = BaziDef.STATE_WEIGHTS.getOrDefault(state, 0.5);
-        distribution.merge(
-            e.getCode(), 1.0 * stateWeight, Double::sum); // Base stem weight 1.0 * state
-        counts.merge(e.getCode(), 1, Integer::sum);
-      }
-    }
-
-    // Hidden Stems
-    for (Map<String, Object> p : allPillars) {
-      String zhi = extractZhiFromPillar(p);
-      List<String> hidden = extractHiddenStemsFromPillar(p);
-      List<Double> weights = BaziDef.HIDDEN_STEM_WEIGHTS.getOrDefault(zhi, Collections.emptyList());
-
-      for (int i = 0; i < hidden.size(); i++) {
-        String stem = hidden.get(i);
-        StemInfo info = BaziDef.STEMS_INFO.get(stem);
-        if (info == null) continue;
-
-        double weight = (i < weights.size()) ? weights.get(i) : 0.2;
-        String state = elementStates.getOrDefault(info.getElement().getCode(), "si");
-        double stateWeight = BaziDef.STATE_WEIGHTS.getOrDefault(state, 0.5);
-
-        distribution.merge(info.getElement().getCode(), weight * stateWeight, Double::sum);
-
-        // Only count Ben Qi (first one)
-        if (i == 0) {
-          counts.merge(info.getElement().getCode(), 1, Integer::sum);
-        }
-      }
-    }
-
-    // Find Strongest/Weakest
-    String strongest = "wood";
-    String weakest = "wood";
-    double maxVal = -1;
-    double minVal = 9999;
-
-    for (Map.Entry<String, Double> entry : distribution.entrySet()) {
-      if (entry.getValue() > maxVal) {
-        maxVal = entry.getValue();
-        strongest = entry.getKey();
-      }
-      if (entry.getValue() < minVal) {
-        minVal = entry.getValue();
-        weakest = entry.getKey();
-      }
-    }
-
-    Map<String, Object> favorableMap = calculateFavorableElements(dayMaster, distribution);
-
-    return FiveElementsAnalysis.builder()
-        .distribution(distribution)
-        .counts(counts)
-        .strongest(strongest)
-        .weakest(weakest)
-        .monthElement(monthElement.getCode())
-        .elementStates(elementStates)
-        .favorable((List<String>) favorableMap.get("favorable"))
-        .unfavorable((List<String>) favorableMap.get("unfavorable"))
-        .build();
-  }
-
-  private FiveElementsAnalysis calculateFiveElements(FourPillars pillars, DayMaster dayMaster) {
-    Map<String, Double> distribution = new HashMap<>();
-    Map<String, Integer> counts = new HashMap<>();
-
-    // Initialize
-    for (FiveElement e : FiveElement.values()) {
-      distribution.put(e.getCode(), 0.0);
-      counts.put(e.getCode(), 0);
-    }
+  /**
+   * 五行旺衰统计
+   *
+   * @param distribution 输出参数，按 FiveElement.ordinal() 写入五行分值，供格局判断复用
+   */
+  private FiveElementsAnalysis calculateFiveElements(
+      FourPillars pillars, DayMaster dayMaster, double[] distribution) {
+    int[] counts = new int[5];
 
-    String monthZhi = pillars.getMonth().getZhi();
-    FiveElement monthElement = BaziDef.MONTH_BRANCH_ELEMENT.get(monthZhi);
-    Map<String, String> elementStates = getElementStates(monthElement);
+    FiveElement monthElement =
+        BaziDef.BRANCH_ELEMENT[BaziDef.branchIndex(pillars.getMonth().getZhi())];
+    double[] stateWeights = BaziDef.STATE_WEIGHT[monthElement.ordinal()];
 
-    List<Pillar> allPillars =
-        List.of(pillars.getYear(), pillars.getMonth(), pillars.getDay(), pillars.getHour());
+    Pillar[] allPillars = {
+      pillars.getYear(), pillars.getMonth(), pillars.getDay(), pillars.getHour()
+    };
 
     // Stems
     for (Pillar p : allPillars) {
-      StemInfo info = BaziDef.STEMS_INFO.get(p.getGan());
-      if (info != null) {
-        FiveElement e = info.getElement();
-        String state = elementStates.getOrDefault(e.getCode(), "si");
-        double stateWeight = BaziDef.STATE_WEIGHTS.getOrDefault(state, 0.5);
-        distribution.merge(
-            e.getCode(), 1.0 * stateWeight, Double::sum); // Base stem weight 1.0 * state
-        counts.merge(e.getCode(), 1, Integer::sum);
-      }
+      int stem = BaziDef.stemIndex(p.getGan());
+      if (stem < 0) continue;
+      int e = BaziDef.STEM_ELEMENT[stem].ordinal();
+      distribution[e] += 1.0 * stateWeights[e]; // Base stem weight 1.0 * state
+      counts[e]++;
     }
 
     // Hidden Stems
     for (Pillar p : allPillars) {
-      List<String> hidden = p.getHiddenStems();
-      List<Double> weights =
-          BaziDef.HIDDEN_STEM_WEIGHTS.getOrDefault(p.getZhi(), Collections.emptyList());
+      int branch = BaziDef.branchIndex(p.getZhi());
+      if (branch < 0) continue;
+      int[] hidden = BaziDef.HIDDEN_STEMS[branch];
+      double[] weights = BaziDef.HIDDEN_STEM_WEIGHT[branch];
 
-      for (int i = 0; i < hidden.size(); i++) {
-        String stem = hidden.get(i);
-        StemInfo info = BaziDef.STEMS_INFO.get(stem);
-        if (info == null) continue;
-
-        double weight = (i < weights.size()) ? weights.get(i) : 0.2;
-        String state = elementStates.getOrDefault(info.getElement().getCode(), "si");
-        double stateWeight = BaziDef.STATE_WEIGHTS.getOrDefault(state, 0.5);
-
-        distribution.merge(info.getElement().getCode(), weight * stateWeight, Double::sum);
+      for (int i = 0; i < hidden.length; i++) {
+        int e = BaziDef.STEM_ELEMENT[hidden[i]].ordinal();
+        distribution[e] += weights[i] * stateWeights[e];
 
         // Only count Ben Qi (first one)
         if (i == 0) {
-          counts.merge(info.getElement().getCode(), 1, Integer::sum);
+          counts[e]++;
         }
       }
     }
@@ -531,108 +802,52 @@ public class BaziServiceImpl implements BaziService {
     double maxVal = -1;
     double minVal = 9999;
 
-    for (Map.Entry<String, Double> entry : distribution.entrySet()) {
-      if (entry.getValue() > maxVal) {
-        maxVal = entry.getValue();
-        strongest = entry.getKey();
+    Map<String, Double> distributionMap = new HashMap<>();
+    Map<String, Integer> countsMap = new HashMap<>();
+    for (FiveElement e : ELEMENT_ORDER) {
+      double value = distribution[e.ordinal()];
+      distributionMap.put(e.getCode(), value);
+      countsMap.put(e.getCode(), counts[e.ordinal()]);
+
+      if (value > maxVal) {
+        maxVal = value;
+        strongest = e.getCode();
       }
-      if (entry.getValue() < minVal) {
-        minVal = entry.getValue();
-        weakest = entry.getKey();
+      if (value < minVal) {
+        minVal = value;
+        weakest = e.getCode();
       }
     }
 
-    Map<String, Object> favorableMap = calculateFavorableElements(dayMaster, distribution);
+    List<String> favorable = new ArrayList<>();
+    List<String> unfavorable = new ArrayList<>();
+    calculateFavorableElements(dayMaster, distribution, favorable, unfavorable);
 
     return FiveElementsAnalysis.builder()
-        .distribution(distribution)
-        .counts(counts)
+        .distribution(distributionMap)
+        .counts(countsMap)
         .strongest(strongest)
         .weakest(weakest)
         .monthElement(monthElement.getCode())
-        .elementStates(elementStates)
-        .favorable((List<String>) favorableMap.get("favorable"))
-        .unfavorable((List<String>) favorableMap.get("unfavorable"))
+        .elementStates(ELEMENT_STATES.get(monthElement.ordinal()))
+        .favorable(favorable)
+        .unfavorable(unfavorable)
         .build();
   }
 
-  private Map<String, String> getElementStates(FiveElement monthElement) {
-    Map<String, String> states = new HashMap<>();
-
-    if (monthElement == null) return states;
-
-    // Wang
-    states.put(monthElement.getCode(), "wang");
-
-    // Xiang: Month generates Element
-    FiveElement generated = BaziDef.FIVE_ELEMENTS_GENERATION.get(monthElement);
-    if (generated != null) states.put(generated.getCode(), "xiang");
-
-    // Xiu: Element generates Month
-    FiveElement generator = BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(monthElement);
-    if (generator != null) states.put(generator.getCode(), "xiu");
-
-    // Qiu: Element restricts Month
-    // Find who restricts monthElement
-    for (Map.Entry<FiveElement, FiveElement> entry : BaziDef.FIVE_ELEMENTS_RESTRICTION.entrySet()) {
-      if (entry.getValue() == monthElement) {
-        states.put(entry.getKey().getCode(), "qiu");
-        break;
-      }
-    }
-
-    // Si: Month restricts Element
-    FiveElement restricted = BaziDef.FIVE_ELEMENTS_RESTRICTION.get(monthElement);
-    if (restricted != null) states.put(restricted.getCode(), "si");
-
-    return states;
-  }
-
-  private boolean generatesElement(FiveElement from, FiveElement to) {
-    return BaziDef.FIVE_ELEMENTS_GENERATION.get(from) == to;
-  }
-
-  private boolean restrictsElement(FiveElement from, FiveElement to) {
-    return BaziDef.FIVE_ELEMENTS_RESTRICTION.get(from) == to;
-  }
-
-  private String getTenGod(StemInfo dayStem, StemInfo otherStem) {
-    FiveElement dayEl = dayStem.getElement();
-    BaziDef.YinYang dayYY = dayStem.getYinYang();
-    FiveElement otherEl = otherStem.getElement();
-    BaziDef.YinYang otherYY = otherStem.getYinYang();
-
-    boolean sameYinYang = dayYY == otherYY;
-
-    if (dayEl == otherEl) return sameYinYang ? "比肩" : "劫财";
-    if (generatesElement(dayEl, otherEl)) return sameYinYang ? "食神" : "伤官";
-    if (restrictsElement(dayEl, otherEl)) return sameYinYang ? "偏财" : "正财";
-    if (restrictsElement(otherEl, dayEl)) return sameYinYang ? "七杀" : "正官";
-    if (generatesElement(otherEl, dayEl)) return sameYinYang ? "偏印" : "正印";
-
-    return null;
-  }
-
-  private Map<String, Object> calculateFavorableElements(
-      DayMaster dayMaster, Map<String, Double> distribution) {
-    StemInfo stemInfo = BaziDef.STEMS_INFO.get(dayMaster.getGan());
-    FiveElement dayElement = stemInfo.getElement();
-
-    List<String> favorable = new ArrayList<>();
-    List<String> unfavorable = new ArrayList<>();
+  private void calculateFavorableElements(
+      DayMaster dayMaster,
+      double[] distribution,
+      List<String> favorable,
+      List<String> unfavorable) {
+    FiveElement dayElement = BaziDef.STEM_ELEMENT[BaziDef.stemIndex(dayMaster.getGan())];
+    int day = dayElement.ordinal();
 
     // 基础关系
-    FiveElement yinElement = BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(dayElement); // 印
-    FiveElement shiShangElement = BaziDef.FIVE_ELEMENTS_GENERATION.get(dayElement); // 食伤
-    FiveElement caiElement = BaziDef.FIVE_ELEMENTS_RESTRICTION.get(dayElement); // 财
-
-    FiveElement guanShaElement = FiveElement.WOOD; // Default
-    for (Map.Entry<FiveElement, FiveElement> entry : BaziDef.FIVE_ELEMENTS_RESTRICTION.entrySet()) {
-      if (entry.getValue() == dayElement) {
-        guanShaElement = entry.getKey();
-        break;
-      }
-    }
+    FiveElement yinElement = BaziDef.GENERATED_BY[day]; // 印
+    FiveElement shiShangElement = BaziDef.GENERATES[day]; // 食伤
+    FiveElement caiElement = BaziDef.RESTRICTS[day]; // 财
+    FiveElement guanShaElement = BaziDef.RESTRICTED_BY[day]; // 官杀
 
     String strength = dayMaster.getStrength();
     if ("strong".equals(strength)) {
@@ -648,160 +863,92 @@ public class BaziServiceImpl implements BaziService {
       unfavorable.add(shiShangElement.getCode());
       unfavorable.add(caiElement.getCode());
     } else {
-      List<String> sorted = new ArrayList<>(distribution.keySet());
-      sorted.sort(Comparator.comparingDouble(distribution::get));
-      if (sorted.size() >= 2) {
-        favorable.add(sorted.get(0));
-        favorable.add(sorted.get(1));
-      }
-      if (sorted.size() >= 5) {
-        unfavorable.add(sorted.get(4));
-        unfavorable.add(sorted.get(3));
-      }
-    }
-
-    return Map.of("favorable", favorable, "unfavorable", unfavorable);
-  }
-
-  private BaziResult.TenGodsAnalysis calculateTenGodsFromMap(
-      Map<String, Object> fourPillars, String dayStemName) {
-    StemInfo dayStemInfo = BaziDef.STEMS_INFO.get(dayStemName);
-    Map<String, BaziResult.TenGodsAnalysis.TenGodInfo> godsMap = new HashMap<>();
-
-    @SuppressWarnings("unchecked")
-    List<Map.Entry<String, String>> positions =
-        List.of(
-            Map.entry(extractGanFromPillar((Map<String, Object>) fourPillars.get("year")), "年干"),
-            Map.entry(extractGanFromPillar((Map<String, Object>) fourPillars.get("month")), "月干"),
-            Map.entry(extractGanFromPillar((Map<String, Object>) fourPillars.get("hour")), "时干"));
-
-    for (Map.Entry<String, String> entry : positions) {
-      String stemName = entry.getKey();
-      String position = entry.getValue();
-      StemInfo stemInfo = BaziDef.STEMS_INFO.get(stemName);
-
-      if (stemInfo != null) {
-        String tenGod = getTenGod(dayStemInfo, stemInfo);
-        if (tenGod != null) {
-          godsMap.putIfAbsent(
-              tenGod,
-              BaziResult.TenGodsAnalysis.TenGodInfo.builder()
-                  .name(tenGod)
-                  .count(0)
-                  .positions(new ArrayList<>())
-                  .build());
-
-          BaziResult.TenGodsAnalysis.TenGodInfo info = godsMap.get(tenGod);
-          info.setCount(info.getCount() + 1);
-          info.getPositions().add(position);
+      // 按分值升序做稳定插入排序，并列时保持 ELEMENT_ORDER 顺序
+      FiveElement[] sorted = ELEMENT_ORDER.clone();
+      for (int i = 1; i < sorted.length; i++) {
+        FiveElement key = sorted[i];
+        int j = i - 1;
+        while (j >= 0 && distribution[sorted[j].ordinal()] > distribution[key.ordinal()]) {
+          sorted[j + 1] = sorted[j];
+          j--;
         }
+        sorted[j + 1] = key;
       }
+      favorable.add(sorted[0].getCode());
+      favorable.add(sorted[1].getCode());
+      unfavorable.add(sorted[4].getCode());
+      unfavorable.add(sorted[3].getCode());
     }
-
-    return BaziResult.TenGodsAnalysis.builder().gods(godsMap).build();
   }
 
   private BaziResult.TenGodsAnalysis calculateTenGods(FourPillars fourPillars, String dayStemName) {
-    StemInfo dayStemInfo = BaziDef.STEMS_INFO.get(dayStemName);
+    int dayStem = BaziDef.stemIndex(dayStemName);
     Map<String, BaziResult.TenGodsAnalysis.TenGodInfo> godsMap = new HashMap<>();
 
-    List<Map.Entry<String, String>> positions =
-        List.of(
-            Map.entry(fourPillars.getYear().getGan(), "年干"),
-            Map.entry(fourPillars.getMonth().getGan(), "月干"),
-            Map.entry(fourPillars.getHour().getGan(), "时干"));
-
-    for (Map.Entry<String, String> entry : positions) {
-      String stemName = entry.getKey();
-      String position = entry.getValue();
-      StemInfo stemInfo = BaziDef.STEMS_INFO.get(stemName);
-
-      if (stemInfo != null) {
-        String tenGod = getTenGod(dayStemInfo, stemInfo);
-        if (tenGod != null) {
-          godsMap.putIfAbsent(
-              tenGod,
-              BaziResult.TenGodsAnalysis.TenGodInfo.builder()
-                  .name(tenGod)
-                  .count(0)
-                  .positions(new ArrayList<>())
-                  .build());
+    Pillar[] stemPillars = {fourPillars.getYear(), fourPillars.getMonth(), fourPillars.getHour()};
+    String[] positions = {"年干", "月干", "时干"};
 
-          BaziResult.TenGodsAnalysis.TenGodInfo info = godsMap.get(tenGod);
-          info.setCount(info.getCount() + 1);
-          info.getPositions().add(position);
-        }
-      }
+    for (int i = 0; i < stemPillars.length; i++) {
+      int stem = BaziDef.stemIndex(stemPillars[i].getGan());
+      if (stem < 0) continue;
+
+      String tenGod = BaziDef.tenGod(dayStem, stem);
+      godsMap.putIfAbsent(
+          tenGod,
+          BaziResult.TenGodsAnalysis.TenGodInfo.builder()
+              .name(tenGod)
+              .count(0)
+              .positions(new ArrayList<>())
+              .build());
+
+      BaziResult.TenGodsAnalysis.TenGodInfo info = godsMap.get(tenGod);
+      info.setCount(info.getCount() + 1);
+      info.getPositions().add(positions[i]);
     }
 
     return BaziResult.TenGodsAnalysis.builder().gods(godsMap).build();
   }
 
   private List<String> getDayMasterCharacteristics(String dayStemName) {
-    Map<String, List<String>> characteristics =
-        Map.of(
-            "甲", List.of("积极进取", "有领导力", "刚直不阿", "富有创造力"),
-            "乙", List.of("温和柔顺", "适应力强", "善于协调", "注重细节"),
-            "丙", List.of("热情开朗", "光明磊落", "富有激情", "善于表达"),
-            "丁", List.of("细腻敏感", "文雅有礼", "富有艺术气质", "善解人意"),
-            "戊", List.of("稳重踏实", "诚实守信", "包容大度", "责任心强"),
-            "己", List.of("温和谦逊", "细心周到", "善于理财", "注重实际"),
-            "庚", List.of("刚毅果断", "正直坦率", "意志坚定", "富有正义感"),
-            "辛", List.of("细腻敏锐", "追求完美", "善于分析", "注重品质"),
-            "壬", List.of("聪明灵活", "善于变通", "富有智慧", "适应力强"),
-            "癸", List.of("温柔体贴", "富有想象力", "善于思考", "内敛含蓄"));
-    return characteristics.getOrDefault(dayStemName, List.of("性格特征待分析"));
+    int stem = BaziDef.stemIndex(dayStemName);
+    return stem < 0 ? DEFAULT_CHARACTERISTICS : DAY_MASTER_CHARACTERISTICS.get(stem);
   }
 
-  private BaziResult.PatternInfo calculatePatternFromMap(
-      Map<String, Object> fourPillars, DayMaster dayMaster, FiveElementsAnalysis fiveElements) {
-    @SuppressWarnings("unchecked")
-    Map<String, Object> dayPillar = (Map<String, Object>) fourPillars.get("day");
-    @SuppressWarnings("unchecked")
-    Map<String, Object> monthPillar = (Map<String, Object>) fourPillars.get("month");
-
-    String dayStemName = extractGanFromPillar(dayPillar);
-    StemInfo dayStemInfo = BaziDef.STEMS_INFO.get(dayStemName);
-    FiveElement dayElement = dayStemInfo.getElement();
-
-    String monthBranch = extractZhiFromPillar(monthPillar);
-    List<String> monthHiddenStems = extractHiddenStemsFromPillar(monthPillar);
-
-    @SuppressWarnings("unchecked")
-    List<String> tianGan =
-        List.of(
-            extractGanFromPillar((Map<String, Object>) fourPillars.get("year")),
-            extractGanFromPillar((Map<String, Object>) fourPillars.get("month")),
-            extractGanFromPillar((Map<String, Object>) fourPillars.get("hour")));
-
-    // Lu and Ren maps
-    Map<String, String> luMap =
-        Map.of(
-            "甲", "寅", "乙", "卯", "丙", "巳", "丁", "午", "戊", "巳", "己", "午", "庚", "申", "辛", "酉", "壬",
-            "亥", "癸", "子");
-    Map<String, String> renMap =
-        Map.of(
-            "甲", "卯", "乙", "寅", "丙", "午", "丁", "巳", "戊", "午", "己", "巳", "庚", "酉", "辛", "申", "壬",
-            "子", "癸", "亥");
+  /**
+   * 格局判断
+   *
+   * @param distribution 五行分值 (按 FiveElement.ordinal()，来自 calculateFiveElements)
+   */
+  private BaziResult.PatternInfo calculatePattern(
+      FourPillars fourPillars, DayMaster dayMaster, double[] distribution) {
+    int dayStem = BaziDef.stemIndex(fourPillars.getDay().getGan());
+    FiveElement dayElement = BaziDef.STEM_ELEMENT[dayStem];
+    int day = dayElement.ordinal();
+
+    int monthBranch = BaziDef.branchIndex(fourPillars.getMonth().getZhi());
+    int[] monthHiddenStems = BaziDef.HIDDEN_STEMS[monthBranch];
+    int yearStem = BaziDef.stemIndex(fourPillars.getYear().getGan());
+    int monthStem = BaziDef.stemIndex(fourPillars.getMonth().getGan());
+    int hourStem = BaziDef.stemIndex(fourPillars.getHour().getGan());
 
     // 1. 建禄格
-    if (monthBranch.equals(luMap.get(dayStemName))) {
+    if (monthBranch == LU_BRANCH[dayStem]) {
       return BaziResult.PatternInfo.builder()
           .name("建禄格")
           .category("normal")
           .description("月支为日主之禄，主身旺有根，宜见财官食伤")
-          .monthStem(monthHiddenStems.isEmpty() ? null : monthHiddenStems.get(0))
+          .monthStem(BaziDef.STEMS[monthHiddenStems[0]])
           .isTransparent(false)
           .build();
     }
 
     // 2. 羊刃格
-    if (monthBranch.equals(renMap.get(dayStemName))) {
+    if (monthBranch == REN_BRANCH[dayStem]) {
       return BaziResult.PatternInfo.builder()
           .name("羊刃格")
           .category("normal")
           .description("月支为日主之刃，主身强刚烈，宜见官杀制刃")
-          .monthStem(monthHiddenStems.isEmpty() ? null : monthHiddenStems.get(0))
+          .monthStem(BaziDef.STEMS[monthHiddenStems[0]])
           .isTransparent(false)
           .build();
     }
@@ -811,260 +958,68 @@ public class BaziServiceImpl implements BaziService {
 
     // 从格 (Score < 20)
     if (score < 20) {
-      Map<String, Double> dist = fiveElements.getDistribution();
       // Find strongest non-day-element
-      String strongestElStr = dayElement.getCode();
+      FiveElement strongestEl = dayElement;
       double strongestVal = 0;
 
       for (FiveElement el : FiveElement.values()) {
-        if (el != dayElement && dist.getOrDefault(el.getCode(), 0.0) > strongestVal) {
-          strongestVal = dist.get(el.getCode());
-          strongestElStr = el.getCode();
+        if (el != dayElement && distribution[el.ordinal()] > strongestVal) {
+          strongestVal = distribution[el.ordinal()];
+          strongestEl = el;
         }
       }
 
-      FiveElement strongestEl = FiveElement.fromCode(strongestElStr);
-      if (strongestEl != null) {
-        if (restrictsElement(dayElement, strongestEl)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从财格")
-              .category("special")
-              .description("日主极弱而财星极旺，弃命从财，宜顺从财势")
-              .build();
-        }
-        if (restrictsElement(strongestEl, dayElement)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从官格")
-              .category("special")
-              .description("日主极弱而官杀极旺，弃命从官，宜顺从官势")
-              .build();
-        }
-        if (generatesElement(dayElement, strongestEl)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从儿格")
-              .category("special")
-              .description("日主极弱而食伤极旺，弃命从儿，宜顺从食伤之势")
-              .build();
-        }
+      if (BaziDef.RESTRICTS[day] == strongestEl) {
+        return BaziResult.PatternInfo.builder()
+            .name("从财格")
+            .category("special")
+            .description("日主极弱而财星极旺，弃命从财，宜顺从财势")
+            .build();
+      }
+      if (BaziDef.RESTRICTS[strongestEl.ordinal()] == dayElement) {
+        return BaziResult.PatternInfo.builder()
+            .name("从官格")
+            .category("special")
+            .description("日主极弱而官杀极旺，弃命从官，宜顺从官势")
+            .build();
+      }
+      if (BaziDef.GENERATES[day] == strongestEl) {
+        return BaziResult.PatternInfo.builder()
+            .name("从儿格")
+            .category("special")
+            .description("日主极弱而食伤极旺，弃命从儿，宜顺从食伤之势")
+            .build();
       }
     }
 
     // 专旺格 (Score > 75)
     if (score > 75) {
-      Map<FiveElement, String> nameMap =
-          Map.of(
-              FiveElement.WOOD, "曲直格",
-              FiveElement.FIRE, "炎上格",
-              FiveElement.EARTH, "稼穑格",
-              FiveElement.METAL, "从革格",
-              FiveElement.WATER, "润下格");
-      Map<FiveElement, String> descMap =
-          Map.of(
-              FiveElement.WOOD, "木气专旺成局，主仁慈正直，宜水木运",
-              FiveElement.FIRE, "火气炎上成局，主热情礼仪，宜木火运",
-              FiveElement.EARTH, "土气稼穑成局，主忠厚信实，宜火土运",
-              FiveElement.METAL, "金气从革成局，主刚毅果决，宜土金运",
-              FiveElement.WATER, "水气润下成局，主聪慧灵活，宜金水运");
-
       return BaziResult.PatternInfo.builder()
-          .name(nameMap.get(dayElement))
+          .name(ZHUAN_WANG_NAMES[day])
           .category("special")
-          .description(descMap.get(dayElement))
+          .description(ZHUAN_WANG_DESCS[day])
           .build();
     }
 
     // 4. 正格
-    if (!monthHiddenStems.isEmpty()) {
-      for (String hiddenStem : monthHiddenStems) {
-        StemInfo hiddenStemInfo = BaziDef.STEMS_INFO.get(hiddenStem);
-        String tenGod = getTenGod(dayStemInfo, hiddenStemInfo);
-
-        if ("比肩".equals(tenGod) || "劫财".equals(tenGod)) continue;
-
-        boolean isTransparent = tianGan.contains(hiddenStem);
-
-        Map<String, Map.Entry<String, String>> patternMap =
-            Map.of(
-                "正官", Map.entry("正官格", "月令透正官，主贵气端正，宜见财印相生"),
-                "七杀", Map.entry("七杀格", "月令透七杀，主威严果决，宜见食伤制杀或印化杀"),
-                "正财", Map.entry("正财格", "月令透正财，主务实勤俭，宜见官杀护财"),
-                "偏财", Map.entry("偏财格", "月令透偏财，主豪爽大方，宜见官杀护财"),
-                "正印", Map.entry("正印格", "月令透正印，主聪慧仁厚，宜见官杀生印"),
-                "偏印", Map.entry("偏印格", "月令透偏印，主机敏多思，宜见财星制印"),
-                "食神", Map.entry("食神格", "月令透食神，主温和福厚，宜见财星泄秀"),
-                "伤官", Map.entry("伤官格", "月令透伤官，主聪明傲气，宜见财星或印星"));
-
-        if (tenGod != null && patternMap.containsKey(tenGod)) {
-          Map.Entry<String, String> info = patternMap.get(tenGod);
-          return BaziResult.PatternInfo.builder()
-              .name(info.getKey())
-              .category("normal")
-              .description(info.getValue())
-              .monthStem(hiddenStem)
-              .monthStemTenGod(tenGod)
-              .isTransparent(isTransparent)
-              .build();
-        }
-      }
-    }
+    for (int hiddenStem : monthHiddenStems) {
+      int tenGod = BaziDef.TEN_GOD_INDEX[dayStem][hiddenStem];
+      String[] info = NORMAL_PATTERNS[tenGod];
+      if (info == null) continue; // 比肩、劫财
 
-    return BaziResult.PatternInfo.builder()
-        .name("杂格")
-        .category("normal")
-        .description("月令无明显成格条件，需综合分析八字整体格局")
-        .build();
-  }
+      boolean isTransparent =
+          hiddenStem == yearStem || hiddenStem == monthStem || hiddenStem == hourStem;
 
-  private BaziResult.PatternInfo calculatePattern(
-      FourPillars fourPillars, DayMaster dayMaster, FiveElementsAnalysis fiveElements) {
-    String dayStemName = fourPillars.getDay().getGan();
-    // StemInfo dayStemInfo = BaziDef.STEMS_INFO.get(dayStemName); // Not used directly, but
-    // dayMaster score is
-    StemInfo dayStemInfo = BaziDef.STEMS_INFO.get(dayStemName);
-    FiveElement dayElement = dayStemInfo.getElement();
-
-    String monthBranch = fourPillars.getMonth().getZhi();
-    List<String> monthHiddenStems = fourPillars.getMonth().getHiddenStems();
-    List<String> tianGan =
-        List.of(
-            fourPillars.getYear().getGan(),
-            fourPillars.getMonth().getGan(),
-            fourPillars.getHour().getGan());
-
-    // Lu and Ren maps
-    Map<String, String> luMap =
-        Map.of(
-            "甲", "寅", "乙", "卯", "丙", "巳", "丁", "午", "戊", "巳", "己", "午", "庚", "申", "辛", "酉", "壬",
-            "亥", "癸", "子");
-    Map<String, String> renMap =
-        Map.of(
-            "甲", "卯", "乙", "寅", "丙", "午", "丁", "巳", "戊", "午", "己", "巳", "庚", "酉", "辛", "申", "壬",
-            "子", "癸", "亥");
-
-    // 1. 建禄格
-    if (monthBranch.equals(luMap.get(dayStemName))) {
       return BaziResult.PatternInfo.builder()
-          .name("建禄格")
+          .name(info[0])
           .category("normal")
-          .description("月支为日主之禄，主身旺有根，宜见财官食伤")
-          .monthStem(monthHiddenStems.isEmpty() ? null : monthHiddenStems.get(0))
-          .isTransparent(false)
+          .description(info[1])
+          .monthStem(BaziDef.STEMS[hiddenStem])
+          .monthStemTenGod(BaziDef.TEN_GODS.get(tenGod))
+          .isTransparent(isTransparent)
           .build();
     }
 
-    // 2. 羊刃格
-    if (monthBranch.equals(renMap.get(dayStemName))) {
-      return BaziResult.PatternInfo.builder()
-          .name("羊刃格")
-          .category("normal")
-          .description("月支为日主之刃，主身强刚烈，宜见官杀制刃")
-          .monthStem(monthHiddenStems.isEmpty() ? null : monthHiddenStems.get(0))
-          .isTransparent(false)
-          .build();
-    }
-
-    // 3. 特殊格局
-    double score = dayMaster.getAnalysis() != null ? dayMaster.getAnalysis().getTotalScore() : 50.0;
-
-    // 从格 (Score < 20)
-    if (score < 20) {
-      Map<String, Double> dist = fiveElements.getDistribution();
-      // Find strongest non-day-element
-      String strongestElStr = dayElement.getCode();
-      double strongestVal = 0;
-
-      for (FiveElement el : FiveElement.values()) {
-        if (el != dayElement && dist.getOrDefault(el.getCode(), 0.0) > strongestVal) {
-          strongestVal = dist.get(el.getCode());
-          strongestElStr = el.getCode();
-        }
-      }
-
-      FiveElement strongestEl = FiveElement.fromCode(strongestElStr);
-      if (strongestEl != null) {
-        if (restrictsElement(dayElement, strongestEl)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从财格")
-              .category("special")
-              .description("日主极弱而财星极旺，弃命从财，宜顺从财势")
-              .build();
-        }
-        if (restrictsElement(strongestEl, dayElement)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从官格")
-              .category("special")
-              .description("日主极弱而官杀极旺，弃命从官，宜顺从官势")
-              .build();
-        }
-        if (generatesElement(dayElement, strongestEl)) {
-          return BaziResult.PatternInfo.builder()
-              .name("从儿格")
-              .category("special")
-              .description("日主极弱而食伤极旺，弃命从儿，宜顺从食伤之势")
-              .build();
-        }
-      }
-    }
-
-    // 专旺格 (Score > 75)
-    if (score > 75) {
-      Map<FiveElement, String> nameMap =
-          Map.of(
-              FiveElement.WOOD, "曲直格",
-              FiveElement.FIRE, "炎上格",
-              FiveElement.EARTH, "稼穑格",
-              FiveElement.METAL, "从革格",
-              FiveElement.WATER, "润下格");
-      Map<FiveElement, String> descMap =
-          Map.of(
-              FiveElement.WOOD, "木气专旺成局，主仁慈正直，宜水木运",
-              FiveElement.FIRE, "火气炎上成局，主热情礼仪，宜木火运",
-              FiveElement.EARTH, "土气稼穑成局，主忠厚信实，宜火土运",
-              FiveElement.METAL, "金气从革成局，主刚毅果决，宜土金运",
-              FiveElement.WATER, "水气润下成局，主聪慧灵活，宜金水运");
-
-      return BaziResult.PatternInfo.builder()
-          .name(nameMap.get(dayElement))
-          .category("special")
-          .description(descMap.get(dayElement))
-          .build();
-    }
-
-    // 4. 正格
-    if (!monthHiddenStems.isEmpty()) {
-      for (String hiddenStem : monthHiddenStems) {
-        StemInfo hiddenStemInfo = BaziDef.STEMS_INFO.get(hiddenStem);
-        String tenGod = getTenGod(dayStemInfo, hiddenStemInfo);
-
-        if ("比肩".equals(tenGod) || "劫财".equals(tenGod)) continue;
-
-        boolean isTransparent = tianGan.contains(hiddenStem);
-
-        Map<String, Map.Entry<String, String>> patternMap =
-            Map.of(
-                "正官", Map.entry("正官格", "月令透正官，主贵气端正，宜见财印相生"),
-                "七杀", Map.entry("七杀格", "月令透七杀，主威严果决，宜见食伤制杀或印化杀"),
-                "正财", Map.entry("正财格", "月令透正财，主务实勤俭，宜见官杀护财"),
-                "偏财", Map.entry("偏财格", "月令透偏财，主豪爽大方，宜见官杀护财"),
-                "正印", Map.entry("正印格", "月令透正印，主聪慧仁厚，宜见官杀生印"),
-                "偏印", Map.entry("偏印格", "月令透偏印，主机敏多思，宜见财星制印"),
-                "食神", Map.entry("食神格", "月令透食神，主温和福厚，宜见财星泄秀"),
-                "伤官", Map.entry("伤官格", "月令透伤官，主聪明傲气，宜见财星或印星"));
-
-        if (tenGod != null && patternMap.containsKey(tenGod)) {
-          Map.Entry<String, String> info = patternMap.get(tenGod);
-          return BaziResult.PatternInfo.builder()
-              .name(info.getKey())
-              .category("normal")
-              .description(info.getValue())
-              .monthStem(hiddenStem)
-              .monthStemTenGod(tenGod)
-              .isTransparent(isTransparent)
-              .build();
-        }
-      }
-    }
-
     return BaziResult.PatternInfo.builder()
         .name("杂格")
         .category("normal")
@@ -1072,102 +1027,59 @@ public class BaziServiceImpl implements BaziService {
         .build();
   }
 
-  private Solar getTrueSolarTime(
-      int year, int month, int day, int hour, int minute, double longitude) {
-    Calendar cal = Calendar.getInstance();
-    cal.set(year, month - 1, day);
-    int dayOfYear = cal.get(Calendar.DAY_OF_YEAR);
-
-    double B = (2 * Math.PI * (dayOfYear - 81)) / 365.0;
-    double eot = 9.87 * Math.sin(2 * B) - 7.53 * Math.cos(B) - 1.5 * Math.sin(B);
-
-    double longitudeCorrection = (longitude - 120.0) * 4.0;
-    double totalMinutes = hour * 60 + minute + longitudeCorrection + eot;
-
-    int dayOffset = 0;
-    if (totalMinutes < 0) {
-      totalMinutes += 24 * 60;
-      dayOffset = -1;
-    } else if (totalMinutes >= 24 * 60) {
-      totalMinutes -= 24 * 60;
-      dayOffset = 1;
-    }
-
-    int newHour = (int) (totalMinutes / 60);
-    int newMinute = (int) Math.round(totalMinutes % 60);
-
-    cal.set(year, month - 1, day, newHour, newMinute, 0);
-    cal.add(Calendar.DAY_OF_MONTH, dayOffset);
-
-    return Solar.fromYmdHms(
-        cal.get(Calendar.YEAR),
-        cal.get(Calendar.MONTH) + 1,
-        cal.get(Calendar.DAY_OF_MONTH),
-        cal.get(Calendar.HOUR_OF_DAY),
-        cal.get(Calendar.MINUTE),
-        0);
-  }
-
-  private YunInfo calculateYun(Yun yun) {
+  /**
+   * 大运及其流年，附带与原局的干支关系
+   *
+   * @param forward 大运方向 (顺排为 true)
+   * @param natal 原局四柱六十甲子序号，为空时只算大运骨架 (不含流年与干支关系)
+   */
+  private YunInfo calculateYun(Yun yun, boolean forward, int[] natal) {
     List<BaziResult.DaYun> daYunList = new ArrayList<>();
     DaYun[] bigYunArray = yun.getDaYun(); // getDaYun() returns array, not List
 
-    // 获取当前年份（用于只计算相关的流年）
-    int currentYear = java.time.Year.now().getValue();
-
     for (DaYun dy : bigYunArray) {
       // 拆分干支
       String ganZhi = dy.getGanZhi();
       String gan = ganZhi.length() >= 1 ? ganZhi.substring(0, 1) : "";
       String zhi = ganZhi.length() >= 2 ? ganZhi.substring(1, 2) : "";
 
-      // 只为当前大运计算流年列表（优化性能）
-      List<BaziResult.LiuNian> liuNianList = new ArrayList<>();
-      int startYear = dy.getStartYear();
-      int startAge = dy.getStartAge();
-      int endYear = dy.getEndYear();
-
-      // 只计算当前大运范围内的流年（startYear到endYear之间）
-      // 这样可以让前端获取到完整的大运内流年数据，同时控制数据量
-      // lunar-java库支持的年份范围：1901-2100
-      final int MIN_YEAR = 1901;
-      final int MAX_YEAR = 2100;
-
-      // 为该大运内的每一年生成流年数据
-      for (int year = startYear; year <= endYear; year++) {
-        // 跳过超出支持范围的年份
-        if (year < MIN_YEAR || year > MAX_YEAR) {
-          log.debug("跳过不支持的年份: {}", year);
-          continue;
-        }
-
-        int age = startAge + (year - startYear);
-
-        // 使用lunar-java库计算流年干支
-        // 使用7月1日(年中)来确保一定过了立春,获取该年正确的干支
-        // 立春通常在2月3-5日,使用7月1日可以100%确保已经过了立春
-        try {
-          Solar solar = Solar.fromYmd(year, 7, 1);
-          Lunar lunar = solar.getLunar();
-          String yearGanZhi = lunar.getYearInGanZhiExact(); // 精确年干支
-          String yearGan = yearGanZhi.length() >= 1 ? yearGanZhi.substring(0, 1) : "";
-          String yearZhi = yearGanZhi.length() >= 2 ? yearGanZhi.substring(1, 2) : "";
-
-          // 调试日志: 输出前几年的结果用于验证
-          if (year >= 2023 && year <= 2027) {
-            log.info("流年计算: {}年 = {}", year, yearGanZhi);
+      List<BaziResult.LiuNian> liuNianList = null;
+      List<Relation> relations = null;
+      if (natal != null) {
+        // 原局 + 大运 + 流年，流年位逐年替换 (起运前无大运干支，大运位为 -1)
+        int[] positions = Arrays.copyOf(natal, 6);
+        positions[4] = RelationEngine.jiaZi(ganZhi);
+        relations =
+            RelationEngine.analyze(RelationEngine.WITH_DA_YUN, Arrays.copyOf(positions, 5), 4);
+
+        // 只为当前大运计算流年列表（优化性能）
+        liuNianList = new ArrayList<>();
+        int startYear = dy.getStartYear();
+        int startAge = dy.getStartAge();
+        int endYear = dy.getEndYear();
+
+        // 只计算当前大运范围内的流年（startYear到endYear之间）
+        // 这样可以让前端获取到完整的大运内流年数据，同时控制数据量
+        // 流年干支直接查预计算表 (GanZhiTable，覆盖 lunar-java 支持的 1901-2100 年)
+        for (int year = startYear; year <= endYear; year++) {
+          // 跳过超出支持范围的年份
+          if (!GanZhiTable.isSupported(year)) {
+            log.debug("跳过不支持的年份: {}", year);
+            continue;
           }
 
+          int age = startAge + (year - startYear);
+          positions[5] = Math.floorMod(year - 4, 60);
+
           liuNianList.add(
               BaziResult.LiuNian.builder()
                   .year(year)
                   .age(age)
-                  .ganZhi(yearGanZhi)
-                  .gan(yearGan)
-                  .zhi(yearZhi)
+                  .ganZhi(GanZhiTable.yearGanZhi(year))
+                  .gan(GanZhiTable.yearGan(year))
+                  .zhi(GanZhiTable.yearZhi(year))
+                  .relations(RelationEngine.analyze(RelationEngine.WITH_LIU_NIAN, positions, 5))
                   .build());
-        } catch (Exception e) {
-          log.warn("计算流年失败 year={}: {}", year, e.getMessage());
         }
       }
 
@@ -1182,106 +1094,92 @@ public class BaziServiceImpl implements BaziService {
               .startYear(dy.getStartYear())
               .endYear(dy.getEndYear())
               .liuNian(liuNianList)
+              .relations(relations)
               .build());
     }
 
-    // Note: Yun in lunar 1.7.7 may not have getStartAge() and isForward() methods
-    // Using default values for now
+    // Note: Yun in lunar 1.7.7 may not have getStartAge(), start age is taken from the first DaYun
     return YunInfo.builder()
         .startAge(bigYunArray.length > 0 ? bigYunArray[0].getStartAge() : 0)
-        .forward(true) // Default to true
+        .forward(forward)
         .daYunList(daYunList)
         .build();
   }
 
-  /**
-   * 计算神煞信息（完整版：年月日时四柱神煞）
-   *
-   * @param lunar 农历对象
-   * @return ShenShaInfo 神煞信息
-   */
-  private ShenShaInfo calculateShenSha(Lunar lunar) {
-    // 使用 lunar-java 的神煞 API
-    // 注意：lunar-java 可能没有 ShenSha 类，使用反射安全调用
-
-    List<String> yearShenSha = getShenShaByReflection(lunar, "getYearShenSha");
-    List<String> monthShenSha = getShenShaByReflection(lunar, "getMonthShenSha");
-    List<String> dayShenSha = getShenShaByReflection(lunar, "getDayShenSha");
-    List<String> hourShenSha = getShenShaByReflection(lunar, "getTimeShenSha");
-
-    return ShenShaInfo.builder()
-        .year(yearShenSha)
-        .month(monthShenSha)
-        .day(dayShenSha)
-        .hour(hourShenSha)
-        .build();
-  }
+  @Override
+  public List<LiuNianDTO> calculateLiuNian(
+      FourPillarsDTO natal, YunInfoDTO yun, int fromYear, int toYear, boolean withLiuYue) {
+    List<LiuNianDTO> result = new ArrayList<>();
+    if (yun == null || yun.getDaYunList() == null) {
+      return result;
+    }
 
-  /**
-   * 通过反射获取神煞列表
-   *
-   * @param lunar Lunar 对象
-   * @param methodName 方法名
-   * @return 神煞名称列表
-   */
-  private List<String> getShenShaByReflection(Lunar lunar, String methodName) {
-    List<String> result = new ArrayList<>();
-    try {
-      Object shenShaResult = lunar.getClass().getMethod(methodName).invoke(lunar);
-      if (shenShaResult instanceof java.util.List) {
-        java.util.List<?> shenShaList = (java.util.List<?>) shenShaResult;
-        for (Object obj : shenShaList) {
-          try {
-            // 尝试调用 getName() 方法
-            String name = (String) obj.getClass().getMethod("getName").invoke(obj);
-            if (name != null && !name.isEmpty()) {
-              result.add(name);
-            }
-          } catch (Exception e) {
-            // 如果失败，直接使用 toString()
-            result.add(obj.toString());
-          }
-        }
+    // 原局 + 大运 + 流年，大运位随大运推进替换
+    int[] positions = natal != null ? Arrays.copyOf(RelationEngine.natal(natal), 6) : null;
+
+    // 大运按年份升序排列，流年与大运同步向后推进
+    List<DaYunDTO> daYunList = yun.getDaYunList();
+    int daYunIndex = 0;
+    int lastYear = Math.min(toYear, GanZhiTable.MAX_YEAR);
+    for (int year = Math.max(fromYear, GanZhiTable.MIN_YEAR); year <= lastYear; year++) {
+      while (daYunIndex < daYunList.size() && daYunList.get(daYunIndex).getEndYear() < year) {
+        daYunIndex++;
       }
-    } catch (Exception e) {
-      log.debug("获取神煞失败 [{}]: {}", methodName, e.getMessage());
+      if (daYunIndex == daYunList.size()) {
+        break;
+      }
+      DaYunDTO daYun = daYunList.get(daYunIndex);
+      if (daYun.getStartYear() > year) {
+        continue;
+      }
+      List<RelationDTO> relations = null;
+      if (positions != null) {
+        positions[4] = RelationEngine.jiaZi(daYun.getGanZhi());
+        positions[5] = Math.floorMod(year - 4, 60);
+        relations =
+            baziMapper.mapRelations(
+                RelationEngine.analyze(RelationEngine.WITH_LIU_NIAN, positions, 5));
+      }
+
+      result.add(
+          LiuNianDTO.builder()
+              .year(year)
+              .age(daYun.getStartAge() + (year - daYun.getStartYear()))
+              .ganZhi(GanZhiTable.yearGanZhi(year))
+              .gan(GanZhiTable.yearGan(year))
+              .zhi(GanZhiTable.yearZhi(year))
+              .liuYue(withLiuYue ? calculateLiuYue(year) : null)
+              .relations(relations)
+              .build());
     }
     return result;
   }
 
-  /** 将十神分析数据转换为前端期望的四柱十神格式 */
-  private Map<String, String> convertTenGodsToShiShen(TenGodsAnalysis tenGods) {
-    Map<String, String> result = new HashMap<>();
-
-    // 遍历所有十神
-    if (tenGods != null && tenGods.getGods() != null) {
-      tenGods
-          .getGods()
-          .forEach(
-              (godName, info) -> {
-                if (info != null && info.getPositions() != null) {
-                  for (String position : info.getPositions()) {
-                    // 将 "年干" -> "yearGan", "月干" -> "monthGan" 等转换
-                    String key =
-                        position
-                            .replace("年干", "yearGan")
-                            .replace("月干", "monthGan")
-                            .replace("时干", "hourGan")
-                            .replace("年支", "yearZhi")
-                            .replace("月支", "monthZhi")
-                            .replace("日支", "dayZhi")
-                            .replace("时支", "hourZhi");
-                    result.put(key, godName);
-                  }
-                }
-              });
+  /** 流月: 以十二节交节时刻为界，月干按五虎遁由流年天干起 */
+  private static List<LiuYueDTO> calculateLiuYue(int year) {
+    long[] jieMinutes = FourPillarsEngine.jieMinutes(year);
+    int yearJiaZi = Math.floorMod(year - 4, 60);
+    List<LiuYueDTO> liuYue = new ArrayList<>(12);
+    for (int order = 0; order < 12; order++) {
+      int jiaZi = FourPillarsEngine.monthJiaZi(yearJiaZi, order);
+      liuYue.add(
+          LiuYueDTO.builder()
+              .month(order + 1)
+              .jieQi(FourPillarsEngine.JIE_NAMES.get(order))
+              .startTime(formatMinute(jieMinutes[order]))
+              .ganZhi(BaziDef.JIA_ZI[jiaZi])
+              .gan(BaziDef.STEMS[jiaZi % 10])
+              .zhi(BaziDef.BRANCHES[jiaZi % 12])
+              .build());
     }
-
-    return result;
+    return liuYue;
   }
 
   @Override
   public int getLeapMonth(int year) {
+    if (LunarCalendarTable.isSupported(year)) {
+      return LunarCalendarTable.leapMonth(year);
+    }
     try {
       // 使用 LunarYear 获取指定年份的闰月信息
       com.nlf.calendar.LunarYear lunarYear = com.nlf.calendar.LunarYear.fromYear(year);
@@ -1293,110 +1191,83 @@ public class BaziServiceImpl implements BaziService {
   }
 
   @Override
-  public Map<String, Double> getCoordinates(String location) {
-    log.info("===== 查询经纬度 =====");
-    log.info("输入location: [{}]", location);
-
-    // 从 city-geo-data.json 精确查找经纬度信息
-    List<LunarUtils.CityGeoItem> cityGeoData = getCityGeoData(location);
-
-    double longitude = 116.4; // 默认北京经度
-    double latitude = 39.9; // 默认北京纬度
-
-    if (!cityGeoData.isEmpty()) {
-      LunarUtils.CityGeoItem item = cityGeoData.get(0);
-      log.info(
-          "✓ 找到匹配: {}省/{}/{}区, 经度={}, 纬度={}",
-          item.getProvince(),
-          item.getCity(),
-          item.getArea(),
-          item.getLng(),
-          item.getLat());
-      try {
-        longitude = Double.parseDouble(item.getLng());
-        latitude = Double.parseDouble(item.getLat());
-      } catch (NumberFormatException e) {
-        log.warn("Failed to parse coordinates for location: {}", location);
-      }
-    } else {
-      log.warn("✗ 未找到匹配的地点: [{}]", location);
+  public List<PillarWindowDTO> searchByPillars(String year, String month, String day, String hour) {
+    List<PillarSearch.Window> windows =
+        PillarSearch.search(
+            parseJiaZi(year, "年柱"),
+            parseJiaZi(month, "月柱"),
+            parseJiaZi(day, "日柱"),
+            parseJiaZi(hour, "时柱"));
+    List<PillarWindowDTO> result = new ArrayList<>(windows.size());
+    for (PillarSearch.Window window : windows) {
+      result.add(
+          PillarWindowDTO.builder()
+              .start(formatMinute(window.startMinute()))
+              .end(formatMinute(window.endMinute()))
+              .build());
     }
-
-    Map<String, Double> result = new HashMap<>();
-    result.put("lng", longitude);
-    result.put("lat", latitude);
-    log.info("返回结果: lng={}, lat={}", longitude, latitude);
     return result;
   }
 
-  /**
-   * 从地点字符串查找城市地理数据
-   *
-   * @param location 地点字符串
-   * @return 匹配的地理数据列表
-   */
-  private List<LunarUtils.CityGeoItem> getCityGeoData(String location) {
-    // 由于 LunarUtils.cityGeoData 是私有的，这里通过反射访问
-    // 更好的做法是在 LunarUtils 中添加公共查询方法
-    try {
-      java.lang.reflect.Field field = LunarUtils.class.getDeclaredField("cityGeoData");
-      field.setAccessible(true);
-      @SuppressWarnings("unchecked")
-      List<LunarUtils.CityGeoItem> data = (List<LunarUtils.CityGeoItem>) field.get(null);
-
-      if (data == null || data.isEmpty()) {
-        log.error("cityGeoData 为空或未加载！");
-        return Collections.emptyList();
-      }
+  /** 干支 -> 六十甲子序号，非六十甲子 (含阴阳不配) 时抛出参数错误 */
+  private static int parseJiaZi(String ganZhi, String name) {
+    int stem = -1;
+    int branch = -1;
+    if (ganZhi != null && ganZhi.length() == 2) {
+      stem = BaziDef.stemIndex(ganZhi.substring(0, 1));
+      branch = BaziDef.branchIndex(ganZhi.substring(1));
+    }
+    if (stem < 0 || branch < 0 || stem % 2 != branch % 2) {
+      throw new BusinessException(
+          StandardErrorCode.PARAM_ERROR.getCode(), "无效的" + name + ": " + ganZhi);
+    }
+    return BaziDef.jiaZiIndex(stem, branch);
+  }
 
-      log.debug("cityGeoData 已加载，总记录数: {}", data.size());
-
-      // 解析地点字符串: 省/市/区
-      String[] parts = location.split("/");
-      log.debug("解析结果: parts数量={}, 内容={}", parts.length, String.join(" | ", parts));
-
-      if (parts.length == 3) {
-        // 三级精确匹配
-        String province = parts[0].trim();
-        String city = parts[1].trim();
-        String area = parts[2].trim();
-        log.debug("三级匹配查询: province=[{}], city=[{}], area=[{}]", province, city, area);
-
-        return data.stream()
-            .filter(
-                item ->
-                    province.equals(item.getProvince())
-                        && city.equals(item.getCity())
-                        && area.equals(item.getArea()))
-            .limit(1)
-            .toList();
-      } else if (parts.length == 2) {
-        // 两级匹配: 省/市
-        String province = parts[0].trim();
-        String city = parts[1].trim();
-
-        return data.stream()
-            .filter(item -> province.equals(item.getProvince()) && city.equals(item.getCity()))
-            .limit(1)
-            .toList();
-      } else if (parts.length == 1) {
-        // 单级模糊匹配
-        String searchTerm = parts[0].trim();
-
-        return data.stream()
-            .filter(
-                item ->
-                    (item.getArea() != null && item.getArea().contains(searchTerm))
-                        || (item.getCity() != null && item.getCity().contains(searchTerm))
-                        || (item.getProvince() != null && item.getProvince().contains(searchTerm)))
-            .limit(1)
-            .toList();
-      }
+  /** 纪元分钟 -> "yyyy-MM-dd HH:mm" */
+  private static String formatMinute(long epochMinute) {
+    return String.format(
+        "%04d-%02d-%02d %02d:%02d",
+        SolarTimeUtils.year(epochMinute),
+        SolarTimeUtils.month(epochMinute),
+        SolarTimeUtils.day(epochMinute),
+        SolarTimeUtils.hour(epochMinute),
+        SolarTimeUtils.minute(epochMinute));
+  }
 
-      return Collections.emptyList();
-    } catch (Exception e) {
-      log.warn("Failed to access cityGeoData via reflection", e);
-      return Collections.emptyList();
+  @Override
+  public LunarYearDTO getLunarCalendar(int year) {
+    if (!LunarCalendarTable.isSupported(year)) {
+      throw new BusinessException(
+          StandardErrorCode.PARAM_ERROR.getCode(),
+          String.format(
+              "农历年份超出支持范围 (%d-%d)", LunarCalendarTable.MIN_YEAR, LunarCalendarTable.MAX_YEAR));
+    }
+    int leap = LunarCalendarTable.leapMonth(year);
+    int[] starts = LunarCalendarTable.monthStarts(year);
+    List<LunarYearDTO.Month> months = new ArrayList<>(starts.length - 1);
+    for (int i = 0; i < starts.length - 1; i++) {
+      // 闰月紧跟同名正常月之后 (下标等于闰月月份)
+      boolean isLeap = leap > 0 && i == leap;
+      long epochMinute = starts[i] * 24L * 60;
+      months.add(
+          LunarYearDTO.Month.builder()
+              .month(leap > 0 && i >= leap ? i : i + 1)
+              .leap(isLeap)
+              .firstDay(
+                  String.format(
+                      "%04d-%02d-%02d",
+                      SolarTimeUtils.year(epochMinute),
+                      SolarTimeUtils.month(epochMinute),
+                      SolarTimeUtils.day(epochMinute)))
+              .dayCount(starts[i + 1] - starts[i])
+              .build());
     }
+    return LunarYearDTO.builder().year(year).leapMonth(leap).months(months).build();
+  }
+
+  @Override
+  public Map<String, Double> getCoordinates(String location) {
+    return geoService.getCoordinates(location);
   }
 }
@@ -2,6 +2,8 @@ package com.tafu.bazi.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.component.AnalysisSingleFlight;
+import com.tafu.bazi.component.OutboundCallLimiter;
 import com.tafu.bazi.config.AiPromptsConfig;
 import com.tafu.bazi.dto.ai.MinimalBaziData;
 import com.tafu.bazi.entity.Subject;
@@ -10,20 +12,22 @@ import com.tafu.bazi.exception.StandardErrorCode;
 import com.tafu.bazi.service.FortuneService;
 import com.tafu.bazi.service.SubjectService;
 import com.tafu.bazi.utils.BaziResultOptimizer;
+import com.theokanning.openai.completion.chat.ChatCompletionChunk;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
 import com.theokanning.openai.service.OpenAiService;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * FortuneServiceImpl
@@ -45,9 +49,10 @@ public class FortuneServiceImpl implements FortuneService {
   private final AiPromptsConfig aiPromptsConfig;
   private final OpenAiService openAiService;
   private final ObjectMapper objectMapper;
+  private final OutboundCallLimiter outboundCallLimiter;
+  private final AnalysisSingleFlight analysisSingleFlight;
 
   @Override
-  @Transactional
   public Map<String, Object> analyzeInitial(String userId, String subjectId) {
     Subject subject = subjectService.getEntity(userId, subjectId);
 
@@ -56,6 +61,24 @@ public class FortuneServiceImpl implements FortuneService {
       return subject.getInitialAnalysis();
     }
 
+    // 同一测算对象的并发请求 (含进行中的流式生成) 合并为一次 AI 调用
+    String content =
+        analysisSingleFlight.call(
+            AnalysisSingleFlight.Key.initial(subjectId), () -> generateInitial(userId, subjectId));
+    Map<String, Object> result = new HashMap<>();
+    result.put("content", content);
+    return result;
+  }
+
+  /** 发起一次初步分析生成并保存，返回完整内容；由合并组件保证同一测算对象同时只有一个生成 */
+  private String generateInitial(String userId, String subjectId) {
+    // 再次检查: 上一次生成可能在首次检查之后刚刚结束
+    Subject subject = subjectService.getEntity(userId, subjectId);
+    String saved = savedContent(subject);
+    if (saved != null) {
+      return saved;
+    }
+
     // 1. 准备 Prompt
     String systemPrompt = aiPromptsConfig.getPrompts().getInitial().getSystem();
     String userPromptTemplate = aiPromptsConfig.getPrompts().getInitial().getUser();
@@ -82,7 +105,14 @@ public class FortuneServiceImpl implements FortuneService {
               .build();
 
       aiResponse =
-          openAiService.createChatCompletion(request).getChoices().get(0).getMessage().getContent();
+          outboundCallLimiter
+              .ai(() -> openAiService.createChatCompletion(request))
+              .getChoices()
+              .get(0)
+              .getMessage()
+              .getContent();
+    } catch (BusinessException e) {
+      throw e;
     } catch (Exception e) {
       log.error("AI Call Failed", e);
       throw new BusinessException(StandardErrorCode.SYSTEM_ERROR.getCode(), "AI 服务暂时不可用");
@@ -93,13 +123,13 @@ public class FortuneServiceImpl implements FortuneService {
     Map<String, Object> result = new HashMap<>();
     result.put("content", aiResponse);
 
-    // 4. 保存结果
-    subject.setInitialAnalysis(result);
-    subject.setInitialAnalyzedAt(LocalDateTime.now());
-    // subjectRepository.save(subject); // subjectService.getEntity returns attached entity?
-    // Better call update explicitly if separation of concern needed
-
-    return result;
+    // 4. 保存结果 (AI 调用结束后的短事务)；其他节点已先保存时以已保存的结果为准
+    if (!subjectService.saveInitialAnalysis(userId, subjectId, result)) {
+      log.info("Initial analysis saved by another node: {}", subjectId);
+      return Objects.requireNonNullElse(
+          savedContent(subjectService.getEntity(userId, subjectId)), aiResponse);
+    }
+    return aiResponse;
   }
 
   @Override
@@ -112,63 +142,92 @@ public class FortuneServiceImpl implements FortuneService {
       return Flux.just(content != null ? content : "");
     }
 
+    // 同一测算对象的并发请求共享一次上游流: 晚到的订阅者先重放已生成的片段；开始生成前再次检查是否已有结果
+    return analysisSingleFlight.stream(
+        AnalysisSingleFlight.Key.initial(subjectId),
+        () ->
+            Mono.fromCallable(() -> savedContent(subjectService.getEntity(userId, subjectId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flux()
+                .switchIfEmpty(generateInitialStream(userId, subject)));
+  }
+
+  /** 初步分析的上游流式生成，正常结束后保存完整内容 */
+  private Flux<String> generateInitialStream(String userId, Subject subject) {
+    String subjectId = subject.getId();
+
     // 1. 准备 Prompt
     String systemPrompt = aiPromptsConfig.getPrompts().getInitial().getSystem();
     String userPromptTemplate = aiPromptsConfig.getPrompts().getInitial().getUser();
     String userPrompt = replacePlaceholders(userPromptTemplate, subject);
 
-    // 2. 调用 AI 流式接口
-    log.info("Calling AI stream for initial analysis, subject: {}", subjectId);
-
-    return Flux.create(
-        sink -> {
-          try {
-            List<ChatMessage> messages = new ArrayList<>();
-            messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt));
-            messages.add(new ChatMessage(ChatMessageRole.USER.value(), userPrompt));
-
-            ChatCompletionRequest request =
-                ChatCompletionRequest.builder()
-                    .model(aiPromptsConfig.getModel())
-                    .messages(messages)
-                    .temperature(aiPromptsConfig.getTemperature())
-                    .maxTokens(aiPromptsConfig.getMaxTokens())
-                    .stream(true)
-                    .build();
-
-            StringBuilder fullContent = new StringBuilder();
-            openAiService
-                .streamChatCompletion(request)
-                .doOnError(sink::error)
-                .blockingForEach(
-                    chunk -> {
-                      if (chunk.getChoices() != null
-                          && !chunk.getChoices().isEmpty()
-                          && chunk.getChoices().get(0).getMessage() != null) {
-                        String content = chunk.getChoices().get(0).getMessage().getContent();
-                        if (content != null) {
-                          fullContent.append(content);
-                          sink.next(content);
-                        }
-                      }
-                    });
-
-            // 保存完整结果
-            Map<String, Object> result = new HashMap<>();
-            result.put("content", fullContent.toString());
-            subject.setInitialAnalysis(result);
-            subject.setInitialAnalyzedAt(LocalDateTime.now());
-            log.info("Stream analysis completed for subject: {}", subjectId);
-
-            sink.complete();
-          } catch (Exception e) {
-            log.error("AI Stream Call Failed", e);
-            sink.error(
-                new BusinessException(StandardErrorCode.SYSTEM_ERROR.getCode(), "AI 服务暂时不可用"));
-          }
+    List<ChatMessage> messages = new ArrayList<>();
+    messages.add(new ChatMessage(ChatMessageRole.SYSTEM.value(), systemPrompt));
+    messages.add(new ChatMessage(ChatMessageRole.USER.value(), userPrompt));
+
+    ChatCompletionRequest request =
+        ChatCompletionRequest.builder()
+            .model(aiPromptsConfig.getModel())
+            .messages(messages)
+            .temperature(aiPromptsConfig.getTemperature())
+            .maxTokens(aiPromptsConfig.getMaxTokens())
+            .stream(true)
+            .build();
+
+    // 2. 调用 AI 流式接口: RxJava Flowable 直接桥接为 Flux (不阻塞订阅线程，遵循下游背压，客户端断开时取消上游请求)；
+    // 正常结束后在短事务中保存完整内容，取消或出错时不保存
+    return Flux.defer(
+        () -> {
+          log.info("Calling AI stream for initial analysis, subject: {}", subjectId);
+          StringBuilder fullContent = new StringBuilder();
+          return outboundCallLimiter
+              .aiStream(() -> openAiService.streamChatCompletion(request))
+              .mapNotNull(FortuneServiceImpl::chunkContent)
+              .doOnNext(fullContent::append)
+              .concatWith(
+                  Mono.<String>fromRunnable(
+                          () -> {
+                            if (fullContent.isEmpty()) {
+                              log.warn("Stream analysis returned no content: {}", subjectId);
+                              return;
+                            }
+                            if (subjectService.saveInitialAnalysis(
+                                userId, subjectId, Map.of("content", fullContent.toString()))) {
+                              log.info("Stream analysis completed for subject: {}", subjectId);
+                            } else {
+                              log.info("Stream analysis saved by another node: {}", subjectId);
+                            }
+                          })
+                      .subscribeOn(Schedulers.boundedElastic()))
+              .doOnCancel(() -> log.info("Stream analysis cancelled for subject: {}", subjectId))
+              .onErrorMap(
+                  e -> !(e instanceof BusinessException),
+                  e -> {
+                    log.error("AI Stream Call Failed", e);
+                    return new BusinessException(
+                        StandardErrorCode.SYSTEM_ERROR.getCode(), "AI 服务暂时不可用");
+                  });
         });
   }
 
+  /** 已保存的初步分析内容，未分析过时为 null */
+  private static String savedContent(Subject subject) {
+    if (subject.getInitialAnalysis() == null || subject.getInitialAnalysis().isEmpty()) {
+      return null;
+    }
+    return (String) subject.getInitialAnalysis().get("content");
+  }
+
+  /** 流式响应块中的增量文本，无内容时为 null */
+  private static String chunkContent(ChatCompletionChunk chunk) {
+    if (chunk.getChoices() == null
+        || chunk.getChoices().isEmpty()
+        || chunk.getChoices().get(0).getMessage() == null) {
+      return null;
+    }
+    return chunk.getChoices().get(0).getMessage().getContent();
+  }
+
   private String replacePlaceholders(String template, Subject subject) {
     if (template == null) return "";
     String result = template;
@@ -0,0 +1,57 @@
+package com.tafu.bazi.service.impl;
+
+import com.tafu.bazi.service.GeoService;
+import com.tafu.bazi.utils.GeoIndex;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * GeoServiceImpl
+ *
+ * <p>描述: 地点经纬度查询实现。基于 GeoIndex 的复合键索引，查询为常数次哈希查找。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+public class GeoServiceImpl implements GeoService {
+
+  private final GeoIndex geoIndex = GeoIndex.getInstance();
+
+  @Override
+  public double getLongitude(String location) {
+    return geoIndex.longitude(location);
+  }
+
+  @Override
+  public Map<String, Double> getCoordinates(String location) {
+    double longitude = GeoIndex.DEFAULT_LONGITUDE;
+    double latitude = GeoIndex.DEFAULT_LATITUDE;
+
+    int index = geoIndex.find(location);
+    if (index >= 0) {
+      double lng = geoIndex.longitudeAt(index);
+      double lat = geoIndex.latitudeAt(index);
+      if (!Double.isNaN(lng)) {
+        longitude = lng;
+        if (!Double.isNaN(lat)) {
+          latitude = lat;
+        }
+      } else {
+        log.warn("Failed to parse coordinates for location: {}", location);
+      }
+    } else {
+      log.debug("未找到匹配的地点: [{}]", location);
+    }
+
+    Map<String, Double> result = new HashMap<>();
+    result.put("lng", longitude);
+    result.put("lat", latitude);
+    return result;
+  }
+}
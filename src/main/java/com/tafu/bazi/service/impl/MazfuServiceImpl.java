@@ -2,15 +2,16 @@ package com.tafu.bazi.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.component.OutboundCallLimiter;
 import com.tafu.bazi.config.MazfuConfig;
 import com.tafu.bazi.dto.MazfuCreatePaymentRequest;
 import com.tafu.bazi.dto.MazfuCreatePaymentResult;
 import com.tafu.bazi.dto.MazfuNotifyParams;
 import com.tafu.bazi.entity.PaymentOrder;
+import com.tafu.bazi.exception.BusinessException;
 import com.tafu.bazi.repository.PaymentOrderRepository;
 import com.tafu.bazi.service.MazfuService;
 import com.tafu.bazi.service.PointsService;
-import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -18,6 +19,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.TreeMap;
@@ -45,11 +47,16 @@ import org.springframework.transaction.annotation.Transactional;
 @SuppressWarnings("null")
 public class MazfuServiceImpl implements MazfuService {
 
+  /** 码支付接口单次请求超时 */
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
   private final MazfuConfig mazfuConfig;
   private final PaymentOrderRepository orderRepository;
   private final PointsService pointsService;
   private final ObjectMapper objectMapper;
-  private final HttpClient httpClient = HttpClient.newBuilder().build();
+  private final OutboundCallLimiter outboundCallLimiter;
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
 
   @Override
   public MazfuCreatePaymentResult createPayment(MazfuCreatePaymentRequest request) {
@@ -97,11 +104,14 @@ public class MazfuServiceImpl implements MazfuService {
           HttpRequest.newBuilder()
               .uri(URI.create(apiUrl))
               .header("Content-Type", "application/x-www-form-urlencoded")
+              .timeout(REQUEST_TIMEOUT)
               .POST(HttpRequest.BodyPublishers.ofString(formBody))
               .build();
 
+      // 阻塞等待响应 (虚拟线程下不占平台线程)，同时在途的请求数受 OutboundCallLimiter 限制
       HttpResponse<String> response =
-          httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+          outboundCallLimiter.payment(
+              () -> httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString()));
 
       if (response.statusCode() != 200) {
         return MazfuCreatePaymentResult.builder()
@@ -127,7 +137,13 @@ public class MazfuServiceImpl implements MazfuService {
           .money(jsonNode.has("money") ? jsonNode.get("money").asText() : null)
           .build();
 
-    } catch (IOException | InterruptedException e) {
+    } catch (BusinessException e) {
+      log.warn("[Mazfu] Request rejected: {}", e.getMessage());
+      return MazfuCreatePaymentResult.builder().success(false).message(e.getMessage()).build();
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
       log.error("[Mazfu] Request failed", e);
       return MazfuCreatePaymentResult.builder()
           .success(false)
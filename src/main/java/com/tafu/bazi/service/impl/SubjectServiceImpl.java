@@ -1,20 +1,28 @@
 package com.tafu.bazi.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tafu.bazi.dto.request.BaziCalculateRequest;
 import com.tafu.bazi.dto.request.SubjectRequest;
 import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.DaYunDTO;
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.dto.response.LiuNianDTO;
 import com.tafu.bazi.dto.response.SubjectResponse;
+import com.tafu.bazi.dto.response.YunInfoDTO;
 import com.tafu.bazi.entity.Subject;
 import com.tafu.bazi.exception.BusinessException;
 import com.tafu.bazi.exception.StandardErrorCode;
 import com.tafu.bazi.repository.SubjectRepository;
 import com.tafu.bazi.service.BaziService;
 import com.tafu.bazi.service.SubjectService;
+import com.tafu.bazi.utils.GanZhiTable;
+import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +32,8 @@ import org.springframework.transaction.annotation.Transactional;
  *
  * <p>描述: 测算对象业务逻辑实现。
  *
+ * <p>规则: bazi_data 只存储大运骨架 (不含各步大运的流年列表)，流年/流月通过时间线接口按年份范围分页计算。
+ *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
  * @author Zhihao Li
@@ -94,6 +104,45 @@ public class SubjectServiceImpl implements SubjectService {
         .map(this::toResponse);
   }
 
+  @Override
+  public Page<LiuNianDTO> getTimeline(
+      String userId,
+      String id,
+      Integer fromYear,
+      Integer toYear,
+      boolean withLiuYue,
+      Pageable pageable) {
+    Subject subject = getEntity(userId, id);
+    Object yunData = subject.getBaziData() != null ? subject.getBaziData().get("yun") : null;
+    YunInfoDTO yun = yunData != null ? objectMapper.convertValue(yunData, YunInfoDTO.class) : null;
+    if (yun == null || yun.getDaYunList() == null || yun.getDaYunList().isEmpty()) {
+      throw new BusinessException(StandardErrorCode.RESOURCE_NOT_FOUND.getCode(), "测算对象缺少大运数据");
+    }
+
+    // 年份范围限定在大运骨架与流年干支表内，保证 total 与实际条数一致
+    List<DaYunDTO> daYunList = yun.getDaYunList();
+    int first = Math.max(daYunList.get(0).getStartYear(), GanZhiTable.MIN_YEAR);
+    int last = Math.min(daYunList.get(daYunList.size() - 1).getEndYear(), GanZhiTable.MAX_YEAR);
+    int from = fromYear != null ? Math.max(fromYear, first) : first;
+    int to = toYear != null ? Math.min(toYear, last) : last;
+    if (from > to) {
+      return new PageImpl<>(List.of(), pageable, 0);
+    }
+
+    // 只计算当前页的年份
+    long pageFrom = from + pageable.getOffset();
+    if (pageFrom > to) {
+      return new PageImpl<>(List.of(), pageable, to - from + 1);
+    }
+    int pageTo = (int) Math.min(to, pageFrom + pageable.getPageSize() - 1);
+    Object natalData = subject.getBaziData().get("fourPillars");
+    FourPillarsDTO natal =
+        natalData != null ? objectMapper.convertValue(natalData, FourPillarsDTO.class) : null;
+    List<LiuNianDTO> liuNian =
+        baziService.calculateLiuNian(natal, yun, (int) pageFrom, pageTo, withLiuYue);
+    return new PageImpl<>(liuNian, pageable, to - from + 1);
+  }
+
   @Override
   public com.tafu.bazi.entity.Subject getEntity(String userId, String id) {
     return subjectRepository
@@ -101,6 +150,19 @@ public class SubjectServiceImpl implements SubjectService {
         .orElseThrow(() -> new BusinessException(StandardErrorCode.RESOURCE_NOT_FOUND));
   }
 
+  @Override
+  @Transactional
+  public boolean saveInitialAnalysis(String userId, String id, Map<String, Object> analysis) {
+    getEntity(userId, id);
+    try {
+      return subjectRepository.saveInitialAnalysisIfAbsent(
+              id, userId, objectMapper.writeValueAsString(analysis))
+          > 0;
+    } catch (JsonProcessingException e) {
+      throw new BusinessException(StandardErrorCode.SYSTEM_ERROR.getCode(), "分析结果序列化失败");
+    }
+  }
+
   @Override
   public java.util.List<com.tafu.bazi.entity.FortuneReport> getReports(
       String userId, String subjectId) {
@@ -129,6 +191,12 @@ public class SubjectServiceImpl implements SubjectService {
     // 将 BaziResponse 转换为 Map 用于存储到数据库 JSONB 字段
     @SuppressWarnings("unchecked")
     Map<String, Object> baziData = objectMapper.convertValue(baziResponse, Map.class);
+
+    // 只存储大运骨架，流年/流月由时间线接口按需计算。在转换出的 Map 上移除，排盘结果可能是缓存共享的实例，不可修改
+    if (baziData.get("yun") instanceof Map<?, ?> yun
+        && yun.get("daYunList") instanceof List<?> daYunList) {
+      daYunList.forEach(daYun -> ((Map<?, ?>) daYun).remove("liuNian"));
+    }
     return baziData;
   }
 
@@ -1,5 +1,6 @@
 package com.tafu.bazi.service.impl;
 
+import com.tafu.bazi.component.TaskDispatcher;
 import com.tafu.bazi.dto.response.ThemeUnlockResponse;
 import com.tafu.bazi.entity.Task;
 import com.tafu.bazi.entity.ThemeAnalysis;
@@ -15,13 +16,15 @@ import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * ThemeServiceImpl
  *
- * <p>描述: 主题解锁业务逻辑实现。 逻辑: 1. 检查是否已解锁 2. 扣除积分 3. 创建异步任务 (Task) 4. 触发异步 AI 生成 (analyzeThemeAsync)
+ * <p>描述: 主题解锁业务逻辑实现。 逻辑: 1. 检查是否已解锁 2. 已有进行中的解锁任务时直接返回该任务 3. 扣除积分 4. 创建异步任务 (Task)
+ * 5. 事务提交后派发异步 AI 生成 (TaskDispatcher)。同一主题的并发解锁由 tasks 表的部分唯一索引兜底，只扣一次积分、只生成一次
  *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
@@ -37,6 +40,7 @@ public class ThemeServiceImpl implements ThemeService {
   private final ThemeAnalysisRepository themeAnalysisRepository;
   private final PointsService pointsService;
   private final TaskRepository taskRepository;
+  private final TaskDispatcher taskDispatcher;
   private final com.tafu.bazi.repository.ThemePricingRepository themePricingRepository;
   private final com.tafu.bazi.repository.SubjectRepository subjectRepository;
 
@@ -50,7 +54,15 @@ public class ThemeServiceImpl implements ThemeService {
       return ThemeUnlockResponse.alreadyUnlocked(existingOpt.get().getContent());
     }
 
-    // 2. 扣分
+    // 2. 已有进行中的解锁任务 (重复点击、多个标签页) 时返回该任务，不重复扣分
+    java.util.Optional<String> activeTaskId =
+        taskRepository.findActiveThemeUnlock(subjectId, themeName);
+    if (activeTaskId.isPresent()) {
+      int balance = pointsService.getMyPoints(userId).getBalance();
+      return ThemeUnlockResponse.newUnlock(activeTaskId.get(), balance);
+    }
+
+    // 3. 扣分
     int price =
         themePricingRepository
             .findByTheme(themeName)
@@ -58,7 +70,7 @@ public class ThemeServiceImpl implements ThemeService {
             .orElse(20); // Fallback default
     pointsService.deductPoints(userId, price, "unlock_theme", "解锁主题: " + themeName);
 
-    // 3. 创建 Task
+    // 4. 创建 Task (并发解锁同一主题时唯一索引拒绝后到者，事务回滚退回本次扣分)
     Task task =
         Task.builder()
             .userId(userId)
@@ -66,15 +78,21 @@ public class ThemeServiceImpl implements ThemeService {
             .status("pending")
             .payload(Map.of("subjectId", subjectId, "theme", themeName))
             .build();
-    taskRepository.save(task);
+    try {
+      taskRepository.saveAndFlush(task);
+    } catch (DataIntegrityViolationException e) {
+      log.info("Theme unlock already in progress: subject={}, theme={}", subjectId, themeName);
+      throw new BusinessException(StandardErrorCode.THEME_UNLOCKING);
+    }
 
-    // 4. 触发异步处理 (TaskProcessor handles this via @Scheduled)
+    // 5. 触发异步处理 (事务提交后交给本节点处理，并 NOTIFY 其他节点)
+    taskDispatcher.dispatch(task.getId());
     log.info("Task created id={} for theme={}", task.getId(), themeName);
 
-    // 5. 获取剩余积分（在事务外查询以提高性能）
+    // 6. 获取剩余积分（在事务外查询以提高性能）
     int remainingBalance = pointsService.getMyPoints(userId).getBalance();
 
-    // 6. 返回任务ID和剩余积分
+    // 7. 返回任务ID和剩余积分
     return ThemeUnlockResponse.newUnlock(task.getId(), remainingBalance);
   }
 
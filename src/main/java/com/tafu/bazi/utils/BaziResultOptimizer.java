@@ -6,6 +6,7 @@ import com.tafu.bazi.dto.response.*;
 import com.tafu.bazi.model.BaziDef;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -16,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>描述: 将完整八字结果转换为极简结构，减少 AI Token 消耗。 逻辑移植自: src/lib/ai/template-engine.ts (buildMinimalBaziData)
  *
+ * <p>规则: 原局、当前大运、当年流年的合冲刑害由 RelationEngine 按四柱现算并格式化为一行文字，旧数据不含 relations 字段也能输出。
+ *
  * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
  *
  * @author Zhihao Li
@@ -201,10 +204,15 @@ public class BaziResultOptimizer {
     // 5. Ten Gods
     String tenGodsStr = formatTenGods(tenGods);
 
-    // 6. Yun (DaYun Optimization)
-    MinimalBaziData.YunSimple yunSimple = buildYunSimple(yun);
+    // 6. Relations (合冲刑害)
+    int[] natal = RelationEngine.natal(fourPillars);
+    String relationsStr =
+        RelationEngine.describe(RelationEngine.analyze(RelationEngine.NATAL, natal, 0));
+
+    // 7. Yun (DaYun Optimization)
+    MinimalBaziData.YunSimple yunSimple = buildYunSimple(yun, natal);
 
-    // 7. ShenSha
+    // 8. ShenSha
     MinimalBaziData.ShenShaSimple shenShaSimple =
         MinimalBaziData.ShenShaSimple.builder()
             .year(
@@ -231,6 +239,7 @@ public class BaziResultOptimizer {
         .dayMaster(dayMasterSimple)
         .fiveElements(fiveElementsSimple)
         .tenGods(tenGodsStr)
+        .relations(relationsStr)
         .yun(yunSimple)
         .shenSha(shenShaSimple)
         .shengXiao((String) result.getOrDefault("shengXiao", ""))
@@ -249,7 +258,7 @@ public class BaziResultOptimizer {
         .collect(Collectors.joining("\n"));
   }
 
-  private static MinimalBaziData.YunSimple buildYunSimple(YunInfoDTO yun) {
+  private static MinimalBaziData.YunSimple buildYunSimple(YunInfoDTO yun, int[] natal) {
     if (yun == null || yun.getDaYunList() == null)
       return MinimalBaziData.YunSimple.builder().build();
 
@@ -282,16 +291,24 @@ public class BaziResultOptimizer {
       }
     }
 
-    /*
-       Note: The original 'template-engine.ts' searches for current LiuNian inside the DaYun.
-       We are simplifying here by just taking the current year from calculation time if needed,
-       but MinimalBaziData asks for 'currentLiuNian' string.
-       Since Java's lunar library DaYun object doesn't carry LiuNian by default unless iterated,
-       we might need to calculate it or just leave it blank if not critical.
-       However, the source `buildMinimalBaziData` DOES try to find it.
-       We'll skip complex LiuNian lookup for now to save complexity, or add if critical.
-    */
-    String currentLiuNianStr = null; // Placeholder
+    // 当前大运、当年流年与原局的合冲刑害 (流年干支查表)
+    int[] positions = Arrays.copyOf(natal, 6);
+    positions[4] = currentDaYun != null ? RelationEngine.jiaZi(currentDaYun.getGanZhi()) : -1;
+    String currentDaYunRelations =
+        positions[4] >= 0
+            ? RelationEngine.describe(
+                RelationEngine.analyze(
+                    RelationEngine.WITH_DA_YUN, Arrays.copyOf(positions, 5), 4))
+            : null;
+    String currentLiuNianStr = null;
+    String currentLiuNianRelations = null;
+    if (GanZhiTable.isSupported(currentYear)) {
+      currentLiuNianStr = GanZhiTable.yearGanZhi(currentYear);
+      positions[5] = Math.floorMod(currentYear - 4, 60);
+      currentLiuNianRelations =
+          RelationEngine.describe(
+              RelationEngine.analyze(RelationEngine.WITH_LIU_NIAN, positions, 5));
+    }
 
     return MinimalBaziData.YunSimple.builder()
         .startAge(yun.getStartAge())
@@ -301,8 +318,10 @@ public class BaziResultOptimizer {
             currentDaYun != null
                 ? currentDaYun.getStartAge() + "-" + currentDaYun.getEndAge() + "岁"
                 : null)
+        .currentDaYunRelations(currentDaYunRelations)
         .adjacentDaYun(adjacent)
         .currentLiuNian(currentLiuNianStr)
+        .currentLiuNianRelations(currentLiuNianRelations)
         .build();
   }
 
@@ -0,0 +1,319 @@
+package com.tafu.bazi.utils;
+
+import com.nlf.calendar.EightChar;
+import com.nlf.calendar.Lunar;
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.model.BaziDef;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * FourPillarsEngine
+ *
+ * <p>描述: 四柱排盘引擎。日柱按纪元日取模 60，年柱、月柱在预计算的 1901-2100 年节 (立春、惊蛰 ... 小寒) 交节时刻表上二分查找，时柱按五鼠遁，不再为求四柱创建
+ * Lunar/EightChar 对象。
+ *
+ * <p>规则: 与 lunar-java EightChar (setSect(1)) 一致: 纪元分钟 m 只有在 m * 60
+ * 不早于交节纪元秒时才算新月 (交节所在的那一分钟仍属上月，交节恰在整分时除外)，立春定年；晚子时 (23 点)
+ * 日柱算明天，时干按明天日干起。交节时刻表在首次使用时由 lunar-java 节气表生成一次；表外日期或交节表校验失败时回退到 EightChar。lunar-java
+ * 同时作为单元测试中的校验基准。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+public final class FourPillarsEngine {
+
+  /** 支持的起始年 (公历，含) */
+  public static final int MIN_YEAR = 1901;
+
+  /** 支持的结束年 (公历，含) */
+  public static final int MAX_YEAR = 2100;
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  /** 1970-01-01 (纪元日 0) 为辛巳日 */
+  private static final int EPOCH_DAY_JIA_ZI = 17;
+
+  /** 十二节名称 -> 节序号 (立春=0 ... 小寒=11，对应月支寅 ... 丑) */
+  private static final Map<String, Integer> JIE_ORDER =
+      Map.ofEntries(
+          Map.entry("立春", 0),
+          Map.entry("LI_CHUN", 0),
+          Map.entry("惊蛰", 1),
+          Map.entry("JING_ZHE", 1),
+          Map.entry("清明", 2),
+          Map.entry("立夏", 3),
+          Map.entry("芒种", 4),
+          Map.entry("小暑", 5),
+          Map.entry("立秋", 6),
+          Map.entry("白露", 7),
+          Map.entry("寒露", 8),
+          Map.entry("立冬", 9),
+          Map.entry("大雪", 10),
+          Map.entry("DA_XUE", 10),
+          Map.entry("小寒", 11),
+          Map.entry("XIAO_HAN", 11));
+
+  /** 十二节名称，按节序号 (立春=0 ... 小寒=11) */
+  public static final List<String> JIE_NAMES =
+      List.of("立春", "惊蛰", "清明", "立夏", "芒种", "小暑", "立秋", "白露", "寒露", "立冬", "大雪", "小寒");
+
+  private FourPillarsEngine() {}
+
+  /**
+   * 四柱 (六十甲子序号 0-59，天干 = 序号 % 10，地支 = 序号 % 12)
+   *
+   * @param year 年柱
+   * @param month 月柱
+   * @param day 日柱
+   * @param hour 时柱
+   */
+  public record Pillars(int year, int month, int day, int hour) {
+
+    /** 胎元: 月干进一，月支进三 */
+    public String taiYuan() {
+      return BaziDef.STEMS[(month % 10 + 1) % 10] + BaziDef.BRANCHES[(month % 12 + 3) % 12];
+    }
+
+    /** 日柱旬空 */
+    public String dayXunKong() {
+      int xunStart = (day - day % 10) % 12;
+      return BaziDef.BRANCHES[(xunStart + 10) % 12] + BaziDef.BRANCHES[(xunStart + 11) % 12];
+    }
+
+    /** 生肖 (以立春为界) */
+    public String shengXiao() {
+      return BaziDef.SHENG_XIAO[year % 12];
+    }
+  }
+
+  /** 交节时刻表，首次使用时构建 */
+  private static final class Holder {
+    private static final JieTable TABLE = JieTable.build();
+  }
+
+  /**
+   * 计算四柱
+   *
+   * @param trueSolarMinute 真太阳时的纪元分钟 (见 SolarTimeUtils)
+   * @return 四柱
+   */
+  public static Pillars compute(long trueSolarMinute) {
+    Pillars pillars = Holder.TABLE.compute(trueSolarMinute);
+    return pillars != null ? pillars : fromEightChar(trueSolarMinute);
+  }
+
+  /** 是否可由交节表直接计算 (否则回退到 EightChar) */
+  public static boolean isSupported(long trueSolarMinute) {
+    return Holder.TABLE.covers(trueSolarMinute);
+  }
+
+  /** 由 lunar-java EightChar (setSect(1)) 计算四柱 */
+  public static Pillars fromEightChar(long trueSolarMinute) {
+    EightChar eightChar =
+        Solar.fromYmdHms(
+                SolarTimeUtils.year(trueSolarMinute),
+                SolarTimeUtils.month(trueSolarMinute),
+                SolarTimeUtils.day(trueSolarMinute),
+                SolarTimeUtils.hour(trueSolarMinute),
+                SolarTimeUtils.minute(trueSolarMinute),
+                0)
+            .getLunar()
+            .getEightChar();
+    eightChar.setSect(1);
+    return new Pillars(
+        jiaZi(eightChar.getYearGan(), eightChar.getYearZhi()),
+        jiaZi(eightChar.getMonthGan(), eightChar.getMonthZhi()),
+        jiaZi(eightChar.getDayGan(), eightChar.getDayZhi()),
+        jiaZi(eightChar.getTimeGan(), eightChar.getTimeZhi()));
+  }
+
+  /**
+   * 某干支年十二个月的交节时刻 (流月起点)
+   *
+   * @param year 干支年 (立春所在公历年)，范围 MIN_YEAR - MAX_YEAR
+   * @return 立春 ... 次年小寒的交节纪元分钟 (北京时间)，按节序号排列
+   */
+  public static long[] jieMinutes(int year) {
+    long[] minutes = jieSeconds(year);
+    for (int i = 0; i < minutes.length; i++) {
+      minutes[i] = Math.floorDiv(minutes[i], 60);
+    }
+    return minutes;
+  }
+
+  /**
+   * 某干支年十二个月的交节时刻 (精确到秒)
+   *
+   * @param year 干支年 (立春所在公历年)
+   * @return 立春 ... 次年小寒的交节纪元秒 (北京时间)，按节序号排列；纪元分钟 m 属于新月当且仅当 m * 60 不早于交节纪元秒
+   */
+  public static long[] jieSeconds(int year) {
+    long[] seconds = Holder.TABLE.jieSeconds(year);
+    return seconds != null ? seconds : JieTable.jieSecondsFromLunar(year);
+  }
+
+  /**
+   * 日柱 (不含晚子时换日): 纪元日按六十甲子循环
+   *
+   * @param epochDay 纪元日 (1970-01-01 为 0)
+   * @return 日柱六十甲子序号
+   */
+  public static int dayJiaZi(long epochDay) {
+    return (int) Math.floorMod(epochDay + EPOCH_DAY_JIA_ZI, 60);
+  }
+
+  /**
+   * 月柱: 五虎遁，甲己之年丙作首
+   *
+   * @param yearJiaZi 年柱六十甲子序号
+   * @param order 节序号 (立春=0 ... 小寒=11)
+   * @return 月柱六十甲子序号
+   */
+  public static int monthJiaZi(int yearJiaZi, int order) {
+    int monthStem = ((yearJiaZi % 10) % 5 * 2 + 2 + order) % 10;
+    return BaziDef.jiaZiIndex(monthStem, (order + 2) % 12);
+  }
+
+  private static int jiaZi(String gan, String zhi) {
+    return BaziDef.jiaZiIndex(BaziDef.stemIndex(gan), BaziDef.branchIndex(zhi));
+  }
+
+  /** 按时间排序的交节时刻 (纪元秒) 与节序号 */
+  private static final class JieTable {
+    private final long[] instants;
+    private final int[] orders;
+    private final int[] years;
+    private final long minMinute;
+    private final long maxMinute;
+
+    private JieTable(long[] instants, int[] orders, int[] years) {
+      this.instants = instants;
+      this.orders = orders;
+      this.years = years;
+      boolean valid = instants.length > 0;
+      this.minMinute =
+          valid
+              ? Math.max(
+                  Math.floorDiv(instants[0], 60) + 1,
+                  SolarTimeUtils.epochDay(MIN_YEAR, 1, 1) * MINUTES_PER_DAY)
+              : Long.MAX_VALUE;
+      this.maxMinute =
+          valid
+              ? Math.min(
+                  Math.floorDiv(instants[instants.length - 1], 60),
+                  SolarTimeUtils.epochDay(MAX_YEAR + 1, 1, 1) * MINUTES_PER_DAY)
+              : Long.MIN_VALUE;
+    }
+
+    /** 由 lunar-java 节气表生成 1900-2101 年的十二节交节时刻，并校验节序连续 */
+    private static JieTable build() {
+      TreeMap<Long, Integer> jie = new TreeMap<>();
+      for (int year = MIN_YEAR - 1; year <= MAX_YEAR + 1; year++) {
+        // 农历年节气表首尾跨到相邻公历年，只取本公历年内的交节，避免相邻年份重复
+        int gregorianYear = year;
+        Lunar.fromYmd(year, 6, 1)
+            .getJieQiTable()
+            .forEach(
+                (name, solar) -> {
+                  Integer order = JIE_ORDER.get(name);
+                  if (order != null && solar.getYear() == gregorianYear) {
+                    jie.put(epochSecond(solar), order);
+                  }
+                });
+      }
+
+      int size = jie.size();
+      long[] instants = new long[size];
+      int[] orders = new int[size];
+      int[] years = new int[size];
+      int i = 0;
+      for (Map.Entry<Long, Integer> entry : jie.entrySet()) {
+        instants[i] = entry.getKey();
+        orders[i] = entry.getValue();
+        // 立春所在公历年即干支年；小寒在公历一月，仍属上一干支年
+        int instantYear = SolarTimeUtils.year(Math.floorDiv(instants[i], 60));
+        years[i] = orders[i] == 11 ? instantYear - 1 : instantYear;
+        if (i > 0 && (orders[i] != (orders[i - 1] + 1) % 12 || years[i] < years[i - 1])) {
+          log.warn(
+              "Jie table out of order at {} ({} -> {}), four pillars fall back to lunar-java",
+              entry.getKey(),
+              orders[i - 1],
+              orders[i]);
+          return new JieTable(new long[0], new int[0], new int[0]);
+        }
+        i++;
+      }
+      return new JieTable(instants, orders, years);
+    }
+
+    private static long epochSecond(Solar solar) {
+      return SolarTimeUtils.epochDay(solar.getYear(), solar.getMonth(), solar.getDay()) * 86400L
+          + solar.getHour() * 3600L
+          + solar.getMinute() * 60L
+          + solar.getSecond();
+    }
+
+    /** 干支年的十二个交节时刻 (纪元秒)，不在表内返回 null */
+    private long[] jieSeconds(int year) {
+      // 立春总在公历 2 月初，从 1 月 1 日起向后找该干支年的立春
+      int index = Arrays.binarySearch(instants, SolarTimeUtils.epochDay(year, 1, 1) * 86400L);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      while (index < orders.length && orders[index] != 0) {
+        index++;
+      }
+      if (index + 12 > orders.length || years[index] != year) {
+        return null;
+      }
+      return Arrays.copyOfRange(instants, index, index + 12);
+    }
+
+    /** 由 lunar-java 节气表取交节时刻 (交节表不可用时) */
+    private static long[] jieSecondsFromLunar(int year) {
+      // 农历年节气表中次年小寒以拼音 XIAO_HAN 为键
+      Map<String, Solar> table = Lunar.fromYmd(year, 6, 1).getJieQiTable();
+      long[] seconds = new long[12];
+      for (int i = 0; i < 12; i++) {
+        seconds[i] = epochSecond(table.get(i == 11 ? "XIAO_HAN" : JIE_NAMES.get(i)));
+      }
+      return seconds;
+    }
+
+    private boolean covers(long minute) {
+      return minute >= minMinute && minute < maxMinute;
+    }
+
+    /** 表内日期返回四柱，表外返回 null */
+    private Pillars compute(long minute) {
+      if (!covers(minute)) {
+        return null;
+      }
+
+      // 最后一个不晚于出生时刻 (该分钟第 0 秒) 的交节，交节所在分钟除非交节恰在第 0 秒，否则仍属上月
+      int index = Arrays.binarySearch(instants, minute * 60);
+      if (index < 0) {
+        index = -index - 2;
+      }
+      int year = Math.floorMod(years[index] - 4, 60);
+      int month = monthJiaZi(year, orders[index]);
+
+      // 晚子时 (23 点) 日柱算明天
+      long epochDay = Math.floorDiv(minute, MINUTES_PER_DAY);
+      int hourOfDay = SolarTimeUtils.hour(minute);
+      int day = dayJiaZi(hourOfDay >= 23 ? epochDay + 1 : epochDay);
+
+      // 五鼠遁: 甲己还加甲，乙庚丙作初 ...
+      int hourBranch = (hourOfDay + 1) / 2 % 12;
+      int hourStem = ((day % 10) % 5 * 2 + hourBranch) % 10;
+      return new Pillars(year, month, day, BaziDef.jiaZiIndex(hourStem, hourBranch));
+    }
+  }
+}
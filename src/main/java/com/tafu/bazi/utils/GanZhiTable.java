@@ -0,0 +1,62 @@
+package com.tafu.bazi.utils;
+
+import com.tafu.bazi.model.BaziDef;
+
+/**
+ * GanZhiTable
+ *
+ * <p>描述: 流年干支预计算表。类加载时按六十甲子周期一次性生成 1901-2100 年 (lunar-java 支持范围) 的年干支， 排盘时流年直接按数组下标取值，不再逐年构造
+ * Solar/Lunar 对象。
+ *
+ * <p>规则: 流年以立春为界，年中 (立春之后) 的年干支序号为 (year - 4) mod 60，与 lunar-java 的 getYearInGanZhiExact 一致。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class GanZhiTable {
+
+  /** 支持的最小年份 (与 lunar-java 一致) */
+  public static final int MIN_YEAR = 1901;
+
+  /** 支持的最大年份 (与 lunar-java 一致) */
+  public static final int MAX_YEAR = 2100;
+
+  private static final int SIZE = MAX_YEAR - MIN_YEAR + 1;
+
+  private static final String[] YEAR_GAN_ZHI = new String[SIZE];
+  private static final String[] YEAR_GAN = new String[SIZE];
+  private static final String[] YEAR_ZHI = new String[SIZE];
+
+  static {
+    for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+      int index = Math.floorMod(year - 4, 60);
+      YEAR_GAN_ZHI[year - MIN_YEAR] = BaziDef.JIA_ZI[index];
+      YEAR_GAN[year - MIN_YEAR] = BaziDef.STEMS[index % 10];
+      YEAR_ZHI[year - MIN_YEAR] = BaziDef.BRANCHES[index % 12];
+    }
+  }
+
+  private GanZhiTable() {}
+
+  /** 年份是否在预计算范围内 */
+  public static boolean isSupported(int year) {
+    return year >= MIN_YEAR && year <= MAX_YEAR;
+  }
+
+  /** 获取流年干支 (如"甲辰")，超出范围返回 null */
+  public static String yearGanZhi(int year) {
+    return isSupported(year) ? YEAR_GAN_ZHI[year - MIN_YEAR] : null;
+  }
+
+  /** 获取流年天干，超出范围返回 null */
+  public static String yearGan(int year) {
+    return isSupported(year) ? YEAR_GAN[year - MIN_YEAR] : null;
+  }
+
+  /** 获取流年地支，超出范围返回 null */
+  public static String yearZhi(int year) {
+    return isSupported(year) ? YEAR_ZHI[year - MIN_YEAR] : null;
+  }
+}
@@ -0,0 +1,145 @@
+package com.tafu.bazi.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.utils.LunarUtils.CityGeoItem;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GeoDataCodec
+ *
+ * <p>描述: 城市地理数据的紧凑二进制格式。构建时 (Maven process-classes 阶段) 由 main 方法把 city-geo-data.json 转换为
+ * city-geo-data.bin，运行时一次性读入字节数组后批量解码，省去 JSON 解析和逐条 CityGeoItem 对象。
+ *
+ * <p>格式 (大端): magic, version, 名称表 (去重后的省/市/区名称，UTF-8 长度前缀), 条目数, 省/市/区名称下标数组 (-1 表示 null), 经度数组,
+ * 纬度数组 (无法解析的坐标为 NaN)。国家与行政区划代码运行时不使用，不写入。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class GeoDataCodec {
+
+  /** 二进制资源名 (classpath) */
+  public static final String RESOURCE = "city-geo-data.bin";
+
+  private static final int MAGIC = 0x47454F44; // "GEOD"
+  private static final int VERSION = 1;
+
+  private GeoDataCodec() {}
+
+  /**
+   * 构建时转换入口
+   *
+   * @param args [0] 输入 JSON 路径 [1] 输出二进制路径
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: GeoDataCodec <city-geo-data.json> <output.bin>");
+    }
+    List<CityGeoItem> items =
+        new ObjectMapper()
+            .readValue(Path.of(args[0]).toFile(), new TypeReference<List<CityGeoItem>>() {});
+    Path output = Path.of(args[1]);
+    try (OutputStream out = Files.newOutputStream(output)) {
+      write(items, out);
+    }
+    System.out.printf(
+        "GeoDataCodec: %d items -> %s (%d bytes)%n", items.size(), output, Files.size(output));
+  }
+
+  /** 写出二进制格式 */
+  public static void write(List<CityGeoItem> items, OutputStream output) throws IOException {
+    Map<String, Integer> names = new LinkedHashMap<>();
+    int size = items.size();
+    int[] provinceRefs = new int[size];
+    int[] cityRefs = new int[size];
+    int[] areaRefs = new int[size];
+    for (int i = 0; i < size; i++) {
+      CityGeoItem item = items.get(i);
+      provinceRefs[i] = nameRef(names, item.getProvince());
+      cityRefs[i] = nameRef(names, item.getCity());
+      areaRefs[i] = nameRef(names, item.getArea());
+    }
+
+    DataOutputStream out = new DataOutputStream(output);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(names.size());
+    for (String name : names.keySet()) {
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    out.writeInt(size);
+    for (int[] refs : new int[][] {provinceRefs, cityRefs, areaRefs}) {
+      for (int ref : refs) {
+        out.writeInt(ref);
+      }
+    }
+    for (CityGeoItem item : items) {
+      out.writeDouble(GeoIndex.parseCoordinate(item.getLng()));
+    }
+    for (CityGeoItem item : items) {
+      out.writeDouble(GeoIndex.parseCoordinate(item.getLat()));
+    }
+    out.flush();
+  }
+
+  /** 读取二进制格式并构建索引 */
+  static GeoIndex read(InputStream input) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(input.readAllBytes());
+    if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      throw new IOException("Unsupported geo data format");
+    }
+
+    String[] names = new String[buffer.getInt()];
+    for (int i = 0; i < names.length; i++) {
+      int length = buffer.getInt();
+      names[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + length);
+    }
+
+    int size = buffer.getInt();
+    String[] provinces = resolveNames(buffer, names, size);
+    String[] cities = resolveNames(buffer, names, size);
+    String[] areas = resolveNames(buffer, names, size);
+    double[] longitudes = new double[size];
+    double[] latitudes = new double[size];
+    buffer.asDoubleBuffer().get(longitudes).get(latitudes);
+    return new GeoIndex(provinces, cities, areas, longitudes, latitudes);
+  }
+
+  private static int nameRef(Map<String, Integer> names, String name) {
+    if (name == null) return -1;
+    Integer ref = names.get(name);
+    if (ref == null) {
+      ref = names.size();
+      names.put(name, ref);
+    }
+    return ref;
+  }
+
+  /** 批量读取一组名称下标并映射到共享的名称实例 */
+  private static String[] resolveNames(ByteBuffer buffer, String[] names, int size) {
+    int[] refs = new int[size];
+    buffer.asIntBuffer().get(refs);
+    buffer.position(buffer.position() + size * Integer.BYTES);
+    String[] result = new String[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = refs[i] < 0 ? null : names[refs[i]];
+    }
+    return result;
+  }
+}
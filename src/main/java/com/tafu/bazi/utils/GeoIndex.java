@@ -0,0 +1,253 @@
+package com.tafu.bazi.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.utils.LocationMatcher.Level;
+import com.tafu.bazi.utils.LunarUtils.CityGeoItem;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * GeoIndex
+ *
+ * <p>描述: 城市地理数据索引，持有城市地理数据的唯一一份 (优先读取构建时生成的 city-geo-data.bin，缺失时回退到 city-geo-data.json；
+ * JSON 不打入 jar，回退仅用于未经 Maven 构建的 IDE 运行与测试)。经纬度在加载时解析为
+ * double 数组，并建立 (省, 市, 区) 与 (省, 市) 复合键索引、单级名称子串索引以及经度匹配器 (LocationMatcher)，经度查询与 /bazi/coordinates
+ * 查询均为常数次哈希查找。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+public final class GeoIndex {
+
+  /** 默认经度 (北京) */
+  public static final double DEFAULT_LONGITUDE = 116.4;
+
+  /** 默认纬度 (北京) */
+  public static final double DEFAULT_LATITUDE = 39.9;
+
+  // 额外补充数据 (from geo-utils.ts)
+  private static final Map<String, Double> EXTRA_LONGITUDES =
+      Map.ofEntries(
+          Map.entry("香港特别行政区", 114.2),
+          Map.entry("澳门特别行政区", 113.5),
+          Map.entry("台湾省", 121.5),
+          Map.entry("金门县", 118.3774),
+          Map.entry("澳门半岛", 113.5429)
+          // ... simplified list, add more if critically needed
+          );
+
+  private final double[] longitudes;
+  private final double[] latitudes;
+
+  /** (省, 市, 区) -> 首个条目序号 */
+  private final Map<PathKey, Integer> areaPaths = new HashMap<>();
+
+  /** (省, 市) -> 首个条目序号 */
+  private final Map<PathKey, Integer> cityPaths = new HashMap<>();
+
+  /** 省/市/区名称的任意子串 -> 首个包含该子串的条目序号 */
+  private final Map<String, Integer> nameSubstrings = new HashMap<>();
+
+  private final LocationMatcher locationMatcher;
+
+  private record PathKey(String province, String city, String area) {}
+
+  private static final class Holder {
+    private static final GeoIndex INSTANCE = load();
+  }
+
+  GeoIndex(
+      String[] provinces,
+      String[] cities,
+      String[] areas,
+      double[] longitudes,
+      double[] latitudes) {
+    this.longitudes = longitudes;
+    this.latitudes = latitudes;
+
+    Map<String, Double> areaIndex = new HashMap<>();
+    Map<String, Double> cityIndex = new HashMap<>();
+    Map<String, Double> provinceIndex = new HashMap<>();
+    for (int i = 0; i < longitudes.length; i++) {
+      areaPaths.putIfAbsent(new PathKey(provinces[i], cities[i], areas[i]), i);
+      cityPaths.putIfAbsent(new PathKey(provinces[i], cities[i], null), i);
+      for (String name : new String[] {areas[i], cities[i], provinces[i]}) {
+        if (name == null) {
+          continue;
+        }
+        nameSubstrings.putIfAbsent("", i);
+        for (int from = 0; from < name.length(); from++) {
+          for (int to = from + 1; to <= name.length(); to++) {
+            nameSubstrings.putIfAbsent(name.substring(from, to), i);
+          }
+        }
+      }
+
+      if (!Double.isNaN(longitudes[i])) {
+        provinceIndex.putIfAbsent(provinces[i], longitudes[i]);
+        cityIndex.putIfAbsent(cities[i], longitudes[i]);
+        areaIndex.putIfAbsent(areas[i], longitudes[i]);
+      }
+    }
+
+    EXTRA_LONGITUDES.forEach(
+        (name, lng) -> {
+          areaIndex.putIfAbsent(name, lng);
+          cityIndex.putIfAbsent(name, lng);
+          if (name.matches(".*(省|自治区|特别行政区)$")) {
+            provinceIndex.putIfAbsent(name, lng);
+          }
+        });
+
+    locationMatcher =
+        LocationMatcher.compile(
+            areas,
+            cities,
+            longitudes,
+            Map.of(Level.AREA, areaIndex, Level.CITY, cityIndex, Level.PROVINCE, provinceIndex),
+            DEFAULT_LONGITUDE);
+  }
+
+  /** 全局实例，首次使用时加载 */
+  public static GeoIndex getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /** 优先读取构建时生成的二进制数据，不存在或损坏时回退到 JSON (如 IDE 直接运行未经过 Maven 构建) */
+  private static GeoIndex load() {
+    ClassPathResource binary = new ClassPathResource(GeoDataCodec.RESOURCE);
+    if (binary.exists()) {
+      try (InputStream input = binary.getInputStream()) {
+        return GeoDataCodec.read(input);
+      } catch (IOException | RuntimeException e) {
+        log.warn(
+            "Failed to load {}, falling back to JSON: {}", GeoDataCodec.RESOURCE, e.getMessage());
+      }
+    }
+
+    List<CityGeoItem> items = Collections.emptyList();
+    try {
+      ClassPathResource resource = new ClassPathResource("city-geo-data.json");
+      if (resource.exists()) {
+        items =
+            new ObjectMapper()
+                .readValue(resource.getInputStream(), new TypeReference<List<CityGeoItem>>() {});
+      } else {
+        log.warn("city-geo-data.json not found in classpath");
+      }
+    } catch (IOException e) {
+      log.error("Failed to load city-geo-data.json", e);
+    }
+    return of(items);
+  }
+
+  /** 由 JSON 条目构建索引，经纬度无法解析的记为 NaN */
+  static GeoIndex of(List<CityGeoItem> items) {
+    int size = items.size();
+    String[] provinces = new String[size];
+    String[] cities = new String[size];
+    String[] areas = new String[size];
+    double[] longitudes = new double[size];
+    double[] latitudes = new double[size];
+    for (int i = 0; i < size; i++) {
+      CityGeoItem item = items.get(i);
+      provinces[i] = item.getProvince();
+      cities[i] = item.getCity();
+      areas[i] = item.getArea();
+      longitudes[i] = parseCoordinate(item.getLng());
+      latitudes[i] = parseCoordinate(item.getLat());
+    }
+    return new GeoIndex(provinces, cities, areas, longitudes, latitudes);
+  }
+
+  /** 解析坐标字符串，无法解析时返回 NaN */
+  static double parseCoordinate(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException | NullPointerException e) {
+      return Double.NaN;
+    }
+  }
+
+  /** 条目数 */
+  public int size() {
+    return longitudes.length;
+  }
+
+  /**
+   * 获取城市经度 (省市区三级匹配，含后缀变换与模糊匹配)
+   *
+   * @param location 地点字符串
+   * @return 经度，未匹配返回默认经度
+   */
+  public double longitude(String location) {
+    if (location == null || location.isBlank()) return DEFAULT_LONGITUDE;
+
+    // 尝试按 "/" 分割（三级结构）
+    String[] parts = location.split("/");
+
+    if (parts.length >= 3) {
+      double lng = locationMatcher.findByName(parts[2].trim(), Level.AREA);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+
+    if (parts.length >= 2) {
+      double lng = locationMatcher.findByName(parts[1].trim(), Level.CITY);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+
+    if (parts.length >= 1) {
+      String name = parts[0].trim();
+      double lng = locationMatcher.findByName(name, Level.AREA);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+
+      lng = locationMatcher.findByName(name, Level.CITY);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+
+      lng = locationMatcher.findByName(name, Level.PROVINCE);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+
+    // 最后尝试模糊匹配
+    return locationMatcher.fuzzyMatch(location);
+  }
+
+  /**
+   * 按 "省/市/区"、"省/市" 精确匹配，或按单级名称包含匹配 (区、市、省任一包含即命中)
+   *
+   * @param location 地点字符串
+   * @return 首个匹配条目序号，未找到返回 -1
+   */
+  public int find(String location) {
+    if (location == null) return -1;
+    String[] parts = location.split("/");
+    Integer index =
+        switch (parts.length) {
+          case 3 -> areaPaths.get(new PathKey(parts[0].trim(), parts[1].trim(), parts[2].trim()));
+          case 2 -> cityPaths.get(new PathKey(parts[0].trim(), parts[1].trim(), null));
+          case 1 -> nameSubstrings.get(parts[0].trim());
+          default -> null;
+        };
+    return index != null ? index : -1;
+  }
+
+  /** 条目经度，无法解析时为 NaN */
+  public double longitudeAt(int index) {
+    return longitudes[index];
+  }
+
+  /** 条目纬度，无法解析时为 NaN */
+  public double latitudeAt(int index) {
+    return latitudes[index];
+  }
+}
@@ -0,0 +1,274 @@
+package com.tafu.bazi.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * LocationMatcher
+ *
+ * <p>描述: 预编译的地点经度匹配器。启动时把省/市/区名称索引与后缀变换 (市/区/县/地区/州/盟 的追加、去除、替换) 展开为一次哈希查找，并为模糊匹配构建区/市名称的
+ * Aho-Corasick 自动机 (地点包含名称) 与名称子串表 (名称包含地点)，查询耗时只与输入长度相关，不再逐条扫描城市数据。
+ *
+ * <p>规则: 匹配优先级与原逐条扫描实现一致: 按城市数据顺序，同一条目先区后市，取最靠前的命中条目。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class LocationMatcher {
+
+  /** 名称查找层级 */
+  public enum Level {
+    AREA,
+    CITY,
+    PROVINCE
+  }
+
+  private static final String[] SUFFIXES = {"市", "区", "县", "地区", "州", "盟"};
+
+  private static final int NO_MATCH = Integer.MAX_VALUE;
+
+  private final double defaultLongitude;
+
+  /** 各层级: 查询名称 -> 经度 (已按原后缀变换顺序解析) */
+  private final Map<Level, Map<String, Double>> nameIndexes;
+
+  /** 模糊匹配: 条目经度，下标为条目序号 (经度无法解析的条目为 NaN) */
+  private final double[] itemLongitudes;
+
+  /** 模糊匹配: 名称子串 -> 包含该子串的最靠前名称的优先级 */
+  private final Map<String, Integer> substringRanks;
+
+  /** 模糊匹配: 空名称的优先级 (任意地点都包含空串) */
+  private final int emptyNameRank;
+
+  private final Node root;
+
+  private LocationMatcher(
+      double defaultLongitude,
+      Map<Level, Map<String, Double>> nameIndexes,
+      double[] itemLongitudes,
+      Map<String, Integer> substringRanks,
+      int emptyNameRank,
+      Node root) {
+    this.defaultLongitude = defaultLongitude;
+    this.nameIndexes = nameIndexes;
+    this.itemLongitudes = itemLongitudes;
+    this.substringRanks = substringRanks;
+    this.emptyNameRank = emptyNameRank;
+    this.root = root;
+  }
+
+  /**
+   * 编译匹配器
+   *
+   * @param areas 各条目区县名，条目顺序即模糊匹配优先级
+   * @param cities 各条目城市名
+   * @param longitudes 各条目经度 (无法解析的为 NaN，不参与模糊匹配)
+   * @param indexes 各层级的名称 -> 经度索引
+   * @param defaultLongitude 未匹配时返回的默认经度
+   * @return 匹配器
+   */
+  public static LocationMatcher compile(
+      String[] areas,
+      String[] cities,
+      double[] longitudes,
+      Map<Level, Map<String, Double>> indexes,
+      double defaultLongitude) {
+    Map<Level, Map<String, Double>> nameIndexes = new HashMap<>();
+    for (Level level : Level.values()) {
+      Map<String, Double> index = indexes.getOrDefault(level, Collections.emptyMap());
+      nameIndexes.put(level, expandSuffixes(index, defaultLongitude));
+    }
+
+    // 优先级: 第 i 条的区名为 2i，市名为 2i+1，数值越小越优先
+    Map<String, Integer> substringRanks = new HashMap<>();
+    Map<String, Integer> nameRanks = new HashMap<>();
+    int emptyNameRank = NO_MATCH;
+    for (int i = 0; i < longitudes.length; i++) {
+      if (Double.isNaN(longitudes[i])) {
+        continue;
+      }
+      String[] names = {areas[i], cities[i]};
+      for (int j = 0; j < names.length; j++) {
+        String name = names[j];
+        if (name == null) {
+          continue;
+        }
+        int rank = 2 * i + j;
+        if (name.isEmpty()) {
+          emptyNameRank = Math.min(emptyNameRank, rank);
+          continue;
+        }
+        nameRanks.putIfAbsent(name, rank);
+        for (int from = 0; from < name.length(); from++) {
+          for (int to = from + 1; to <= name.length(); to++) {
+            substringRanks.putIfAbsent(name.substring(from, to), rank);
+          }
+        }
+      }
+    }
+
+    return new LocationMatcher(
+        defaultLongitude,
+        nameIndexes,
+        longitudes,
+        substringRanks,
+        emptyNameRank,
+        buildAutomaton(nameRanks));
+  }
+
+  /**
+   * 按名称查找经度 (含后缀变换)
+   *
+   * @param name 名称 (已去除首尾空白)
+   * @param level 查找层级
+   * @return 经度，未找到返回默认经度
+   */
+  public double findByName(String name, Level level) {
+    if (name == null || name.isBlank()) return defaultLongitude;
+    return nameIndexes.get(level).getOrDefault(name, defaultLongitude);
+  }
+
+  /**
+   * 模糊匹配: 地点包含区/市名称，或区/市名称包含地点
+   *
+   * @param location 原始地点字符串
+   * @return 最靠前命中条目的经度，未命中返回默认经度
+   */
+  public double fuzzyMatch(String location) {
+    int best = Math.min(emptyNameRank, substringRanks.getOrDefault(location, NO_MATCH));
+    Node state = root;
+    for (int i = 0; i < location.length(); i++) {
+      state = state.next(location.charAt(i));
+      best = Math.min(best, state.rank);
+    }
+    return best == NO_MATCH ? defaultLongitude : itemLongitudes[best / 2];
+  }
+
+  /**
+   * 展开后缀变换: 枚举所有可能命中索引的查询名称，按原查找顺序解析一次
+   *
+   * <p>原顺序: 1. 原名 2. 追加后缀 3. 去除后缀，再替换为其他后缀
+   */
+  private static Map<String, Double> expandSuffixes(
+      Map<String, Double> index, double defaultLongitude) {
+    Map<String, Double> expanded = new HashMap<>();
+    for (String key : index.keySet()) {
+      List<String> candidates = new ArrayList<>();
+      candidates.add(key);
+      for (String suffix : SUFFIXES) {
+        candidates.add(key + suffix);
+        if (key.endsWith(suffix)) {
+          String base = key.substring(0, key.length() - suffix.length());
+          candidates.add(base);
+          for (String other : SUFFIXES) {
+            candidates.add(base + other);
+          }
+        }
+      }
+      for (String candidate : candidates) {
+        if (candidate.isBlank() || expanded.containsKey(candidate)) {
+          continue;
+        }
+        double lng = resolveBySuffix(candidate, index, defaultLongitude);
+        if (lng != defaultLongitude) {
+          expanded.put(candidate, lng);
+        }
+      }
+    }
+    return expanded;
+  }
+
+  private static double resolveBySuffix(
+      String name, Map<String, Double> index, double defaultLongitude) {
+    if (index.containsKey(name)) return index.get(name);
+
+    // 尝试添加后缀
+    for (String suffix : SUFFIXES) {
+      if (!name.endsWith(suffix)) {
+        if (index.containsKey(name + suffix)) return index.get(name + suffix);
+      }
+    }
+
+    // 尝试移除后缀
+    for (String suffix : SUFFIXES) {
+      if (name.endsWith(suffix)) {
+        String withoutSuffix = name.substring(0, name.length() - suffix.length());
+        if (index.containsKey(withoutSuffix)) return index.get(withoutSuffix);
+        // 替换后缀
+        for (String otherSuffix : SUFFIXES) {
+          if (!otherSuffix.equals(suffix)) {
+            if (index.containsKey(withoutSuffix + otherSuffix))
+              return index.get(withoutSuffix + otherSuffix);
+          }
+        }
+      }
+    }
+
+    return defaultLongitude;
+  }
+
+  /** 构建 Aho-Corasick 自动机，节点 rank 为沿失配链可达的所有名称中的最小优先级 */
+  private static Node buildAutomaton(Map<String, Integer> nameRanks) {
+    Node root = new Node();
+    nameRanks.forEach(
+        (name, rank) -> {
+          Node node = root;
+          for (int i = 0; i < name.length(); i++) {
+            node = node.children.computeIfAbsent(name.charAt(i), c -> new Node());
+          }
+          node.rank = Math.min(node.rank, rank);
+        });
+
+    root.fail = root;
+    Queue<Node> queue = new ArrayDeque<>();
+    for (Node child : root.children.values()) {
+      child.fail = root;
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      Node node = queue.poll();
+      node.rank = Math.min(node.rank, node.fail.rank);
+      for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+        Node child = entry.getValue();
+        Node fail = node.fail;
+        while (fail != root && !fail.children.containsKey(entry.getKey())) {
+          fail = fail.fail;
+        }
+        Node target = fail.children.get(entry.getKey());
+        child.fail = target != null ? target : root;
+        queue.add(child);
+      }
+    }
+    return root;
+  }
+
+  /** 自动机节点 */
+  private static final class Node {
+    private final Map<Character, Node> children = new HashMap<>();
+    private Node fail;
+    private int rank = NO_MATCH;
+
+    /** 状态转移 (沿失配链回退) */
+    private Node next(char c) {
+      Node node = this;
+      while (true) {
+        Node child = node.children.get(c);
+        if (child != null) {
+          return child;
+        }
+        if (node.fail == node) {
+          return node;
+        }
+        node = node.fail;
+      }
+    }
+  }
+}
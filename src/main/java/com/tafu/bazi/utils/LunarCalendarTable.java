@@ -0,0 +1,154 @@
+package com.tafu.bazi.utils;
+
+import com.nlf.calendar.LunarMonth;
+import com.nlf.calendar.LunarYear;
+import com.nlf.calendar.Solar;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LunarCalendarTable
+ *
+ * <p>描述: 农历月表。预计算 1900-2100 年每个农历月初一的纪元日与闰月，农历换公历、查闰月直接按下标取值，不再逐次构造
+ * LunarYear/LunarMonth 对象。
+ *
+ * <p>规则: 月份以负数表示闰月 (与 lunar-java 一致)，每年的月初一按时间顺序排列，闰月紧跟同名正常月之后。表在首次使用时由 lunar-java
+ * 生成一次；某年月数与闰月不符时该年不入表，调用方回退到 lunar-java。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+@Slf4j
+public final class LunarCalendarTable {
+
+  /** 支持的最小农历年 */
+  public static final int MIN_YEAR = 1900;
+
+  /** 支持的最大农历年 */
+  public static final int MAX_YEAR = 2100;
+
+  /** 儒略日 2440587.5 为 1970-01-01 0 时 */
+  private static final double EPOCH_JULIAN_DAY = 2440587.5;
+
+  private LunarCalendarTable() {}
+
+  /** 月表，首次使用时构建 */
+  private static final class Holder {
+    /** 每年各月初一的纪元日，末尾多一项为次年正月初一 (即最后一个月的结束)；不入表的年份为 null */
+    private static final int[][] STARTS = new int[MAX_YEAR - MIN_YEAR + 1][];
+
+    /** 每年的闰月 (0 表示无闰月) */
+    private static final int[] LEAP = new int[MAX_YEAR - MIN_YEAR + 1];
+
+    static {
+      for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+        LunarYear lunarYear = LunarYear.fromYear(year);
+        // LunarYear 的月份列表首尾含相邻农历年的月份，只取本年
+        List<LunarMonth> months = new ArrayList<>();
+        for (LunarMonth month : lunarYear.getMonths()) {
+          if (month.getYear() == year) {
+            months.add(month);
+          }
+        }
+
+        int leap = lunarYear.getLeapMonth();
+        if (months.size() != (leap > 0 ? 13 : 12)) {
+          log.warn("Lunar year {} has {} months (leap {}), skipped", year, months.size(), leap);
+          continue;
+        }
+        int[] starts = new int[months.size() + 1];
+        for (int i = 0; i < months.size(); i++) {
+          // lunar-java 的月初儒略日取当日正午，向下取整即为当日
+          starts[i] = (int) Math.floor(months.get(i).getFirstJulianDay() - EPOCH_JULIAN_DAY);
+        }
+        LunarMonth last = months.get(months.size() - 1);
+        starts[months.size()] = starts[months.size() - 1] + last.getDayCount();
+        STARTS[year - MIN_YEAR] = starts;
+        LEAP[year - MIN_YEAR] = leap;
+      }
+    }
+  }
+
+  /** 农历年是否在表内 */
+  public static boolean isSupported(int lunarYear) {
+    return lunarYear >= MIN_YEAR
+        && lunarYear <= MAX_YEAR
+        && Holder.STARTS[lunarYear - MIN_YEAR] != null;
+  }
+
+  /**
+   * 获取闰月
+   *
+   * @param lunarYear 农历年，须在表内
+   * @return 闰月月份 (0 表示无闰月)
+   */
+  public static int leapMonth(int lunarYear) {
+    return Holder.LEAP[lunarYear - MIN_YEAR];
+  }
+
+  /**
+   * 各月初一的纪元日
+   *
+   * @param lunarYear 农历年，须在表内
+   * @return 12 或 13 个月的初一纪元日 (按时间顺序)，末尾多一项为次年正月初一
+   */
+  public static int[] monthStarts(int lunarYear) {
+    int[] starts = Holder.STARTS[lunarYear - MIN_YEAR];
+    return Arrays.copyOf(starts, starts.length);
+  }
+
+  /**
+   * 农历日期换算为公历纪元日
+   *
+   * <p>校验规则与 Lunar.fromYmd 一致: 月份不存在 (含非闰月) 或日期超出当月天数时抛出 IllegalArgumentException。
+   *
+   * @param lunarYear 农历年，须在表内
+   * @param lunarMonth 农历月，闰月为负数
+   * @param lunarDay 农历日
+   * @return 纪元日
+   */
+  public static long toEpochDay(int lunarYear, int lunarMonth, int lunarDay) {
+    int[] starts = Holder.STARTS[lunarYear - MIN_YEAR];
+    int leap = Holder.LEAP[lunarYear - MIN_YEAR];
+    int month = Math.abs(lunarMonth);
+    if (month < 1 || month > 12 || (lunarMonth < 0 && month != leap)) {
+      throw new IllegalArgumentException(
+          String.format("wrong lunar year %d month %d", lunarYear, lunarMonth));
+    }
+    if (lunarDay < 1) {
+      throw new IllegalArgumentException("lunar day must bigger than 0");
+    }
+
+    // 闰月排在同名正常月之后，闰月及其后的月份下标加一
+    int index = lunarMonth < 0 || (leap > 0 && month > leap) ? month : month - 1;
+    int days = starts[index + 1] - starts[index];
+    if (lunarDay > days) {
+      throw new IllegalArgumentException(
+          String.format("only %d days in lunar year %d month %d", days, lunarYear, lunarMonth));
+    }
+    return starts[index] + lunarDay - 1L;
+  }
+
+  /** 由 lunar-java 逐次换算 (表外年份)，返回纪元日 */
+  public static long toEpochDayFromLunar(int lunarYear, int lunarMonth, int lunarDay) {
+    LunarMonth month = LunarMonth.fromYm(lunarYear, lunarMonth);
+    if (month == null) {
+      throw new IllegalArgumentException(
+          String.format("wrong lunar year %d month %d", lunarYear, lunarMonth));
+    }
+    if (lunarDay < 1) {
+      throw new IllegalArgumentException("lunar day must bigger than 0");
+    }
+    int days = month.getDayCount();
+    if (lunarDay > days) {
+      throw new IllegalArgumentException(
+          String.format("only %d days in lunar year %d month %d", days, lunarYear, lunarMonth));
+    }
+    Solar solar = Solar.fromJulianDay(month.getFirstJulianDay() + lunarDay - 1);
+    return SolarTimeUtils.epochDay(solar.getYear(), solar.getMonth(), solar.getDay());
+  }
+}
@@ -0,0 +1,89 @@
+package com.tafu.bazi.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PillarSearch
+ *
+ * <p>描述: 四柱反查。给定年、月、日、时四柱，返回 1901-2100 年内所有四柱相符的出生时段 (真太阳时)，不逐时排盘。
+ *
+ * <p>规则: 年柱每 60 年重复一次，确定候选干支年；月支确定节序号，在交节时刻表上取该月起止时刻；日柱按纪元日取模 60
+ * 每 60 天重复一次，月内至多一天；时支确定当日两小时时段 (子时为前一日 23 点至当日 1 点，晚子时日柱算明天)，与月份起止求交。
+ * 月干不符五虎遁、时干不符五鼠遁的组合不存在，返回空。与 FourPillarsEngine (即 EightChar setSect(1)) 的排盘结果互逆。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class PillarSearch {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private PillarSearch() {}
+
+  /**
+   * 四柱相符的时段 (真太阳时纪元分钟，左闭右开)
+   *
+   * @param startMinute 起始纪元分钟 (含)
+   * @param endMinute 结束纪元分钟 (不含)
+   */
+  public record Window(long startMinute, long endMinute) {}
+
+  /**
+   * 反查四柱
+   *
+   * @param year 年柱六十甲子序号
+   * @param month 月柱六十甲子序号
+   * @param day 日柱六十甲子序号
+   * @param hour 时柱六十甲子序号
+   * @return 按时间升序的相符时段，组合不存在时为空
+   */
+  public static List<Window> search(int year, int month, int day, int hour) {
+    List<Window> windows = new ArrayList<>();
+    int order = Math.floorMod(month % 12 - 2, 12);
+    int hourBranch = hour % 12;
+    if (FourPillarsEngine.monthJiaZi(year, order) != month
+        || ((day % 10) % 5 * 2 + hourBranch) % 10 != hour % 10) {
+      return windows;
+    }
+
+    long minMinute = SolarTimeUtils.epochDay(FourPillarsEngine.MIN_YEAR, 1, 1) * MINUTES_PER_DAY;
+    long maxMinute =
+        SolarTimeUtils.epochDay(FourPillarsEngine.MAX_YEAR + 1, 1, 1) * MINUTES_PER_DAY;
+
+    // 1901 年立春前属 1900 干支年，从 1900 年起找首个年柱相符的干支年
+    int firstYear = FourPillarsEngine.MIN_YEAR - 1;
+    firstYear += Math.floorMod(year - (firstYear - 4), 60);
+    for (int ganZhiYear = firstYear; ganZhiYear <= FourPillarsEngine.MAX_YEAR; ganZhiYear += 60) {
+      // 月份起止: 交节秒向上取整到分，交节所在分钟除非交节恰在第 0 秒，否则仍属上月
+      long[] jie = FourPillarsEngine.jieSeconds(ganZhiYear);
+      long monthStart = Math.max(Math.ceilDiv(jie[order], 60), minMinute);
+      long monthEnd =
+          order < 11
+              ? Math.ceilDiv(jie[order + 1], 60)
+              : ganZhiYear < FourPillarsEngine.MAX_YEAR
+                  ? Math.ceilDiv(FourPillarsEngine.jieSeconds(ganZhiYear + 1)[0], 60)
+                  : maxMinute;
+      monthEnd = Math.min(monthEnd, maxMinute);
+
+      // 月内日柱相符的日子 (时段可能从前一日 23 点开始，故从前一日起找)
+      long firstDay = Math.floorDiv(monthStart, MINUTES_PER_DAY) - 1;
+      firstDay += Math.floorMod(day - FourPillarsEngine.dayJiaZi(firstDay), 60);
+      for (long epochDay = firstDay; ; epochDay += 60) {
+        long dayStart = epochDay * MINUTES_PER_DAY;
+        long start = hourBranch == 0 ? dayStart - 60 : dayStart + (hourBranch * 2 - 1) * 60L;
+        if (start >= monthEnd) {
+          break;
+        }
+        long windowStart = Math.max(start, monthStart);
+        long windowEnd = Math.min(start + 120, monthEnd);
+        if (windowStart < windowEnd) {
+          windows.add(new Window(windowStart, windowEnd));
+        }
+      }
+    }
+    return windows;
+  }
+}
@@ -0,0 +1,199 @@
+package com.tafu.bazi.utils;
+
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.dto.response.PillarDTO;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.model.BaziDef.FiveElement;
+import com.tafu.bazi.model.BaziResult.Relation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RelationEngine
+ *
+ * <p>描述: 干支合冲刑害分析。各柱以六十甲子序号传入，天干两两判断五合、相冲，地支两两判断六合、六冲、相刑 (自刑)、相害，
+ * 再以全部地支的位掩码判断三合、三会、三刑是否齐全。原局四柱、大运、流年共用同一入口，每个流年只做几十次按位与，可随时间线逐年计算。
+ *
+ * <p>规则: focus 之前的位置为背景 (如原局)，只输出至少包含一个 focus 及之后位置的关系: 原局分析 focus 为 0，大运为 4
+ * (只看大运与原局)，流年为 5 (只看流年与原局、大运)。关系按天干两两、地支两两、三支组合的顺序输出，同类按位置先后。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class RelationEngine {
+
+  /** 原局四柱位置名 */
+  public static final String[] NATAL = {"年", "月", "日", "时"};
+
+  /** 原局四柱加大运 */
+  public static final String[] WITH_DA_YUN = {"年", "月", "日", "时", "大运"};
+
+  /** 原局四柱加大运、流年 */
+  public static final String[] WITH_LIU_NIAN = {"年", "月", "日", "时", "大运", "流年"};
+
+  private RelationEngine() {}
+
+  /**
+   * 分析干支关系
+   *
+   * @param names 各位置名称 (如 NATAL)
+   * @param jiaZi 各位置的六十甲子序号，缺失的位置为 -1
+   * @param focus 只输出包含该下标及之后位置的关系
+   * @return 关系列表
+   */
+  public static List<Relation> analyze(String[] names, int[] jiaZi, int focus) {
+    List<Relation> relations = new ArrayList<>();
+    int n = jiaZi.length;
+
+    // 天干两两: 五合、相冲
+    for (int i = 0; i < n; i++) {
+      if (jiaZi[i] < 0) {
+        continue;
+      }
+      for (int j = Math.max(i + 1, focus); j < n; j++) {
+        if (jiaZi[j] < 0) {
+          continue;
+        }
+        int a = jiaZi[i] % 10;
+        int b = jiaZi[j] % 10;
+        String members = BaziDef.STEMS[a] + BaziDef.STEMS[b];
+        if (RelationMasks.stemCombine(a, b)) {
+          relations.add(
+              pair("五合", names, i, j, "干", members, RelationMasks.stemCombineElement(a)));
+        } else if (RelationMasks.stemClash(a, b)) {
+          relations.add(pair("相冲", names, i, j, "干", members, null));
+        }
+      }
+    }
+
+    // 地支两两: 六合、六冲、相刑、相害
+    int present = 0;
+    int focused = 0;
+    for (int i = 0; i < n; i++) {
+      if (jiaZi[i] < 0) {
+        continue;
+      }
+      present |= RelationMasks.bit(jiaZi[i] % 12);
+      if (i >= focus) {
+        focused |= RelationMasks.bit(jiaZi[i] % 12);
+      }
+      for (int j = Math.max(i + 1, focus); j < n; j++) {
+        if (jiaZi[j] < 0) {
+          continue;
+        }
+        int a = jiaZi[i] % 12;
+        int b = jiaZi[j] % 12;
+        String members = BaziDef.BRANCHES[a] + BaziDef.BRANCHES[b];
+        if (RelationMasks.branchCombine(a, b)) {
+          relations.add(
+              pair("六合", names, i, j, "支", members, RelationMasks.branchCombineElement(a)));
+        }
+        if (RelationMasks.branchClash(a, b)) {
+          relations.add(pair("六冲", names, i, j, "支", members, null));
+        }
+        if (RelationMasks.branchPunish(a, b)) {
+          relations.add(pair(a == b ? "自刑" : "相刑", names, i, j, "支", members, null));
+        }
+        if (RelationMasks.branchHarm(a, b)) {
+          relations.add(pair("相害", names, i, j, "支", members, null));
+        }
+      }
+    }
+
+    // 三支组合: 三支齐全且至少一支来自 focus 位置
+    for (RelationMasks.BranchGroup group : RelationMasks.BRANCH_GROUPS) {
+      int mask = group.mask();
+      if ((present & mask) != mask || (focused & mask) == 0) {
+        continue;
+      }
+      List<String> positions = new ArrayList<>(4);
+      StringBuilder members = new StringBuilder(4);
+      for (int i = 0; i < n; i++) {
+        if (jiaZi[i] >= 0 && (mask & RelationMasks.bit(jiaZi[i] % 12)) != 0) {
+          positions.add(names[i] + "支");
+          members.append(BaziDef.BRANCHES[jiaZi[i] % 12]);
+        }
+      }
+      relations.add(
+          Relation.builder()
+              .type(group.type())
+              .positions(positions)
+              .members(members.toString())
+              .element(group.element() != null ? group.element().getChinese() : null)
+              .build());
+    }
+    return relations;
+  }
+
+  /** 原局四柱的六十甲子序号，缺失或无法识别的柱为 -1 */
+  public static int[] natal(FourPillarsDTO fourPillars) {
+    return new int[] {
+      jiaZi(fourPillars.getYear()),
+      jiaZi(fourPillars.getMonth()),
+      jiaZi(fourPillars.getDay()),
+      jiaZi(fourPillars.getHour())
+    };
+  }
+
+  /** 干支 (如 "甲子") -> 六十甲子序号，无法识别时为 -1 */
+  public static int jiaZi(String ganZhi) {
+    if (ganZhi == null || ganZhi.length() != 2) {
+      return -1;
+    }
+    int stem = BaziDef.stemIndex(ganZhi.substring(0, 1));
+    int branch = BaziDef.branchIndex(ganZhi.substring(1));
+    if (stem < 0 || branch < 0 || stem % 2 != branch % 2) {
+      return -1;
+    }
+    return BaziDef.jiaZiIndex(stem, branch);
+  }
+
+  /** 关系的文字描述，如 "年支子、日支丑六合(土)" */
+  public static String describe(Relation relation) {
+    List<String> positions = relation.getPositions();
+    String members = relation.getMembers();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < positions.size(); i++) {
+      if (i > 0) {
+        text.append('、');
+      }
+      text.append(positions.get(i)).append(members.charAt(i));
+    }
+    text.append(relation.getType());
+    if (relation.getElement() != null) {
+      text.append('(').append(relation.getElement()).append(')');
+    }
+    return text.toString();
+  }
+
+  /** 多条关系的文字描述，以 "；" 分隔 */
+  public static String describe(List<Relation> relations) {
+    return relations.stream().map(RelationEngine::describe).collect(Collectors.joining("；"));
+  }
+
+  private static int jiaZi(PillarDTO pillar) {
+    if (pillar == null || pillar.getHeavenlyStem() == null || pillar.getEarthlyBranch() == null) {
+      return -1;
+    }
+    return jiaZi(pillar.getHeavenlyStem().getChinese() + pillar.getEarthlyBranch().getChinese());
+  }
+
+  private static Relation pair(
+      String type,
+      String[] names,
+      int i,
+      int j,
+      String suffix,
+      String members,
+      FiveElement element) {
+    return Relation.builder()
+        .type(type)
+        .positions(List.of(names[i] + suffix, names[j] + suffix))
+        .members(members)
+        .element(element != null ? element.getChinese() : null)
+        .build();
+  }
+}
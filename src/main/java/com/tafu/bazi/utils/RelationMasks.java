@@ -0,0 +1,178 @@
+package com.tafu.bazi.utils;
+
+import com.tafu.bazi.model.BaziDef.FiveElement;
+import java.util.List;
+
+/**
+ * RelationMasks
+ *
+ * <p>描述: 干支关系位掩码。天干 (甲=0 ... 癸=9)、地支 (子=0 ... 亥=11) 各占一个比特位，每种关系预计算为"与某干/某支构成该关系的干支集合"掩码，
+ * 判断关系只需一次按位与。
+ *
+ * <p>规则: 六冲为相隔六位；六合为子丑、寅亥、卯戌、辰酉、巳申、午未；六害为子未、丑午、寅巳、卯辰、申亥、酉戌；相刑为子卯、寅巳申、丑戌未互刑，
+ * 辰午酉亥自刑；三合、三会、三刑为三支齐全的组合掩码；天干五合为相隔五位；天干相冲为甲庚、乙辛、丙壬、丁癸 (戊己不冲)；
+ * 天乙贵人按"甲戊庚牛羊，乙己鼠猴乡，丙丁猪鸡位，壬癸兔蛇藏，六辛逢马虎"；文昌按"甲巳乙午报君知，丙戊申宫丁己鸡，庚猪辛鼠壬逢虎，
+ * 癸人见卯入云梯"。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class RelationMasks {
+
+  /** 六冲: 与各地支相冲的地支 */
+  private static final int[] BRANCH_CLASH = new int[12];
+
+  /** 六合: 与各地支相合的地支 */
+  private static final int[] BRANCH_COMBINE = new int[12];
+
+  /** 六合化气 (按地支): 子丑土、寅亥木、卯戌火、辰酉金、巳申水、午未土 */
+  private static final FiveElement[] BRANCH_COMBINE_ELEMENT = {
+    FiveElement.EARTH, FiveElement.EARTH, FiveElement.WOOD, FiveElement.FIRE,
+    FiveElement.METAL, FiveElement.WATER, FiveElement.EARTH, FiveElement.EARTH,
+    FiveElement.WATER, FiveElement.METAL, FiveElement.FIRE, FiveElement.WOOD
+  };
+
+  /** 六害: 与各地支相害的地支 */
+  private static final int[] BRANCH_HARM = new int[12];
+
+  /** 相刑: 与各地支相刑的地支 (辰午酉亥含自身) */
+  private static final int[] BRANCH_PUNISH =
+      masks(
+          new int[][] {
+            {3}, {10, 7}, {5, 8}, {0}, {4}, {2, 8}, {6}, {1, 10}, {2, 5}, {9}, {1, 7}, {11}
+          });
+
+  /** 天干五合: 与各天干相合的天干 */
+  private static final int[] STEM_COMBINE = new int[10];
+
+  /** 五合化气 (按天干序号取模 5): 甲己土、乙庚金、丙辛水、丁壬木、戊癸火 */
+  private static final FiveElement[] STEM_COMBINE_ELEMENT = {
+    FiveElement.EARTH, FiveElement.METAL, FiveElement.WATER, FiveElement.WOOD, FiveElement.FIRE
+  };
+
+  /** 天干相冲: 与各天干相冲的天干 */
+  private static final int[] STEM_CLASH = new int[10];
+
+  /** 三支组合: 三合局、三会方、三刑 */
+  public static final List<BranchGroup> BRANCH_GROUPS =
+      List.of(
+          new BranchGroup("三合", mask(8, 0, 4), FiveElement.WATER),
+          new BranchGroup("三合", mask(11, 3, 7), FiveElement.WOOD),
+          new BranchGroup("三合", mask(2, 6, 10), FiveElement.FIRE),
+          new BranchGroup("三合", mask(5, 9, 1), FiveElement.METAL),
+          new BranchGroup("三会", mask(11, 0, 1), FiveElement.WATER),
+          new BranchGroup("三会", mask(2, 3, 4), FiveElement.WOOD),
+          new BranchGroup("三会", mask(5, 6, 7), FiveElement.FIRE),
+          new BranchGroup("三会", mask(8, 9, 10), FiveElement.METAL),
+          new BranchGroup("三刑", mask(2, 5, 8), null),
+          new BranchGroup("三刑", mask(1, 10, 7), null));
+
+  /** 天乙贵人: 按日干的贵人地支 (丑未、子申、亥酉、亥酉、丑未、子申、丑未、午寅、卯巳、卯巳) */
+  private static final int[] TIAN_YI =
+      masks(
+          new int[][] {
+            {1, 7}, {0, 8}, {11, 9}, {11, 9}, {1, 7}, {0, 8}, {1, 7}, {6, 2}, {3, 5}, {3, 5}
+          });
+
+  /** 文昌贵人: 按日干的文昌地支 (巳、午、申、酉、申、酉、亥、子、寅、卯) */
+  private static final int[] WEN_CHANG =
+      masks(new int[][] {{5}, {6}, {8}, {9}, {8}, {9}, {11}, {0}, {2}, {3}});
+
+  static {
+    for (int branch = 0; branch < 12; branch++) {
+      BRANCH_CLASH[branch] = bit((branch + 6) % 12);
+      BRANCH_COMBINE[branch] = bit((13 - branch) % 12);
+      BRANCH_HARM[branch] = bit(Math.floorMod(7 - branch, 12));
+    }
+    for (int stem = 0; stem < 10; stem++) {
+      STEM_COMBINE[stem] = bit((stem + 5) % 10);
+      STEM_CLASH[stem] = stem < 4 ? bit(stem + 6) : stem > 5 ? bit(stem - 6) : 0;
+    }
+  }
+
+  private RelationMasks() {}
+
+  /**
+   * 三支组合
+   *
+   * @param type 组合类型 (三合、三会、三刑)
+   * @param mask 三支的地支掩码
+   * @param element 合化五行，三刑为 null
+   */
+  public record BranchGroup(String type, int mask, FiveElement element) {}
+
+  /** 干支序号对应的比特位 */
+  public static int bit(int index) {
+    return 1 << index;
+  }
+
+  /** 两地支是否六冲 */
+  public static boolean branchClash(int a, int b) {
+    return (BRANCH_CLASH[a] & bit(b)) != 0;
+  }
+
+  /** 两地支是否六合 */
+  public static boolean branchCombine(int a, int b) {
+    return (BRANCH_COMBINE[a] & bit(b)) != 0;
+  }
+
+  /** 两地支是否六害 */
+  public static boolean branchHarm(int a, int b) {
+    return (BRANCH_HARM[a] & bit(b)) != 0;
+  }
+
+  /** 两地支是否相刑 (同支时为自刑) */
+  public static boolean branchPunish(int a, int b) {
+    return (BRANCH_PUNISH[a] & bit(b)) != 0;
+  }
+
+  /** 六合化气五行 */
+  public static FiveElement branchCombineElement(int branch) {
+    return BRANCH_COMBINE_ELEMENT[branch];
+  }
+
+  /** 两天干是否相冲 */
+  public static boolean stemClash(int a, int b) {
+    return (STEM_CLASH[a] & bit(b)) != 0;
+  }
+
+  /** 五合化气五行 */
+  public static FiveElement stemCombineElement(int stem) {
+    return STEM_COMBINE_ELEMENT[stem % 5];
+  }
+
+  /** 两天干是否五合 */
+  public static boolean stemCombine(int a, int b) {
+    return (STEM_COMBINE[a] & bit(b)) != 0;
+  }
+
+  /** 地支是否为日干的天乙贵人 */
+  public static boolean tianYi(int dayStem, int branch) {
+    return (TIAN_YI[dayStem] & bit(branch)) != 0;
+  }
+
+  /** 地支是否为日干的文昌贵人 */
+  public static boolean wenChang(int dayStem, int branch) {
+    return (WEN_CHANG[dayStem] & bit(branch)) != 0;
+  }
+
+  private static int mask(int... indexes) {
+    int mask = 0;
+    for (int index : indexes) {
+      mask |= bit(index);
+    }
+    return mask;
+  }
+
+  private static int[] masks(int[][] indexes) {
+    int[] masks = new int[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      for (int index : indexes[i]) {
+        masks[i] |= bit(index);
+      }
+    }
+    return masks;
+  }
+}
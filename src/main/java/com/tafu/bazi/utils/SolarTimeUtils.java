@@ -0,0 +1,143 @@
+package com.tafu.bazi.utils;
+
+/**
+ * SolarTimeUtils
+ *
+ * <p>描述: 真太阳时换算。以纪元日 (1970-01-01 起的天数) 做纯整数日期运算，均时差按年内第几天查预计算表，排盘时不再创建 Calendar 对象。
+ *
+ * <p>规则: 真太阳时 = 北京时间 + (经度 - 120) × 4 分钟 + 均时差；均时差公式与原 Calendar 实现一致。时间以"纪元分钟"(纪元日 × 1440 + 当日分钟)
+ * 表示，仅作为本地挂钟时间的编码，不涉及时区与夏令时。输入日期超出当月天数时按 Calendar 宽松模式顺延 (如 2 月 30 日视为 3 月 1/2 日)。
+ *
+ * <p>维护说明: 当这个文件/文件夹发生改动时，同步改动说明文件以及上一层文件夹对本文件/文件夹的描述。
+ *
+ * @author Zhihao Li
+ * @since 2026-10-18
+ */
+public final class SolarTimeUtils {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  /** 均时差 (分钟)，下标为年内第几天 (1-366) */
+  private static final double[] EQUATION_OF_TIME = new double[367];
+
+  /** 平年各月之前的累计天数 */
+  private static final int[] DAYS_BEFORE_MONTH = {
+    0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334
+  };
+
+  static {
+    for (int dayOfYear = 1; dayOfYear <= 366; dayOfYear++) {
+      double b = (2 * Math.PI * (dayOfYear - 81)) / 365.0;
+      EQUATION_OF_TIME[dayOfYear] = 9.87 * Math.sin(2 * b) - 7.53 * Math.cos(b) - 1.5 * Math.sin(b);
+    }
+  }
+
+  private SolarTimeUtils() {}
+
+  /**
+   * 计算真太阳时
+   *
+   * @param year 年
+   * @param month 月 (1-12)
+   * @param day 日 (超出当月天数时顺延)
+   * @param hour 时 (0-23)
+   * @param minute 分 (0-59)
+   * @param longitude 出生地经度
+   * @return 真太阳时的纪元分钟
+   */
+  public static long trueSolarMinute(
+      int year, int month, int day, int hour, int minute, double longitude) {
+    long epochDay = epochDay(year, month, day);
+    double eot = EQUATION_OF_TIME[dayOfYear(epochDay)];
+
+    double longitudeCorrection = (longitude - 120.0) * 4.0;
+    double totalMinutes = hour * 60 + minute + longitudeCorrection + eot;
+
+    // 只跨一天 (经度修正 + 均时差不超过一天)
+    if (totalMinutes < 0) {
+      totalMinutes += MINUTES_PER_DAY;
+      epochDay--;
+    } else if (totalMinutes >= MINUTES_PER_DAY) {
+      totalMinutes -= MINUTES_PER_DAY;
+      epochDay++;
+    }
+
+    // 分钟四舍五入到 60 时进位到下一小时 (与 Calendar 宽松模式一致)
+    int newHour = (int) (totalMinutes / 60);
+    int newMinute = (int) Math.round(totalMinutes % 60);
+    return epochDay * MINUTES_PER_DAY + newHour * 60 + newMinute;
+  }
+
+  /** 纪元日 (宽松模式: 月、日超出范围时顺延) */
+  public static long epochDay(int year, int month, int day) {
+    year += Math.floorDiv(month - 1, 12);
+    month = Math.floorMod(month - 1, 12) + 1;
+    long firstOfYear = daysFromCivil(year);
+    int dayOfYear = DAYS_BEFORE_MONTH[month - 1] + (month > 2 && isLeapYear(year) ? 1 : 0) + day;
+    return firstOfYear + dayOfYear - 1;
+  }
+
+  /** 纪元分钟 -> 年 */
+  public static int year(long epochMinute) {
+    return yearOfEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+  }
+
+  /** 纪元分钟 -> 月 (1-12) */
+  public static int month(long epochMinute) {
+    return (int) (monthDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY)) / 100);
+  }
+
+  /** 纪元分钟 -> 日 */
+  public static int day(long epochMinute) {
+    return (int) (monthDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY)) % 100);
+  }
+
+  /** 纪元分钟 -> 时 */
+  public static int hour(long epochMinute) {
+    return (int) (Math.floorMod(epochMinute, MINUTES_PER_DAY) / 60);
+  }
+
+  /** 纪元分钟 -> 分 */
+  public static int minute(long epochMinute) {
+    return (int) (Math.floorMod(epochMinute, MINUTES_PER_DAY) % 60);
+  }
+
+  /** 年内第几天 (1-366) */
+  private static int dayOfYear(long epochDay) {
+    return (int) (epochDay - daysFromCivil(yearOfEpochDay(epochDay))) + 1;
+  }
+
+  /** 月 × 100 + 日 */
+  private static long monthDay(long epochDay) {
+    int year = yearOfEpochDay(epochDay);
+    int dayOfYear = (int) (epochDay - daysFromCivil(year));
+    int leap = isLeapYear(year) ? 1 : 0;
+    int month = 12;
+    while (dayOfYear < DAYS_BEFORE_MONTH[month - 1] + (month > 2 ? leap : 0)) {
+      month--;
+    }
+    return month * 100L + dayOfYear - DAYS_BEFORE_MONTH[month - 1] - (month > 2 ? leap : 0) + 1;
+  }
+
+  /** 某年 1 月 1 日的纪元日 (公历) */
+  private static long daysFromCivil(int year) {
+    long y = year - 1L;
+    return 365 * y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) - 719162;
+  }
+
+  private static int yearOfEpochDay(long epochDay) {
+    // 先按平均年长估算，再校正
+    int year = (int) Math.floorDiv(epochDay * 400 + 719162L * 400, 146097) + 1;
+    while (daysFromCivil(year) > epochDay) {
+      year--;
+    }
+    while (daysFromCivil(year + 1) <= epochDay) {
+      year++;
+    }
+    return year;
+  }
+
+  private static boolean isLeapYear(int year) {
+    return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+  }
+}
@@ -0,0 +1,10 @@
+-- Strip embedded LiuNian lists from stored subject charts
+-- 测算对象的 bazi_data 只保留大运骨架，流年/流月改由 GET /subjects/{id}/timeline 按需计算
+UPDATE subjects
+SET bazi_data = jsonb_set(
+        bazi_data,
+        '{yun,daYunList}',
+        (SELECT jsonb_agg(da_yun - 'liuNian' ORDER BY ord)
+         FROM jsonb_array_elements(bazi_data -> 'yun' -> 'daYunList') WITH ORDINALITY AS t(da_yun, ord)))
+WHERE jsonb_typeof(bazi_data -> 'yun' -> 'daYunList') = 'array'
+  AND jsonb_array_length(bazi_data -> 'yun' -> 'daYunList') > 0;
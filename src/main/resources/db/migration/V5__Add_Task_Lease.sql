@@ -0,0 +1,11 @@
+-- Task claiming with leases
+-- 各节点以 FOR UPDATE SKIP LOCKED 批量认领任务，认领时写入租约；租约过期的 processing 任务可被其他节点重新认领
+ALTER TABLE tasks
+    ADD COLUMN locked_by VARCHAR(191),
+    ADD COLUMN lease_until TIMESTAMP(3);
+
+-- 迁移时已在处理中的任务没有租约，视为立即到期，否则认领条件 (lease_until < 当前时间) 永远不成立
+UPDATE tasks SET lease_until = LOCALTIMESTAMP WHERE status = 'processing';
+
+-- 认领扫描只看待处理与处理中的任务，按类型 + 创建时间先进先出
+CREATE INDEX idx_tasks_claimable ON tasks(type, created_at) WHERE status IN ('pending', 'processing');
@@ -0,0 +1,40 @@
+-- Single-flight theme unlock
+-- 同一测算对象同一主题同时最多一个待处理 / 处理中的解锁任务，重复点击或多个节点并发解锁时由唯一索引拒绝第二个任务
+-- (theme_analyses 已有 uq_theme_subject 唯一约束保证结果只保存一份)
+
+-- 已存在的重复活动任务 (保留最早的一条)，每条都已在解锁时扣过积分，退款金额同 TaskProcessor 失败退款 (主题价格，缺省 20)
+CREATE TEMP TABLE duplicate_theme_unlocks AS
+SELECT t.id, t.user_id, t.payload->>'theme' AS theme, COALESCE(p.price, 20) AS price, t.created_at
+FROM (
+    SELECT id, user_id, payload, created_at, ROW_NUMBER() OVER (
+        PARTITION BY payload->>'subjectId', payload->>'theme' ORDER BY created_at, id) AS rn
+    FROM tasks
+    WHERE type = 'THEME_UNLOCK' AND status IN ('pending', 'processing')
+) t
+LEFT JOIN theme_pricing p ON p.theme = t.payload->>'theme'
+WHERE t.rn > 1;
+
+-- 重复任务标记为失败 (结果由保留的任务生成)
+UPDATE tasks
+SET status = 'failed', error = 'duplicate active theme unlock, points refunded',
+    completed_at = LOCALTIMESTAMP, locked_by = NULL, lease_until = NULL
+WHERE id IN (SELECT id FROM duplicate_theme_unlocks);
+
+-- 退款流水: 与 PointsService.addPoints 一致，记录退款后的余额 (同一用户多条时逐条累加)
+INSERT INTO points_transactions (id, user_id, type, amount, balance, description, created_at)
+SELECT uuid_generate_v4(), d.user_id, 'refund_unlock_theme', d.price,
+       a.balance + SUM(d.price) OVER (PARTITION BY d.user_id ORDER BY d.created_at, d.id),
+       '退还积分: 重复的主题解锁 - ' || d.theme, LOCALTIMESTAMP
+FROM duplicate_theme_unlocks d
+JOIN points_accounts a ON a.user_id = d.user_id;
+
+UPDATE points_accounts a
+SET balance = a.balance + r.total, updated_at = LOCALTIMESTAMP
+FROM (SELECT user_id, SUM(price) AS total FROM duplicate_theme_unlocks GROUP BY user_id) r
+WHERE a.user_id = r.user_id;
+
+DROP TABLE duplicate_theme_unlocks;
+
+CREATE UNIQUE INDEX uq_tasks_active_theme_unlock
+    ON tasks ((payload->>'subjectId'), (payload->>'theme'))
+    WHERE type = 'THEME_UNLOCK' AND status IN ('pending', 'processing');
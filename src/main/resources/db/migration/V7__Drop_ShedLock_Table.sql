@@ -0,0 +1,3 @@
+-- ShedLock removed
+-- 任务扫描已改为 SKIP LOCKED 认领 + 租约 (V5)，不再有 @SchedulerLock 定时任务，移除 ShedLock 锁表
+DROP TABLE IF EXISTS shedlock;
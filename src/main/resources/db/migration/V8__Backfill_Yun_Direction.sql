@@ -0,0 +1,10 @@
+-- Backfill the DaYun direction in stored subject charts
+-- 排盘结果的 yun.forward 原先固定为 true，现按阳年男、阴年女顺排，反之逆排；大运干支本就按正确方向排出，只需改写方向标记
+UPDATE subjects
+SET bazi_data = jsonb_set(
+        bazi_data,
+        '{yun,forward}',
+        to_jsonb((bazi_data #>> '{fourPillars,year,heavenlyStem,chinese}') IN ('甲', '丙', '戊', '庚', '壬')
+                 = (COALESCE(bazi_data ->> 'gender', gender) = 'male')))
+WHERE jsonb_typeof(bazi_data -> 'yun') = 'object'
+  AND bazi_data #>> '{fourPillars,year,heavenlyStem,chinese}' IS NOT NULL;
@@ -0,0 +1,100 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tafu.bazi.component.AnalysisSingleFlight;
+import com.tafu.bazi.component.AnalysisSingleFlight.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/** 校验同一测算对象与主题的并发生成只调用一次上游，且同步调用与流式订阅共享同一结果 */
+public class AnalysisSingleFlightTest {
+
+  @Test
+  public void testConcurrentCallsShareOneGeneration() throws Exception {
+    AnalysisSingleFlight singleFlight = new AnalysisSingleFlight();
+    AtomicInteger upstreamCalls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(
+            executor.submit(
+                () ->
+                    singleFlight.call(
+                        Key.theme("s1", "career"),
+                        () -> {
+                          upstreamCalls.incrementAndGet();
+                          started.countDown();
+                          assertTrue(release.await(5, TimeUnit.SECONDS));
+                          return "事业分析";
+                        })));
+      }
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      // 另一主题不与之合并
+      assertEquals("感情分析", singleFlight.call(Key.theme("s1", "love"), () -> "感情分析"));
+      Thread.sleep(200);
+      release.countDown();
+      for (Future<String> result : results) {
+        assertEquals("事业分析", result.get(5, TimeUnit.SECONDS));
+      }
+    }
+    assertEquals(1, upstreamCalls.get());
+    assertEquals(0, singleFlight.getInFlightCount());
+
+    // 生成结束后再次请求会重新生成
+    singleFlight.call(
+        Key.theme("s1", "career"),
+        () -> {
+          upstreamCalls.incrementAndGet();
+          return "事业分析";
+        });
+    assertEquals(2, upstreamCalls.get());
+  }
+
+  @Test
+  public void testLateSubscribersReplayStream() {
+    AnalysisSingleFlight singleFlight = new AnalysisSingleFlight();
+    AtomicInteger upstreamCalls = new AtomicInteger();
+    Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+    Key key = Key.initial("s1");
+
+    List<String> first = new ArrayList<>();
+    List<String> late = new ArrayList<>();
+    singleFlight
+        .stream(
+            key,
+            () -> {
+              upstreamCalls.incrementAndGet();
+              return upstream.asFlux();
+            })
+        .subscribe(first::add);
+    upstream.tryEmitNext("甲");
+    upstream.tryEmitNext("乙");
+
+    // 晚到的订阅者先收到已生成的片段，不会再次调用上游
+    singleFlight.stream(key, () -> Flux.just("不应调用")).subscribe(late::add);
+    upstream.tryEmitNext("丙");
+    upstream.tryEmitComplete();
+
+    assertEquals(List.of("甲", "乙", "丙"), first);
+    assertEquals(first, late);
+    assertEquals(1, upstreamCalls.get());
+    assertEquals(0, singleFlight.getInFlightCount());
+    assertEquals(
+        "丁", singleFlight.stream(key, () -> Flux.just("丁")).collect(Collectors.joining()).block());
+  }
+}
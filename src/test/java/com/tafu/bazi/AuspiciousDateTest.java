@@ -0,0 +1,69 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.response.AuspiciousDateDTO;
+import com.tafu.bazi.entity.Subject;
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.mapper.BaziMapper;
+import com.tafu.bazi.mapper.MapToDtoMapper;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.service.SubjectService;
+import com.tafu.bazi.service.impl.AuspiciousDateServiceImpl;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/** 校验择日结果的排序、日柱月柱与参数校验 */
+public class AuspiciousDateTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testMultiYearSearch() {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    BaziCalculateRequest request = BaziTestFixtures.sampleRequest(8, 30, "male");
+    Subject subject = new Subject();
+    subject.setBaziData(
+        BaziTestFixtures.OBJECT_MAPPER.convertValue(baziService.calculate(request), Map.class));
+    SubjectService subjectService = mock(SubjectService.class);
+    when(subjectService.getEntity("u1", "s1")).thenReturn(subject);
+
+    AuspiciousDateServiceImpl service =
+        new AuspiciousDateServiceImpl(
+            subjectService, new BaziMapper(new MapToDtoMapper()), ForkJoinPool.commonPool());
+    List<AuspiciousDateDTO> dates =
+        service.search("u1", "s1", LocalDate.of(2026, 1, 1), LocalDate.of(2030, 12, 31), 50);
+
+    assertEquals(50, dates.size());
+    for (int i = 0; i < dates.size(); i++) {
+      AuspiciousDateDTO date = dates.get(i);
+      assertTrue(date.getScore() > 0);
+      assertFalse(date.getReasons().isEmpty());
+      if (i > 0) {
+        assertTrue(dates.get(i - 1).getScore() >= date.getScore());
+      }
+      LocalDate day = LocalDate.parse(date.getDate());
+      FourPillarsEngine.Pillars pillars =
+          FourPillarsEngine.compute(day.toEpochDay() * 24 * 60 + 12 * 60);
+      assertEquals(BaziDef.JIA_ZI[pillars.day()], date.getDayGanZhi());
+      assertEquals(BaziDef.JIA_ZI[pillars.month()], date.getMonthGanZhi());
+    }
+
+    assertThrows(
+        BusinessException.class,
+        () -> service.search("u1", "s1", LocalDate.of(2030, 1, 1), LocalDate.of(2026, 1, 1), 10));
+    assertThrows(
+        BusinessException.class,
+        () -> service.search("u1", "s1", LocalDate.of(2020, 1, 1), LocalDate.of(2035, 1, 1), 10));
+  }
+}
@@ -0,0 +1,58 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.component.BaziChartCache;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.DaYunDTO;
+import com.tafu.bazi.dto.response.LiuNianDTO;
+import com.tafu.bazi.dto.response.YunInfoDTO;
+import com.tafu.bazi.model.BaziField;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** 校验排盘缓存每次返回独立的实例，调用方修改返回值不影响缓存 */
+public class BaziChartCacheTest {
+
+  @Test
+  public void testCallersCannotCorruptCachedChart() {
+    BaziChartCache cache = new BaziChartCache(new ObjectMapper());
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "maxSize", 100L);
+    ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+    cache.init();
+
+    AtomicInteger loads = new AtomicInteger();
+    BaziResponse first = cache.get(1L, "male", BaziField.ALL, () -> chart(loads));
+    first.getYun().getDaYunList().forEach(daYun -> daYun.setLiuNian(null));
+    first.setGender("female");
+
+    BaziResponse second = cache.get(1L, "male", BaziField.ALL, () -> chart(loads));
+    BaziResponse third = cache.get(1L, "male", BaziField.ALL, () -> chart(loads));
+    assertEquals(1, loads.get());
+    assertEquals("male", second.getGender());
+    assertEquals(2, second.getYun().getDaYunList().get(0).getLiuNian().size());
+    assertEquals(second, third);
+    assertNotSame(second, third);
+    assertNotSame(second.getYun().getDaYunList(), third.getYun().getDaYunList());
+  }
+
+  private static BaziResponse chart(AtomicInteger loads) {
+    loads.incrementAndGet();
+    List<LiuNianDTO> liuNian = new ArrayList<>();
+    liuNian.add(LiuNianDTO.builder().year(2026).ganZhi("丙午").build());
+    liuNian.add(LiuNianDTO.builder().year(2027).ganZhi("丁未").build());
+    List<DaYunDTO> daYunList = new ArrayList<>();
+    daYunList.add(DaYunDTO.builder().index(1).ganZhi("庚申").liuNian(liuNian).build());
+    return BaziResponse.builder()
+        .gender("male")
+        .yun(YunInfoDTO.builder().startAge(3).forward(true).daYunList(daYunList).build())
+        .build();
+  }
+}
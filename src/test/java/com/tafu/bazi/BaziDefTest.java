@@ -0,0 +1,78 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.model.BaziDef.FiveElement;
+import com.tafu.bazi.model.BaziDef.StemInfo;
+import com.tafu.bazi.utils.LunarUtils;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** 校验 BaziDef 序号索引表与原有 Map 定义一致 */
+public class BaziDefTest {
+
+  @Test
+  public void testTenGodMatrixMatchesElementRelations() {
+    for (int day = 0; day < 10; day++) {
+      StemInfo dayInfo = BaziDef.STEMS_INFO.get(BaziDef.STEMS[day]);
+      for (int other = 0; other < 10; other++) {
+        StemInfo otherInfo = BaziDef.STEMS_INFO.get(BaziDef.STEMS[other]);
+        assertEquals(
+            tenGodByMaps(dayInfo, otherInfo),
+            BaziDef.tenGod(day, other),
+            BaziDef.STEMS[day] + BaziDef.STEMS[other]);
+      }
+    }
+  }
+
+  @Test
+  public void testBranchTables() {
+    for (int b = 0; b < 12; b++) {
+      String zhi = BaziDef.BRANCHES[b];
+      assertEquals(b, BaziDef.branchIndex(zhi));
+      assertEquals(BaziDef.MONTH_BRANCH_ELEMENT.get(zhi), BaziDef.BRANCH_ELEMENT[b]);
+
+      List<String> hiddenStems = LunarUtils.getHiddenStems(zhi);
+      List<Double> weights = BaziDef.HIDDEN_STEM_WEIGHTS.get(zhi);
+      assertEquals(weights.size(), hiddenStems.size(), zhi);
+      for (int j = 0; j < hiddenStems.size(); j++) {
+        assertEquals(hiddenStems.get(j), BaziDef.STEMS[BaziDef.HIDDEN_STEMS[b][j]]);
+        assertEquals(weights.get(j), BaziDef.HIDDEN_STEM_WEIGHT[b][j]);
+      }
+    }
+    assertEquals(-1, BaziDef.branchIndex("甲"));
+    assertEquals(-1, BaziDef.stemIndex(null));
+  }
+
+  @Test
+  public void testElementStateWeights() {
+    for (FiveElement month : FiveElement.values()) {
+      for (FiveElement e : FiveElement.values()) {
+        String state = BaziDef.ELEMENT_STATE[month.ordinal()][e.ordinal()];
+        String expected;
+        if (e == month) expected = "wang";
+        else if (BaziDef.FIVE_ELEMENTS_GENERATION.get(month) == e) expected = "xiang";
+        else if (BaziDef.FIVE_ELEMENTS_GENERATED_BY.get(month) == e) expected = "xiu";
+        else if (BaziDef.FIVE_ELEMENTS_RESTRICTION.get(e) == month) expected = "qiu";
+        else expected = "si";
+        assertEquals(expected, state, month + "->" + e);
+        assertEquals(
+            BaziDef.STATE_WEIGHTS.get(expected),
+            BaziDef.STATE_WEIGHT[month.ordinal()][e.ordinal()]);
+      }
+    }
+  }
+
+  private static String tenGodByMaps(StemInfo dayStem, StemInfo otherStem) {
+    FiveElement dayEl = dayStem.getElement();
+    FiveElement otherEl = otherStem.getElement();
+    boolean sameYinYang = dayStem.getYinYang() == otherStem.getYinYang();
+
+    if (dayEl == otherEl) return sameYinYang ? "比肩" : "劫财";
+    if (BaziDef.FIVE_ELEMENTS_GENERATION.get(dayEl) == otherEl) return sameYinYang ? "食神" : "伤官";
+    if (BaziDef.FIVE_ELEMENTS_RESTRICTION.get(dayEl) == otherEl) return sameYinYang ? "偏财" : "正财";
+    if (BaziDef.FIVE_ELEMENTS_RESTRICTION.get(otherEl) == dayEl) return sameYinYang ? "七杀" : "正官";
+    return sameYinYang ? "偏印" : "正印";
+  }
+}
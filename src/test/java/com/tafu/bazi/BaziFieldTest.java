@@ -0,0 +1,60 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.exception.BusinessException;
+import com.tafu.bazi.model.BaziField;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** 校验 fields 参数解析，以及按需排盘只填充请求的部分且与完整排盘一致 */
+public class BaziFieldTest {
+
+  @Test
+  public void testParse() {
+    assertSame(BaziField.ALL, BaziField.parse(null));
+    assertSame(BaziField.ALL, BaziField.parse(" "));
+    assertSame(BaziField.ALL, BaziField.parse("*"));
+    assertEquals(Set.of(), BaziField.parse("fourPillars, shengXiao"));
+    assertEquals(
+        EnumSet.of(BaziField.DAY_MASTER, BaziField.TEN_GODS),
+        BaziField.parse("dayMasterCharacteristics,fourPillarsShiShen,dayMaster"));
+    assertThrows(BusinessException.class, () -> BaziField.parse("dayMaster,unknown"));
+  }
+
+  @Test
+  public void testProjectionMatchesFullChart() {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    BaziCalculateRequest request = BaziTestFixtures.sampleRequest(23, 30, "male");
+
+    BaziResponse full = baziService.calculate(request);
+    BaziResponse pillarsOnly = baziService.calculate(request, BaziField.parse("fourPillars"));
+    assertEquals(full.getFourPillars(), pillarsOnly.getFourPillars());
+    assertEquals(full.getSolarDate(), pillarsOnly.getSolarDate());
+    assertEquals(full.getTrueSolarTime(), pillarsOnly.getTrueSolarTime());
+    assertEquals(full.getTaiYuan(), pillarsOnly.getTaiYuan());
+    assertEquals(full.getXunKong(), pillarsOnly.getXunKong());
+    assertNull(pillarsOnly.getLunarDate());
+    assertNull(pillarsOnly.getDayMaster());
+    assertNull(pillarsOnly.getPattern());
+    assertNull(pillarsOnly.getYun());
+    assertNull(pillarsOnly.getShenSha());
+    assertNull(pillarsOnly.getMingGong());
+
+    BaziResponse partial = baziService.calculate(request, BaziField.parse("pattern,yun"));
+    assertEquals(full.getPattern(), partial.getPattern());
+    assertEquals(full.getYun(), partial.getYun());
+    assertNotNull(partial.getYun());
+    assertNull(partial.getFiveElements());
+    assertNull(partial.getTenGods());
+    assertNull(partial.getShenGong());
+  }
+}
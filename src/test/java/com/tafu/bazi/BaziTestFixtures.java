@@ -0,0 +1,69 @@
+package com.tafu.bazi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.component.BaziChartCache;
+import com.tafu.bazi.component.ShenShaResolver;
+import com.tafu.bazi.dto.request.BaziCalculateRequest;
+import com.tafu.bazi.dto.request.BaziHoursRequest;
+import com.tafu.bazi.mapper.BaziMapper;
+import com.tafu.bazi.mapper.MapToDtoMapper;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import com.tafu.bazi.service.impl.GeoServiceImpl;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** 测试与基准测试共用的装配: 不启动 Spring 容器的排盘服务 (缓存关闭) 与排盘请求样本 */
+public final class BaziTestFixtures {
+
+  public static final String LOCATION = "北京市/北京市/朝阳区";
+
+  public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+  private BaziTestFixtures() {}
+
+  /** 不带缓存的排盘服务 (未装配批量接口的参数校验器) */
+  public static BaziServiceImpl newBaziService() {
+    BaziChartCache chartCache = new BaziChartCache(OBJECT_MAPPER);
+    ReflectionTestUtils.setField(chartCache, "enabled", false);
+    return new BaziServiceImpl(
+        new BaziMapper(new MapToDtoMapper()),
+        chartCache,
+        new ShenShaResolver(),
+        new GeoServiceImpl(),
+        ForkJoinPool.commonPool(),
+        null,
+        OBJECT_MAPPER);
+  }
+
+  /** 1990-05-20 北京朝阳出生的公历排盘请求 */
+  public static BaziCalculateRequest sampleRequest(int hour, int minute, String gender) {
+    return request(1990, 5, 20, hour, minute, gender);
+  }
+
+  /** 北京朝阳出生的公历排盘请求 */
+  public static BaziCalculateRequest request(
+      int year, int month, int day, int hour, int minute, String gender) {
+    BaziCalculateRequest request = new BaziCalculateRequest();
+    request.setYear(year);
+    request.setMonth(month);
+    request.setDay(day);
+    request.setHour(hour);
+    request.setMinute(minute);
+    request.setCalendarType("solar");
+    request.setGender(gender);
+    request.setLocation(LOCATION);
+    return request;
+  }
+
+  /** 北京朝阳出生、时辰不详的公历排盘请求 */
+  public static BaziHoursRequest hoursRequest(int year, int month, int day, String gender) {
+    BaziHoursRequest request = new BaziHoursRequest();
+    request.setYear(year);
+    request.setMonth(month);
+    request.setDay(day);
+    request.setCalendarType("solar");
+    request.setGender(gender);
+    request.setLocation(LOCATION);
+    return request;
+  }
+}
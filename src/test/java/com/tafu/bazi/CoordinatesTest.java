@@ -1,10 +1,14 @@
 package com.tafu.bazi;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.service.impl.GeoServiceImpl;
 import com.tafu.bazi.utils.LunarUtils;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.io.ClassPathResource;
 
@@ -66,4 +70,34 @@ public class CoordinatesTest {
       }
     }
   }
+
+  @Test
+  public void testGeoServiceMatchesPathScan() throws IOException {
+    List<LunarUtils.CityGeoItem> data =
+        new ObjectMapper()
+            .readValue(
+                new ClassPathResource("city-geo-data.json").getInputStream(),
+                new TypeReference<List<LunarUtils.CityGeoItem>>() {});
+    GeoServiceImpl geoService = new GeoServiceImpl();
+
+    for (LunarUtils.CityGeoItem item : data) {
+      String areaPath = item.getProvince() + "/" + item.getCity() + "/" + item.getArea();
+      LunarUtils.CityGeoItem expected =
+          data.stream()
+              .filter(
+                  other ->
+                      item.getProvince().equals(other.getProvince())
+                          && item.getCity().equals(other.getCity())
+                          && item.getArea().equals(other.getArea()))
+              .findFirst()
+              .orElseThrow();
+      Map<String, Double> coordinates = geoService.getCoordinates(areaPath);
+      assertEquals(Double.parseDouble(expected.getLng()), coordinates.get("lng"), areaPath);
+      assertEquals(Double.parseDouble(expected.getLat()), coordinates.get("lat"), areaPath);
+    }
+
+    Map<String, Double> missing = geoService.getCoordinates("火星/奥林匹斯/山区");
+    assertEquals(116.4, missing.get("lng"));
+    assertEquals(39.9, missing.get("lat"));
+  }
 }
@@ -0,0 +1,114 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nlf.calendar.EightChar;
+import com.nlf.calendar.Lunar;
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import com.tafu.bazi.utils.FourPillarsEngine.Pillars;
+import com.tafu.bazi.utils.SolarTimeUtils;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** 以 lunar-java EightChar (setSect(1)) 为基准校验 FourPillarsEngine 的四柱、纳音、胎元、旬空与生肖 */
+public class FourPillarsEngineTest {
+
+  private static final Set<String> JIE =
+      Set.of("立春", "惊蛰", "清明", "立夏", "芒种", "小暑", "立秋", "白露", "寒露", "立冬", "大雪", "小寒");
+
+  @Test
+  public void testSampledDaysMatchEightChar() {
+    for (int year = FourPillarsEngine.MIN_YEAR; year <= FourPillarsEngine.MAX_YEAR; year++) {
+      for (int dayOfYear = year % 3; dayOfYear < 365; dayOfYear += 3) {
+        long epochDay = SolarTimeUtils.epochDay(year, 1, 1 + dayOfYear);
+        int minuteOfDay = (year * 37 + dayOfYear * 101) % (24 * 60);
+        assertMatches(epochDay * 24 * 60 + minuteOfDay);
+      }
+    }
+  }
+
+  @Test
+  public void testJieBoundariesMatchEightChar() {
+    for (int year = FourPillarsEngine.MIN_YEAR; year <= FourPillarsEngine.MAX_YEAR; year++) {
+      int gregorianYear = year;
+      Lunar.fromYmd(year, 6, 1)
+          .getJieQiTable()
+          .forEach(
+              (name, solar) -> {
+                if (JIE.contains(name) && solar.getYear() == gregorianYear) {
+                  long minute = minuteOf(solar);
+                  for (long offset = -1; offset <= 1; offset++) {
+                    assertMatches(minute + offset);
+                  }
+                }
+              });
+    }
+  }
+
+  @Test
+  public void testLateZiHourMatchesEightChar() {
+    int[] minutesOfDay = {0, 59, 60, 22 * 60 + 59, 23 * 60, 23 * 60 + 30, 23 * 60 + 59};
+    for (int year = FourPillarsEngine.MIN_YEAR; year <= FourPillarsEngine.MAX_YEAR; year += 7) {
+      for (int month = 1; month <= 12; month++) {
+        long epochDay = SolarTimeUtils.epochDay(year, month, 1 + (year + month) % 28);
+        for (int minuteOfDay : minutesOfDay) {
+          assertMatches(epochDay * 24 * 60 + minuteOfDay);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDayJiaZi() {
+    assertEquals(BaziDef.jiaZiIndex(7, 5), FourPillarsEngine.dayJiaZi(0)); // 1970-01-01 辛巳
+    assertEquals(
+        BaziDef.jiaZiIndex(4, 6), FourPillarsEngine.dayJiaZi(SolarTimeUtils.epochDay(2000, 1, 1)));
+    assertEquals(BaziDef.jiaZiIndex(6, 4), FourPillarsEngine.dayJiaZi(-1)); // 1969-12-31 庚辰
+  }
+
+  @Test
+  public void testOutsideTableFallsBackToEightChar() {
+    long beforeTable = SolarTimeUtils.epochDay(1890, 5, 20) * 24 * 60 + 8 * 60;
+    long afterTable = SolarTimeUtils.epochDay(2120, 9, 1) * 24 * 60 + 23 * 60 + 15;
+    for (long minute : new long[] {beforeTable, afterTable}) {
+      assertFalse(FourPillarsEngine.isSupported(minute));
+      assertEquals(FourPillarsEngine.fromEightChar(minute), FourPillarsEngine.compute(minute));
+    }
+  }
+
+  private static long minuteOf(Solar solar) {
+    long epochDay = SolarTimeUtils.epochDay(solar.getYear(), solar.getMonth(), solar.getDay());
+    return epochDay * 24 * 60 + solar.getHour() * 60 + solar.getMinute();
+  }
+
+  private static void assertMatches(long minute) {
+    Solar solar =
+        Solar.fromYmdHms(
+            SolarTimeUtils.year(minute),
+            SolarTimeUtils.month(minute),
+            SolarTimeUtils.day(minute),
+            SolarTimeUtils.hour(minute),
+            SolarTimeUtils.minute(minute),
+            0);
+    Lunar lunar = solar.getLunar();
+    EightChar eightChar = lunar.getEightChar();
+    eightChar.setSect(1);
+    String message = solar.toYmdHms();
+
+    assertTrue(FourPillarsEngine.isSupported(minute), message);
+    Pillars pillars = FourPillarsEngine.compute(minute);
+    assertEquals(eightChar.getYear(), BaziDef.JIA_ZI[pillars.year()], message);
+    assertEquals(eightChar.getMonth(), BaziDef.JIA_ZI[pillars.month()], message);
+    assertEquals(eightChar.getDay(), BaziDef.JIA_ZI[pillars.day()], message);
+    assertEquals(eightChar.getTime(), BaziDef.JIA_ZI[pillars.hour()], message);
+    assertEquals(eightChar.getYearNaYin(), BaziDef.NA_YIN[pillars.year()], message);
+    assertEquals(eightChar.getDayNaYin(), BaziDef.NA_YIN[pillars.day()], message);
+    assertEquals(eightChar.getTaiYuan(), pillars.taiYuan(), message);
+    assertEquals(eightChar.getDayXunKong(), pillars.dayXunKong(), message);
+    assertEquals(lunar.getYearShengXiaoExact(), pillars.shengXiao(), message);
+  }
+}
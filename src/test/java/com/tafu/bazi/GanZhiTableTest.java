@@ -0,0 +1,28 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.utils.GanZhiTable;
+import org.junit.jupiter.api.Test;
+
+/** 校验流年干支预计算表与 lunar-java 结果一致 */
+public class GanZhiTableTest {
+
+  @Test
+  public void testYearGanZhiMatchesLunarJava() {
+    for (int year = GanZhiTable.MIN_YEAR; year <= GanZhiTable.MAX_YEAR; year++) {
+      String expected = Solar.fromYmd(year, 7, 1).getLunar().getYearInGanZhiExact();
+      assertEquals(expected, GanZhiTable.yearGanZhi(year), "year " + year);
+      assertEquals(expected.substring(0, 1), GanZhiTable.yearGan(year), "gan " + year);
+      assertEquals(expected.substring(1, 2), GanZhiTable.yearZhi(year), "zhi " + year);
+    }
+  }
+
+  @Test
+  public void testOutOfRange() {
+    assertNull(GanZhiTable.yearGanZhi(GanZhiTable.MIN_YEAR - 1));
+    assertNull(GanZhiTable.yearGanZhi(GanZhiTable.MAX_YEAR + 1));
+  }
+}
@@ -0,0 +1,101 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.DaYunDTO;
+import com.tafu.bazi.dto.response.FourPillarsDTO;
+import com.tafu.bazi.dto.response.HourVariantsResponse;
+import com.tafu.bazi.dto.response.PillarDTO;
+import com.tafu.bazi.dto.response.YunInfoDTO;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import org.junit.jupiter.api.Test;
+
+/** 校验时辰不详排盘的十二个时辰与在各时辰中点单独完整排盘的结果一致 */
+public class HourVariantsTest {
+
+  @Test
+  public void testVariantsMatchFullCharts() {
+    HourVariantsResponse response = assertMatchesFullCharts(1990, 5, 20);
+    assertEquals("1990-05-20", response.getSolarDate());
+    assertFalse(response.getVariants().get(0).getYun().getDaYunList().isEmpty());
+  }
+
+  @Test
+  public void testJieDayVariantsCarryTheirOwnYun() {
+    // 1990-02-04 上午立春: 之前为己巳年丁丑月 (阴年女顺排)，之后为庚午年戊寅月 (阳年女逆排)
+    HourVariantsResponse response = assertMatchesFullCharts(1990, 2, 4);
+    assertTrue(response.getVarying().contains("yearPillar"));
+    assertTrue(response.getVarying().contains("monthPillar"));
+    assertTrue(response.getVarying().contains("yun"));
+    YunInfoDTO first = response.getVariants().get(0).getYun();
+    YunInfoDTO last = response.getVariants().get(11).getYun();
+    assertNotEquals(
+        first.getDaYunList().get(0).getGanZhi(), last.getDaYunList().get(0).getGanZhi());
+  }
+
+  /** 各时辰的四柱、强弱、格局、喜忌与大运骨架都与该时辰中点的完整排盘一致 */
+  private static HourVariantsResponse assertMatchesFullCharts(int year, int month, int day) {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    HourVariantsResponse response =
+        baziService.calculateHourVariants(
+            BaziTestFixtures.hoursRequest(year, month, day, "female"));
+    assertEquals(12, response.getVariants().size());
+
+    for (HourVariantsResponse.Variant variant : response.getVariants()) {
+      // 时辰中点 = 钟表时间范围起点 + 1 小时
+      int start =
+          Integer.parseInt(variant.getClockRange().substring(0, 2)) * 60
+              + Integer.parseInt(variant.getClockRange().substring(3, 5));
+      int middle = (start + 60) % (24 * 60);
+      BaziResponse chart =
+          baziService.calculate(
+              BaziTestFixtures.request(year, month, day, middle / 60, middle % 60, "female"));
+
+      String hour = variant.getHour();
+      assertEquals(fourPillars(chart.getFourPillars()), variant.getFourPillars(), hour);
+      assertEquals(chart.getFourPillars().getHour().getTenGod(), variant.getHourTenGod(), hour);
+      assertEquals(chart.getDayMaster().getStrength(), variant.getStrength(), hour);
+      assertEquals(
+          chart.getDayMaster().getAnalysis().getTotalScore(), variant.getStrengthScore(), hour);
+      assertEquals(chart.getPattern().getName(), variant.getPattern(), hour);
+      assertEquals(chart.getFiveElements().getFavorable(), variant.getFavorable(), hour);
+      assertEquals(chart.getFiveElements().getUnfavorable(), variant.getUnfavorable(), hour);
+
+      // 大运骨架不含流年与干支关系，起运岁数、方向、干支与起止年份与完整排盘一致
+      YunInfoDTO yun = variant.getYun();
+      assertEquals(chart.getYun().getStartAge(), yun.getStartAge(), hour);
+      assertEquals(chart.getYun().isForward(), yun.isForward(), hour);
+      assertEquals(chart.getYun().getDaYunList().size(), yun.getDaYunList().size(), hour);
+      for (int i = 0; i < yun.getDaYunList().size(); i++) {
+        DaYunDTO expected = chart.getYun().getDaYunList().get(i);
+        DaYunDTO daYun = yun.getDaYunList().get(i);
+        assertEquals(expected.getGanZhi(), daYun.getGanZhi(), hour);
+        assertEquals(expected.getStartAge(), daYun.getStartAge(), hour);
+        assertEquals(expected.getStartYear(), daYun.getStartYear(), hour);
+        assertEquals(expected.getEndYear(), daYun.getEndYear(), hour);
+        assertNull(daYun.getLiuNian());
+        assertNull(daYun.getRelations());
+      }
+    }
+    return response;
+  }
+
+  private static String fourPillars(FourPillarsDTO fourPillars) {
+    return ganZhi(fourPillars.getYear())
+        + " "
+        + ganZhi(fourPillars.getMonth())
+        + " "
+        + ganZhi(fourPillars.getDay())
+        + " "
+        + ganZhi(fourPillars.getHour());
+  }
+
+  private static String ganZhi(PillarDTO pillar) {
+    return pillar.getHeavenlyStem().getChinese() + pillar.getEarthlyBranch().getChinese();
+  }
+}
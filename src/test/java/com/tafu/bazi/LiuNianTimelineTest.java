@@ -0,0 +1,85 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.tafu.bazi.dto.response.BaziResponse;
+import com.tafu.bazi.dto.response.DaYunDTO;
+import com.tafu.bazi.dto.response.LiuNianDTO;
+import com.tafu.bazi.dto.response.LiuYueDTO;
+import com.tafu.bazi.dto.response.YunInfoDTO;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.service.impl.BaziServiceImpl;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import com.tafu.bazi.utils.SolarTimeUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** 校验时间线接口由大运骨架算出的流年 (含干支关系) 与完整排盘内嵌的流年一致，流月与四柱引擎的月柱一致 */
+public class LiuNianTimelineTest {
+
+  @Test
+  public void testLiuNianMatchesFullChart() {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    BaziResponse chart = baziService.calculate(BaziTestFixtures.sampleRequest(8, 30, "female"));
+    YunInfoDTO yun = chart.getYun();
+    List<LiuNianDTO> embedded = new ArrayList<>();
+    for (DaYunDTO daYun : yun.getDaYunList()) {
+      embedded.addAll(daYun.getLiuNian());
+      daYun.setLiuNian(null);
+    }
+
+    List<LiuNianDTO> timeline =
+        baziService.calculateLiuNian(chart.getFourPillars(), yun, 1800, 2200, false);
+    assertEquals(embedded, timeline);
+
+    List<LiuNianDTO> page =
+        baziService.calculateLiuNian(chart.getFourPillars(), yun, 2024, 2026, false);
+    assertEquals(3, page.size());
+    assertEquals(2024, page.get(0).getYear());
+    assertEquals("甲辰", page.get(0).getGanZhi());
+    assertNull(page.get(0).getLiuYue());
+  }
+
+  @Test
+  public void testLiuYueMatchesMonthPillar() {
+    BaziServiceImpl baziService = BaziTestFixtures.newBaziService();
+    YunInfoDTO yun =
+        YunInfoDTO.builder()
+            .daYunList(
+                List.of(
+                    DaYunDTO.builder()
+                        .startYear(FourPillarsEngine.MIN_YEAR)
+                        .endYear(FourPillarsEngine.MAX_YEAR)
+                        .startAge(1)
+                        .build()))
+            .build();
+
+    for (LiuNianDTO liuNian :
+        baziService.calculateLiuNian(
+            null, yun, FourPillarsEngine.MIN_YEAR, FourPillarsEngine.MAX_YEAR, true)) {
+      assertEquals(12, liuNian.getLiuYue().size());
+      for (LiuYueDTO liuYue : liuNian.getLiuYue()) {
+        // 交节时刻的秒数被截去，下一分钟必然已交节
+        long minute = parseMinute(liuYue.getStartTime()) + 1;
+        String message = liuNian.getYear() + " " + liuYue.getJieQi();
+        assertEquals(
+            BaziDef.JIA_ZI[FourPillarsEngine.compute(minute).month()], liuYue.getGanZhi(), message);
+        assertEquals(
+            BaziDef.JIA_ZI[FourPillarsEngine.compute(minute).year()], liuNian.getGanZhi(), message);
+      }
+    }
+  }
+
+  private static long parseMinute(String time) {
+    long epochDay =
+        SolarTimeUtils.epochDay(
+            Integer.parseInt(time.substring(0, 4)),
+            Integer.parseInt(time.substring(5, 7)),
+            Integer.parseInt(time.substring(8, 10)));
+    return epochDay * 24 * 60
+        + Integer.parseInt(time.substring(11, 13)) * 60
+        + Integer.parseInt(time.substring(14, 16));
+  }
+}
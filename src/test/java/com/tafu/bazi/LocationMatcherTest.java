@@ -0,0 +1,148 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tafu.bazi.utils.LunarUtils;
+import com.tafu.bazi.utils.LunarUtils.CityGeoItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/** 校验 LunarUtils.getLongitude (LocationMatcher) 与原逐条扫描实现返回相同经度 */
+public class LocationMatcherTest {
+
+  private static final double DEFAULT_LONGITUDE = 116.4;
+  private static final String[] SUFFIXES = {"市", "区", "县", "地区", "州", "盟"};
+
+  private static List<CityGeoItem> cityGeoData;
+  private static final Map<String, Double> areaIndex = new HashMap<>();
+  private static final Map<String, Double> cityIndex = new HashMap<>();
+  private static final Map<String, Double> provinceIndex = new HashMap<>();
+
+  @BeforeAll
+  public static void loadLegacyIndexes() throws Exception {
+    cityGeoData =
+        new ObjectMapper()
+            .readValue(
+                new ClassPathResource("city-geo-data.json").getInputStream(),
+                new TypeReference<List<CityGeoItem>>() {});
+    for (CityGeoItem item : cityGeoData) {
+      double lng = Double.parseDouble(item.getLng());
+      provinceIndex.putIfAbsent(item.getProvince(), lng);
+      cityIndex.putIfAbsent(item.getCity(), lng);
+      areaIndex.putIfAbsent(item.getArea(), lng);
+    }
+    Map<String, Double> extra =
+        Map.of("香港特别行政区", 114.2, "澳门特别行政区", 113.5, "台湾省", 121.5, "金门县", 118.3774, "澳门半岛", 113.5429);
+    extra.forEach(
+        (name, lng) -> {
+          areaIndex.putIfAbsent(name, lng);
+          cityIndex.putIfAbsent(name, lng);
+          if (name.matches(".*(省|自治区|特别行政区)$")) {
+            provinceIndex.putIfAbsent(name, lng);
+          }
+        });
+  }
+
+  @Test
+  public void testMatchesLegacyImplementation() {
+    Set<String> names = new LinkedHashSet<>();
+    for (CityGeoItem item : cityGeoData) {
+      names.add(item.getArea());
+      names.add(item.getCity());
+      names.add(item.getProvince());
+    }
+
+    List<String> corpus = new ArrayList<>();
+    for (String name : names) {
+      corpus.add(name);
+      corpus.add(" " + name + " ");
+      for (String suffix : SUFFIXES) {
+        corpus.add(name + suffix);
+        if (name.endsWith(suffix)) {
+          corpus.add(name.substring(0, name.length() - suffix.length()));
+        }
+      }
+      // 名称片段走模糊匹配 (名称包含地点)
+      for (int from = 0; from < name.length(); from++) {
+        corpus.add(name.substring(from, Math.min(name.length(), from + 2)));
+      }
+    }
+    for (CityGeoItem item : cityGeoData) {
+      corpus.add(item.getProvince() + "/" + item.getCity() + "/" + item.getArea());
+      corpus.add(item.getProvince() + "/" + item.getCity());
+      corpus.add(item.getProvince() + item.getCity() + item.getArea() + "某某镇");
+      corpus.add("/" + item.getArea() + "/");
+    }
+    corpus.addAll(List.of("", " ", "/", "未知", "纽约", "中国", "区", "香港", "澳门", "台湾", "金门"));
+
+    for (String location : corpus) {
+      assertEquals(legacyLongitude(location), LunarUtils.getLongitude(location), location);
+    }
+  }
+
+  /** 原 LunarUtils.getLongitude 实现 */
+  private static double legacyLongitude(String location) {
+    if (location == null || location.isBlank()) return DEFAULT_LONGITUDE;
+    String[] parts = location.split("/");
+    if (parts.length >= 3) {
+      double lng = findLongitudeByName(parts[2].trim(), areaIndex);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+    if (parts.length >= 2) {
+      double lng = findLongitudeByName(parts[1].trim(), cityIndex);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+    if (parts.length >= 1) {
+      String name = parts[0].trim();
+      double lng = findLongitudeByName(name, areaIndex);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+      lng = findLongitudeByName(name, cityIndex);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+      lng = findLongitudeByName(name, provinceIndex);
+      if (lng != DEFAULT_LONGITUDE) return lng;
+    }
+    return fuzzyMatch(location);
+  }
+
+  private static double findLongitudeByName(String name, Map<String, Double> index) {
+    if (name == null || name.isBlank()) return DEFAULT_LONGITUDE;
+    if (index.containsKey(name)) return index.get(name);
+    for (String suffix : SUFFIXES) {
+      if (!name.endsWith(suffix) && index.containsKey(name + suffix)) {
+        return index.get(name + suffix);
+      }
+    }
+    for (String suffix : SUFFIXES) {
+      if (name.endsWith(suffix)) {
+        String withoutSuffix = name.substring(0, name.length() - suffix.length());
+        if (index.containsKey(withoutSuffix)) return index.get(withoutSuffix);
+        for (String otherSuffix : SUFFIXES) {
+          if (!otherSuffix.equals(suffix) && index.containsKey(withoutSuffix + otherSuffix)) {
+            return index.get(withoutSuffix + otherSuffix);
+          }
+        }
+      }
+    }
+    return DEFAULT_LONGITUDE;
+  }
+
+  private static double fuzzyMatch(String location) {
+    for (CityGeoItem item : cityGeoData) {
+      double lng = Double.parseDouble(item.getLng());
+      if (item.getArea() != null
+          && (location.contains(item.getArea()) || item.getArea().contains(location))) return lng;
+      if (item.getCity() != null
+          && (location.contains(item.getCity()) || item.getCity().contains(location))) return lng;
+    }
+    return DEFAULT_LONGITUDE;
+  }
+}
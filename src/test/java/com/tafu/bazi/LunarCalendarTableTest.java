@@ -0,0 +1,53 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nlf.calendar.Lunar;
+import com.nlf.calendar.LunarMonth;
+import com.nlf.calendar.LunarYear;
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.utils.LunarCalendarTable;
+import com.tafu.bazi.utils.SolarTimeUtils;
+import org.junit.jupiter.api.Test;
+
+/** 以 lunar-java 为基准校验农历月表的闰月、月初一与当月天数 */
+public class LunarCalendarTableTest {
+
+  @Test
+  public void testMatchesLunarJava() {
+    for (int year = LunarCalendarTable.MIN_YEAR; year <= LunarCalendarTable.MAX_YEAR; year++) {
+      assertTrue(LunarCalendarTable.isSupported(year), "year " + year);
+      assertEquals(LunarYear.fromYear(year).getLeapMonth(), LunarCalendarTable.leapMonth(year));
+
+      for (LunarMonth month : LunarYear.fromYear(year).getMonths()) {
+        if (month.getYear() != year) {
+          continue;
+        }
+        int days = month.getDayCount();
+        for (int day : new int[] {1, 15, days}) {
+          Solar solar = Lunar.fromYmd(year, month.getMonth(), day).getSolar();
+          assertEquals(
+              SolarTimeUtils.epochDay(solar.getYear(), solar.getMonth(), solar.getDay()),
+              LunarCalendarTable.toEpochDay(year, month.getMonth(), day),
+              year + "/" + month.getMonth() + "/" + day);
+        }
+        int lunarYear = year;
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> LunarCalendarTable.toEpochDay(lunarYear, month.getMonth(), days + 1));
+      }
+    }
+  }
+
+  @Test
+  public void testRejectsMissingLeapMonth() {
+    // 2023 年闰二月，无闰三月
+    assertEquals(2, LunarCalendarTable.leapMonth(2023));
+    assertThrows(IllegalArgumentException.class, () -> LunarCalendarTable.toEpochDay(2023, -3, 1));
+    assertThrows(IllegalArgumentException.class, () -> LunarCalendarTable.toEpochDay(2023, 13, 1));
+    assertThrows(IllegalArgumentException.class, () -> LunarCalendarTable.toEpochDay(2023, 1, 0));
+    assertEquals(SolarTimeUtils.epochDay(2023, 3, 22), LunarCalendarTable.toEpochDay(2023, -2, 1));
+  }
+}
@@ -0,0 +1,82 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nlf.calendar.EightChar;
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.model.BaziDef;
+import com.tafu.bazi.utils.FourPillarsEngine;
+import com.tafu.bazi.utils.FourPillarsEngine.Pillars;
+import com.tafu.bazi.utils.PillarSearch;
+import com.tafu.bazi.utils.PillarSearch.Window;
+import com.tafu.bazi.utils.SolarTimeUtils;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** 校验四柱反查与 FourPillarsEngine 互逆: 时段内四柱相符，时段前后一分钟不符，且覆盖所有相符时刻 */
+public class PillarSearchTest {
+
+  private static final long MIN_MINUTE =
+      SolarTimeUtils.epochDay(FourPillarsEngine.MIN_YEAR, 1, 1) * 24 * 60;
+
+  private static final long MAX_MINUTE =
+      SolarTimeUtils.epochDay(FourPillarsEngine.MAX_YEAR + 1, 1, 1) * 24 * 60;
+
+  @Test
+  public void testInverseOfEngine() {
+    Random random = new Random(20261018L);
+    for (int i = 0; i < 5000; i++) {
+      long minute = MIN_MINUTE + (long) (random.nextDouble() * (MAX_MINUTE - MIN_MINUTE));
+      Pillars pillars = FourPillarsEngine.compute(minute);
+      List<Window> windows =
+          PillarSearch.search(pillars.year(), pillars.month(), pillars.day(), pillars.hour());
+
+      int hits = 0;
+      for (Window window : windows) {
+        if (minute >= window.startMinute() && minute < window.endMinute()) {
+          hits++;
+        }
+        assertEquals(pillars, FourPillarsEngine.compute(window.startMinute()));
+        assertEquals(pillars, FourPillarsEngine.compute(window.endMinute() - 1));
+        if (window.startMinute() > MIN_MINUTE) {
+          assertNotEquals(pillars, FourPillarsEngine.compute(window.startMinute() - 1));
+        }
+        if (window.endMinute() < MAX_MINUTE) {
+          assertNotEquals(pillars, FourPillarsEngine.compute(window.endMinute()));
+        }
+      }
+      assertEquals(1, hits, "minute " + minute);
+    }
+  }
+
+  @Test
+  public void testMatchesEightChar() {
+    EightChar eightChar = Solar.fromYmdHms(1990, 5, 20, 23, 30, 0).getLunar().getEightChar();
+    eightChar.setSect(1);
+    List<Window> windows =
+        PillarSearch.search(
+            jiaZi(eightChar.getYear()),
+            jiaZi(eightChar.getMonth()),
+            jiaZi(eightChar.getDay()),
+            jiaZi(eightChar.getTime()));
+    long minute = SolarTimeUtils.epochDay(1990, 5, 20) * 24 * 60 + 23 * 60 + 30;
+    assertTrue(
+        windows.stream().anyMatch(w -> minute >= w.startMinute() && minute < w.endMinute()));
+  }
+
+  @Test
+  public void testRejectsImpossibleCombination() {
+    // 甲年正月为丙寅，甲子年不会有戊寅月
+    assertTrue(PillarSearch.search(0, BaziDef.jiaZiIndex(4, 2), 0, 0).isEmpty());
+    // 甲日子时为甲子，不会有丙子时
+    assertTrue(PillarSearch.search(0, BaziDef.jiaZiIndex(2, 2), 0, 12).isEmpty());
+  }
+
+  private static int jiaZi(String ganZhi) {
+    return BaziDef.jiaZiIndex(
+        BaziDef.stemIndex(ganZhi.substring(0, 1)), BaziDef.branchIndex(ganZhi.substring(1)));
+  }
+}
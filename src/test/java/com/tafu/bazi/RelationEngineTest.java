@@ -0,0 +1,61 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tafu.bazi.utils.RelationEngine;
+import com.tafu.bazi.utils.RelationMasks;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/** 校验干支位掩码关系表，以及原局、大运、流年的合冲刑害分析 */
+public class RelationEngineTest {
+
+  @Test
+  public void testMasks() {
+    assertTrue(RelationMasks.branchHarm(0, 7)); // 子未
+    assertTrue(RelationMasks.branchHarm(11, 8)); // 亥申
+    assertTrue(RelationMasks.branchPunish(0, 3)); // 子卯
+    assertTrue(RelationMasks.branchPunish(6, 6)); // 午午自刑
+    assertFalse(RelationMasks.branchPunish(0, 0));
+    assertTrue(RelationMasks.stemClash(9, 3)); // 癸丁
+    assertFalse(RelationMasks.stemClash(4, 0)); // 戊不冲
+    assertEquals("金", RelationMasks.stemCombineElement(6).getChinese()); // 庚乙
+    assertEquals("水", RelationMasks.branchCombineElement(8).getChinese()); // 申巳
+  }
+
+  @Test
+  public void testNatal() {
+    int[] natal = natal("壬申", "壬子", "戊辰", "甲寅");
+    assertEquals(
+        "年支申、时支寅六冲；年支申、时支寅相刑；年支申、月支子、日支辰三合(水)",
+        RelationEngine.describe(RelationEngine.analyze(RelationEngine.NATAL, natal, 0)));
+  }
+
+  @Test
+  public void testDaYunAndLiuNian() {
+    int[] positions = Arrays.copyOf(natal("甲子", "丙寅", "己丑", "甲戌"), 6);
+    positions[4] = RelationEngine.jiaZi("庚申");
+    positions[5] = Math.floorMod(2026 - 4, 60); // 丙午
+
+    // 大运只输出与大运有关的关系，原局自身的甲己合、子丑合等不重复
+    assertEquals(
+        "年干甲、大运干庚相冲；时干甲、大运干庚相冲；月支寅、大运支申六冲；月支寅、大运支申相刑",
+        RelationEngine.describe(
+            RelationEngine.analyze(RelationEngine.WITH_DA_YUN, Arrays.copyOf(positions, 5), 4)));
+    assertEquals(
+        "年支子、流年支午六冲；日支丑、流年支午相害；月支寅、时支戌、流年支午三合(火)",
+        RelationEngine.describe(
+            RelationEngine.analyze(RelationEngine.WITH_LIU_NIAN, positions, 5)));
+
+    // 起运前无大运干支
+    positions[4] = RelationEngine.jiaZi("");
+    assertEquals(-1, positions[4]);
+    assertEquals(3, RelationEngine.analyze(RelationEngine.WITH_LIU_NIAN, positions, 5).size());
+  }
+
+  private static int[] natal(String... ganZhi) {
+    return Arrays.stream(ganZhi).mapToInt(RelationEngine::jiaZi).toArray();
+  }
+}
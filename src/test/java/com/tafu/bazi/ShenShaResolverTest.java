@@ -0,0 +1,92 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.nlf.calendar.Lunar;
+import com.nlf.calendar.Solar;
+import com.tafu.bazi.component.ShenShaResolver;
+import com.tafu.bazi.model.BaziResult.ShenShaInfo;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 校验 ShenShaResolver 与原反射实现输出一致
+ *
+ * <p>lunar-java 1.7.7 的 Lunar 没有 getYearShenSha / getMonthShenSha / getDayShenSha / getTimeShenSha，
+ * 神煞功能在该版本下不生效 (恒为空)，一致性校验因此跳过；testInertOnBundledLunarVersion 固定这一现状，
+ * 升级到提供这些访问器的版本后该用例失败，一致性校验随之生效。
+ */
+public class ShenShaResolverTest {
+
+  private final ShenShaResolver resolver = new ShenShaResolver();
+
+  @Test
+  public void testInertOnBundledLunarVersion() {
+    assertFalse(resolver.isAvailable(), "lunar-java 已提供神煞访问器，改为断言非空神煞");
+    for (Lunar lunar : sampleDates()) {
+      ShenShaInfo info = resolver.resolve(lunar);
+      assertTrue(info.getYear().isEmpty(), lunar.toString());
+      assertTrue(info.getMonth().isEmpty(), lunar.toString());
+      assertTrue(info.getDay().isEmpty(), lunar.toString());
+      assertTrue(info.getHour().isEmpty(), lunar.toString());
+    }
+  }
+
+  @Test
+  public void testMatchesReflectionImplementation() {
+    assumeTrue(resolver.isAvailable(), "lunar-java 1.7.7 不提供神煞访问器，神煞恒为空");
+    int nonEmpty = 0;
+    for (Lunar lunar : sampleDates()) {
+      ShenShaInfo info = resolver.resolve(lunar);
+      String label = lunar.toString();
+      assertEquals(byReflection(lunar, "getYearShenSha"), info.getYear(), label);
+      assertEquals(byReflection(lunar, "getMonthShenSha"), info.getMonth(), label);
+      assertEquals(byReflection(lunar, "getDayShenSha"), info.getDay(), label);
+      assertEquals(byReflection(lunar, "getTimeShenSha"), info.getHour(), label);
+      if (!info.getDay().isEmpty() || !info.getHour().isEmpty()) {
+        nonEmpty++;
+      }
+    }
+    // 访问器可用时必须真的解析出神煞，否则两边都为空时比较没有意义
+    assertTrue(nonEmpty > 0, "访问器已解析但所有日期神煞均为空");
+  }
+
+  private static List<Lunar> sampleDates() {
+    List<Lunar> dates = new ArrayList<>();
+    for (int year = 1901; year <= 2099; year += 7) {
+      for (int month = 1; month <= 12; month += 5) {
+        for (int hour = 0; hour < 24; hour += 5) {
+          dates.add(Solar.fromYmdHms(year, month, 1 + (year % 28), hour, 30, 0).getLunar());
+        }
+      }
+    }
+    return dates;
+  }
+
+  /** 原 BaziServiceImpl.getShenShaByReflection 实现 */
+  private static List<String> byReflection(Lunar lunar, String methodName) {
+    List<String> result = new ArrayList<>();
+    try {
+      Object shenShaResult = lunar.getClass().getMethod(methodName).invoke(lunar);
+      if (shenShaResult instanceof List<?> shenShaList) {
+        for (Object obj : shenShaList) {
+          try {
+            String name = (String) obj.getClass().getMethod("getName").invoke(obj);
+            if (name != null && !name.isEmpty()) {
+              result.add(name);
+            }
+          } catch (Exception e) {
+            result.add(obj.toString());
+          }
+        }
+      }
+    } catch (Exception e) {
+      // 与原实现一致，失败时返回已解析部分
+    }
+    return result;
+  }
+}
@@ -0,0 +1,98 @@
+package com.tafu.bazi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.tafu.bazi.utils.SolarTimeUtils;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import org.junit.jupiter.api.Test;
+
+/** 校验 SolarTimeUtils 与原 Calendar 真太阳时实现逐分钟一致 (1901-2100) */
+public class SolarTimeUtilsTest {
+
+  private static final double[] LONGITUDES = {
+    73.5, 87.6, 100.0, 113.25, 116.4, 119.999, 120.0, 121.47, 126.6, 134.77
+  };
+
+  @Test
+  public void testEveryDayMatchesCalendar() {
+    // 日期含 29-31 日，覆盖宽松模式下的月末顺延
+    for (int year = 1901; year <= 2100; year++) {
+      for (int month = 1; month <= 12; month++) {
+        for (int day = 1; day <= 31; day++) {
+          for (int hour = 0; hour < 24; hour++) {
+            int minute = (year * 7 + month * 13 + day * 3 + hour) % 60;
+            double longitude = LONGITUDES[(day + hour) % LONGITUDES.length];
+            assertMatches(year, month, day, hour, minute, longitude);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEveryMinuteAroundBoundaries() {
+    int[][] dates = {{1901, 1, 1}, {1999, 12, 31}, {2000, 2, 29}, {2024, 12, 31}, {2100, 12, 31}};
+    for (int[] date : dates) {
+      for (int minuteOfDay = 0; minuteOfDay < 24 * 60; minuteOfDay++) {
+        for (double longitude : LONGITUDES) {
+          assertMatches(date[0], date[1], date[2], minuteOfDay / 60, minuteOfDay % 60, longitude);
+        }
+      }
+    }
+  }
+
+  private static void assertMatches(
+      int year, int month, int day, int hour, int minute, double longitude) {
+    long trueSolarMinute =
+        SolarTimeUtils.trueSolarMinute(year, month, day, hour, minute, longitude);
+    int[] actual = {
+      SolarTimeUtils.year(trueSolarMinute),
+      SolarTimeUtils.month(trueSolarMinute),
+      SolarTimeUtils.day(trueSolarMinute),
+      SolarTimeUtils.hour(trueSolarMinute),
+      SolarTimeUtils.minute(trueSolarMinute)
+    };
+    assertArrayEquals(
+        byCalendar(year, month, day, hour, minute, longitude),
+        actual,
+        () -> year + "-" + month + "-" + day + " " + hour + ":" + minute + " @" + longitude);
+  }
+
+  /** 原 BaziServiceImpl.getTrueSolarTime 的 Calendar 实现 (固定 UTC，排除默认时区夏令时影响) */
+  private static int[] byCalendar(
+      int year, int month, int day, int hour, int minute, double longitude) {
+    Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+    cal.set(year, month - 1, day);
+    int dayOfYear = cal.get(Calendar.DAY_OF_YEAR);
+
+    double b = (2 * Math.PI * (dayOfYear - 81)) / 365.0;
+    double eot = 9.87 * Math.sin(2 * b) - 7.53 * Math.cos(b) - 1.5 * Math.sin(b);
+
+    double longitudeCorrection = (longitude - 120.0) * 4.0;
+    double totalMinutes = hour * 60 + minute + longitudeCorrection + eot;
+
+    int dayOffset = 0;
+    if (totalMinutes < 0) {
+      totalMinutes += 24 * 60;
+      dayOffset = -1;
+    } else if (totalMinutes >= 24 * 60) {
+      totalMinutes -= 24 * 60;
+      dayOffset = 1;
+    }
+
+    int newHour = (int) (totalMinutes / 60);
+    int newMinute = (int) Math.round(totalMinutes % 60);
+
+    cal.set(year, month - 1, day, newHour, newMinute, 0);
+    cal.add(Calendar.DAY_OF_MONTH, dayOffset);
+    return new int[] {
+      cal.get(Calendar.YEAR),
+      cal.get(Calendar.MONTH) + 1,
+      cal.get(Calendar.DAY_OF_MONTH),
+      cal.get(Calendar.HOUR_OF_DAY),
+      cal.get(Calendar.MINUTE)
+    };
+  }
+}